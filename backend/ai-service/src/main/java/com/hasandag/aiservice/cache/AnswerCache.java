@@ -0,0 +1,321 @@
+package com.hasandag.aiservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.hasandag.aiservice.dto.AiRequest;
+import com.hasandag.aiservice.util.Logger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier in-process cache of answers, so that questions asked again in the same course are
+ * answered without a provider call.
+ * <p>
+ * The exact tier is a bounded Caffeine cache keyed by a hash of the normalized course id,
+ * question and context (lower case, punctuation and repeated whitespace dropped). Entries expire
+ * after a TTL and the least recently used are evicted beyond the maximum size. The semantic tier
+ * indexes the embedding of every cached question per course and context; on an exact miss it
+ * returns the answer to the most similar cached question if the similarity reaches the
+ * threshold. It only points into the exact tier, so eviction and invalidation apply to both.
+ * <p>
+ * Invalidating a course bumps its generation. A key carries the generation of its course from
+ * when it was computed, before the provider was asked, and an answer put under a key of an
+ * older generation is dropped, so an answer generated from the content before an invalidation
+ * is not cached after it.
+ * <p>
+ * Streamed answers carry no source references; they are cached for streamed questions only,
+ * and a question asked without streaming misses them and caches its answer in their place.
+ * <p>
+ * Lookups are counted in ai.cache.lookups by result (exact, semantic, miss); size and
+ * evictions are published as cache.* meters.
+ */
+@Component
+public class AnswerCache {
+
+    private static final org.slf4j.Logger log = Logger.getLogger(AnswerCache.class);
+
+    private static final String CACHE_NAME = "aiAnswers";
+
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final QuestionEmbedder embedder;
+    private final Cache<String, Entry> answers;
+    // Course id -> exact key -> embedded question, for the semantic tier
+    private final Map<String, Map<String, IndexedQuestion>> questionsByCourse = new ConcurrentHashMap<>();
+    // Course id -> number of invalidations so far
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Counter exactHits;
+    private final Counter semanticHits;
+    private final Counter misses;
+
+    public AnswerCache(
+            @Value("${ai.cache.enabled:true}") boolean enabled,
+            @Value("${ai.cache.maximum-size:10000}") long maximumSize,
+            @Value("${ai.cache.ttl:1h}") Duration ttl,
+            @Value("${ai.cache.semantic.threshold:0.9}") double similarityThreshold,
+            QuestionEmbedder embedder,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.embedder = embedder;
+        this.answers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // Synchronous, so the semantic tier never outlives the answers it points to
+                .executor(Runnable::run)
+                .removalListener((String key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        unindex(entry.courseKey, key);
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, answers, CACHE_NAME);
+        this.exactHits = lookups(meterRegistry, "exact");
+        this.semanticHits = lookups(meterRegistry, "semantic");
+        this.misses = lookups(meterRegistry, "miss");
+        log.info("Initialized AI answer cache (enabled: {}) with maximum size {}, TTL {} and similarity threshold {}",
+                enabled, maximumSize, ttl, similarityThreshold);
+    }
+
+    /**
+     * Computes the cache key of a request, to look up its answer and later to store it. Compute
+     * it before asking the provider, so an invalidation in between keeps the answer out.
+     */
+    public Key key(AiRequest request) {
+        String courseKey = courseKey(request.getCourseId());
+        return new Key(courseKey, normalize(request.getQuestion()), normalize(request.getContext()),
+                generation(courseKey).get());
+    }
+
+    /**
+     * Returns the cached answer to the question, or to a similar question of the same course
+     * and context. Streamed answers, which have no source references, are only returned if
+     * the caller streams too.
+     */
+    public Optional<CachedAnswer> get(Key key, boolean streaming) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Entry exact = answers.getIfPresent(key.hash);
+        if (exact != null && (streaming || exact.answer.hasSourceReferences())) {
+            exactHits.increment();
+            return Optional.of(exact.answer);
+        }
+
+        Map<String, IndexedQuestion> questions = questionsByCourse.get(key.courseKey);
+        if (questions != null) {
+            float[] embedding = key.embedding(embedder);
+            String bestKey = null;
+            float bestSimilarity = 0;
+            for (Map.Entry<String, IndexedQuestion> question : questions.entrySet()) {
+                if (!question.getValue().context.equals(key.context)
+                        || !(streaming || question.getValue().sourceReferences)) {
+                    continue;
+                }
+                float similarity = QuestionEmbedder.similarity(embedding, question.getValue().embedding);
+                if (similarity >= similarityThreshold && similarity > bestSimilarity) {
+                    bestKey = question.getKey();
+                    bestSimilarity = similarity;
+                }
+            }
+            Entry similar = bestKey == null ? null : answers.getIfPresent(bestKey);
+            if (similar != null && (streaming || similar.answer.hasSourceReferences())) {
+                log.debug("Answering \"{}\" from a cached question with similarity {}", key.question, bestSimilarity);
+                semanticHits.increment();
+                return Optional.of(similar.answer);
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Caches a complete, successful answer to the question, unless the course was invalidated
+     * since the key was computed.
+     */
+    public void put(Key key, CachedAnswer answer) {
+        if (!enabled || answer.getAnswer() == null || answer.getAnswer().isEmpty()) {
+            return;
+        }
+        AtomicLong generation = generation(key.courseKey);
+        if (generation.get() != key.generation) {
+            log.debug("Not caching the answer to \"{}\", its course was invalidated meanwhile", key.question);
+            return;
+        }
+
+        Entry entry = new Entry(key.courseKey, answer);
+        answers.put(key.hash, entry);
+        IndexedQuestion question = new IndexedQuestion(key.context, key.embedding(embedder), answer.hasSourceReferences());
+        questionsByCourse.compute(key.courseKey, (course, questions) -> {
+            Map<String, IndexedQuestion> indexed = questions == null ? new ConcurrentHashMap<>() : questions;
+            indexed.put(key.hash, question);
+            return indexed;
+        });
+
+        // An invalidation that ran while the answer was written may have missed it: the
+        // generation is bumped before the index is dropped, so checking it again after indexing
+        // catches every invalidation that did not see this entry
+        if (generation.get() != key.generation) {
+            answers.asMap().remove(key.hash, entry);
+        }
+    }
+
+    /**
+     * Drops all cached answers of a course, e.g. after its content changed, and keeps answers
+     * to questions asked before out of the cache.
+     */
+    public void invalidateCourse(String courseId) {
+        String courseKey = courseKey(courseId);
+        generation(courseKey).incrementAndGet();
+        Map<String, IndexedQuestion> questions = questionsByCourse.remove(courseKey);
+        if (questions != null) {
+            answers.invalidateAll(questions.keySet());
+            log.info("Invalidated {} cached AI answers of course {}", questions.size(), courseKey);
+        }
+    }
+
+    /**
+     * Lower case, Unicode compatibility forms folded, and everything but letters and digits
+     * collapsed to single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private static String courseKey(String courseId) {
+        return courseId == null ? "" : courseId.trim();
+    }
+
+    private AtomicLong generation(String courseKey) {
+        return generations.computeIfAbsent(courseKey, course -> new AtomicLong());
+    }
+
+    private void unindex(String courseKey, String key) {
+        questionsByCourse.computeIfPresent(courseKey, (course, questions) -> {
+            questions.remove(key);
+            return questions.isEmpty() ? null : questions;
+        });
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.cache.lookups")
+                .description("AI answer cache lookups by the tier that answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * An answer as cached, shared between the questions it answers.
+     */
+    public static final class CachedAnswer {
+        private final String answer;
+        private final String sourceReferences;
+
+        public CachedAnswer(String answer, String sourceReferences) {
+            this.answer = answer;
+            this.sourceReferences = sourceReferences;
+        }
+
+        public String getAnswer() {
+            return answer;
+        }
+
+        public String getSourceReferences() {
+            return sourceReferences;
+        }
+
+        private boolean hasSourceReferences() {
+            return sourceReferences != null;
+        }
+    }
+
+    /**
+     * The normalized question of a request; the embedding is only computed when needed.
+     */
+    public static final class Key {
+        private final String courseKey;
+        private final String question;
+        private final String context;
+        private final String hash;
+        private final long generation;
+        private float[] embedding;
+
+        private Key(String courseKey, String question, String context, long generation) {
+            this.courseKey = courseKey;
+            this.question = question;
+            this.context = context;
+            this.generation = generation;
+            this.hash = sha256(courseKey + '\n' + question + '\n' + context);
+        }
+
+        /**
+         * Identifies the normalized course id, question and context.
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        private float[] embedding(QuestionEmbedder embedder) {
+            if (embedding == null) {
+                embedding = embedder.embed(question);
+            }
+            return embedding;
+        }
+    }
+
+    private static final class Entry {
+        private final String courseKey;
+        private final CachedAnswer answer;
+
+        private Entry(String courseKey, CachedAnswer answer) {
+            this.courseKey = courseKey;
+            this.answer = answer;
+        }
+    }
+
+    private static final class IndexedQuestion {
+        private final String context;
+        private final float[] embedding;
+        private final boolean sourceReferences;
+
+        private IndexedQuestion(String context, float[] embedding, boolean sourceReferences) {
+            this.context = context;
+            this.embedding = embedding;
+            this.sourceReferences = sourceReferences;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.hasandag.aiservice.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Computes question embeddings locally, without a call to an embedding model: the content
+ * words of a normalized question (stop words dropped, plural s stripped) plus their character
+ * trigrams are hashed into a fixed-size, L2-normalized vector. Similar questions share most
+ * features, so the cosine similarity of their vectors is close to 1. This catches rephrasings
+ * such as "What exactly is Spring Boot?" for "what's spring boot", not synonyms.
+ */
+@Component
+public class QuestionEmbedder {
+
+    static final int DIMENSIONS = 512;
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float TRIGRAM_WEIGHT = 0.3f;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "is", "are", "was", "were", "be", "do", "does", "did", "i", "we", "you",
+            "it", "its", "what", "whats", "s", "how", "can", "could", "should", "would", "please",
+            "exactly", "me", "my", "of", "to", "in", "on", "for", "and", "or", "with", "this", "that",
+            "there", "explain", "tell", "about", "between");
+
+    /**
+     * Embeds a question normalized with {@link AnswerCache#normalize(String)}. A question made of
+     * stop words only embeds to the zero vector, which is similar to nothing.
+     */
+    public float[] embed(String normalizedQuestion) {
+        float[] vector = new float[DIMENSIONS];
+        for (String word : normalizedQuestion.split(" ")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            String stem = word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")
+                    ? word.substring(0, word.length() - 1)
+                    : word;
+            add(vector, "w:" + stem, WORD_WEIGHT);
+            String padded = " " + stem + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, "t:" + padded.substring(i, i + 3), TRIGRAM_WEIGHT);
+            }
+        }
+
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < DIMENSIONS; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Cosine similarity of two embeddings, which are already normalized.
+     */
+    public static float similarity(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    private static void add(float[] vector, String feature, float weight) {
+        // Signed feature hashing, so that colliding features cancel out instead of adding up
+        int hash = feature.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        vector[Math.floorMod(hash, DIMENSIONS)] += hash >= 0 ? weight : -weight;
+    }
+}
@@ -2,12 +2,25 @@ package com.hasandag.aiservice.controller;
 
 import com.hasandag.aiservice.dto.AiRequest;
 import com.hasandag.aiservice.dto.AiResponse;
+import com.hasandag.aiservice.dto.AiStreamChunk;
+import com.hasandag.aiservice.router.ProvidersBusyException;
 import com.hasandag.aiservice.service.AiService;
 import com.hasandag.aiservice.util.Logger;
 import jakarta.validation.Valid;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -15,17 +28,59 @@ public class AiController {
     
     private static final org.slf4j.Logger log = Logger.getLogger(AiController.class);
     
+    static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+    
     private final AiService aiService;
+    private final String cacheInvalidationToken;
     
-    public AiController(AiService aiService) {
+    public AiController(AiService aiService,
+                        @Value("${ai.cache.invalidation-token:}") String cacheInvalidationToken) {
         this.aiService = aiService;
+        this.cacheInvalidationToken = cacheInvalidationToken;
     }
     
     @PostMapping("/ask")
-    public ResponseEntity<AiResponse> ask(@Valid @RequestBody AiRequest request) {
+    public Mono<ResponseEntity<AiResponse>> ask(@Valid @RequestBody AiRequest request) {
         log.info("Received AI request: {}", request);
-        AiResponse response = aiService.processQuestion(request);
-        return ResponseEntity.ok(response);
+        return aiService.processQuestion(request)
+                .map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Streams the answer as server-sent events: a "token" event per chunk of the answer, then
+     * a "done" event with the question metadata, or an "error" event if the provider fails.
+     */
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> askStream(@Valid @RequestBody AiRequest request) {
+        log.info("Received streaming AI request: {}", request);
+        return toEvents(request);
+    }
+    
+    /**
+     * Same as POST /ask/stream with the request as query parameters, for EventSource clients.
+     */
+    @GetMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> askStreamQuery(@Valid AiRequest request) {
+        log.info("Received streaming AI request: {}", request);
+        return toEvents(request);
+    }
+    
+    /**
+     * Drops the cached answers of a course, e.g. after its content changed. Internal: meant for
+     * the other services, not for clients, so it requires the shared ai.cache.invalidation-token
+     * in the X-Internal-Token header and is forbidden while no token is configured.
+     */
+    @DeleteMapping("/cache/courses/{courseId}")
+    public ResponseEntity<Void> invalidateCachedAnswers(
+            @PathVariable String courseId,
+            @RequestHeader(value = INTERNAL_TOKEN_HEADER, required = false) String token) {
+        if (!isInternal(token)) {
+            log.warn("Refusing to invalidate cached AI answers of course {} without the internal token", courseId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Invalidating cached AI answers of course {}", courseId);
+        aiService.invalidateCachedAnswers(courseId);
+        return ResponseEntity.noContent().build();
     }
     
     @GetMapping("/health")
@@ -33,4 +88,42 @@ public class AiController {
         log.info("Health check requested");
         return ResponseEntity.ok("AI Service is running");
     }
-} 
\ No newline at end of file
+    
+    private Flux<ServerSentEvent<Object>> toEvents(AiRequest request) {
+        String questionId = UUID.randomUUID().toString();
+        
+        Flux<ServerSentEvent<Object>> tokens = aiService.streamAnswer(request)
+                .map(token -> ServerSentEvent.<Object>builder(new AiStreamChunk(token))
+                        .event("token")
+                        .build());
+        
+        Mono<ServerSentEvent<Object>> done = Mono.fromSupplier(() -> ServerSentEvent.<Object>builder(AiResponse.builder()
+                        .questionId(questionId)
+                        .timestamp(LocalDateTime.now())
+                        .courseId(request.getCourseId())
+                        .userId(request.getUserId())
+                        .success(true)
+                        .build())
+                .event("done")
+                .build());
+        
+        return tokens.concatWith(done)
+                .onErrorResume(e -> Mono.just(ServerSentEvent.<Object>builder(AiResponse.builder()
+                                .questionId(questionId)
+                                .success(false)
+                                .errorMessage(e instanceof ProvidersBusyException
+                                        ? e.getMessage()
+                                        : "Failed to process AI request: " + e.getMessage())
+                                .timestamp(LocalDateTime.now())
+                                .build())
+                        .event("error")
+                        .build()));
+    }
+    
+    private boolean isInternal(String token) {
+        // Constant time, so the token cannot be guessed from response times
+        return !cacheInvalidationToken.isEmpty() && token != null
+                && MessageDigest.isEqual(cacheInvalidationToken.getBytes(StandardCharsets.UTF_8),
+                        token.getBytes(StandardCharsets.UTF_8));
+    }
+}
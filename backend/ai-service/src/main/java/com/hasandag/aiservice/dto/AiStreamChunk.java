@@ -0,0 +1,32 @@
+package com.hasandag.aiservice.dto;
+
+/**
+ * One chunk of a streamed answer, sent as the data of a "token" server-sent event. Wrapped in
+ * JSON rather than sent as plain event data, which would lose the leading whitespace of a chunk.
+ */
+public class AiStreamChunk {
+    
+    private String text;
+    
+    public AiStreamChunk() {
+    }
+    
+    public AiStreamChunk(String text) {
+        this.text = text;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    @Override
+    public String toString() {
+        return "AiStreamChunk{" +
+                "text='" + text + '\'' +
+                '}';
+    }
+}
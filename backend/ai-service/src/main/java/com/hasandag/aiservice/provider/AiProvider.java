@@ -2,12 +2,20 @@ package com.hasandag.aiservice.provider;
 
 import com.hasandag.aiservice.dto.AiRequest;
 import com.hasandag.aiservice.dto.AiResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Interface for AI providers (OpenAI, Poe, etc.)
  */
 public interface AiProvider {
     
+    /**
+     * Name of this provider, as used in ai.provider and ai.router.providers
+     * @return the provider name, e.g. openai
+     */
+    String getName();
+    
     /**
      * Check if this provider is currently active
      * @return true if active, false otherwise
@@ -15,10 +23,25 @@ public interface AiProvider {
     boolean isActive();
     
     /**
-     * Process a question and generate a response
+     * Process a question and generate a response. Implementations must not block: the
+     * returned Mono is subscribed to on an event loop thread.
+     * @param request the AI request containing the question and context
+     * @return the AI response with the answer, emitted once the provider has answered
+     */
+    Mono<AiResponse> processQuestion(AiRequest request);
+    
+    /**
+     * Stream the answer to a question as it is generated. Chunks are emitted on demand and
+     * cancelling the subscription must stop the generation. Providers without a streaming API
+     * emit their whole answer as a single chunk.
      * @param request the AI request containing the question and context
-     * @return the AI response with the answer
+     * @return the answer text in order, chunk by chunk
      */
-    AiResponse processQuestion(AiRequest request);
+    default Flux<String> streamAnswer(AiRequest request) {
+        return processQuestion(request)
+                .flatMapMany(response -> response.isSuccess()
+                        ? Mono.justOrEmpty(response.getAnswer())
+                        : Mono.error(new IllegalStateException(response.getErrorMessage())));
+    }
     
 } 
\ No newline at end of file
@@ -48,70 +48,71 @@ public class CopilotProvider implements AiProvider {
         log.debug("Initialized Copilot provider with URL: {}, model: {}", apiUrl, model);
     }
 
+    @Override
+    public String getName() {
+        return "copilot";
+    }
+
     @Override
     public boolean isActive() {
         return "copilot".equalsIgnoreCase(activeProvider);
     }
 
     @Override
-    public AiResponse processQuestion(AiRequest request) {
+    public Mono<AiResponse> processQuestion(AiRequest request) {
         log.info("Processing question with Copilot provider: {}", request.getQuestion());
 
-        try {
-            // For initial implementation - return a mock response until we can properly integrate with Copilot API
-            String mockAnswer = "This is a response from the GitHub Copilot provider. " +
-                    "Your question was: " + request.getQuestion();
+        // For initial implementation - return a mock response until we can properly integrate with Copilot API
+        String mockAnswer = "This is a response from the GitHub Copilot provider. " +
+                "Your question was: " + request.getQuestion();
+        
+        return Mono.just(AiResponse.builder()
+                .answer(mockAnswer)
+                .questionId(UUID.randomUUID().toString())
+                .timestamp(LocalDateTime.now())
+                .sourceReferences("Generated by GitHub Copilot")
+                .courseId(request.getCourseId())
+                .userId(request.getUserId())
+                .success(true)
+                .build());
             
-            return AiResponse.builder()
-                    .answer(mockAnswer)
-                    .questionId(UUID.randomUUID().toString())
-                    .timestamp(LocalDateTime.now())
-                    .sourceReferences("Generated by GitHub Copilot")
-                    .courseId(request.getCourseId())
-                    .userId(request.getUserId())
-                    .success(true)
-                    .build();
-                
-            /* Actual implementation to be completed later
-            String question = addContextToQuestion(request);
-
-            Map<String, Object> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content", question);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("messages", new Object[]{message});
-            requestBody.put("temperature", 0.7);
-            requestBody.put("max_tokens", 800);
-
-            CopilotResponse copilotResponse = webClient.post()
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(CopilotResponse.class)
-                    .timeout(Duration.ofSeconds(timeout))
-                    .block();
-
-            String answer = extractAnswer(copilotResponse);
-
-            return AiResponse.builder()
-                    .answer(answer)
-                    .questionId(UUID.randomUUID().toString())
-                    .timestamp(LocalDateTime.now())
-                    .sourceReferences("Generated by GitHub Copilot")
-                    .courseId(request.getCourseId())
-                    .userId(request.getUserId())
-                    .success(true)
-                    .build();
-            */
-        } catch (Exception e) {
-            log.error("Failed to process Copilot request: {}", e.getMessage(), e);
-            return AiResponse.builder()
-                    .success(false)
-                    .errorMessage("Failed to process Copilot request: " + e.getMessage())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-        }
+        /* Actual implementation to be completed later
+        String question = addContextToQuestion(request);
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", "user");
+        message.put("content", question);
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("messages", new Object[]{message});
+        requestBody.put("temperature", 0.7);
+        requestBody.put("max_tokens", 800);
+
+        return webClient.post()
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(CopilotResponse.class)
+                .timeout(Duration.ofSeconds(timeout))
+                .map(this::extractAnswer)
+                .map(answer -> AiResponse.builder()
+                        .answer(answer)
+                        .questionId(UUID.randomUUID().toString())
+                        .timestamp(LocalDateTime.now())
+                        .sourceReferences("Generated by GitHub Copilot")
+                        .courseId(request.getCourseId())
+                        .userId(request.getUserId())
+                        .success(true)
+                        .build())
+                .onErrorResume(e -> {
+                    log.error("Failed to process Copilot request: {}", e.getMessage(), e);
+                    return Mono.just(AiResponse.builder()
+                            .success(false)
+                            .errorMessage("Failed to process Copilot request: " + e.getMessage())
+                            .timestamp(LocalDateTime.now())
+                            .build());
+                });
+        */
     }
 
     private String addContextToQuestion(AiRequest request) {
@@ -5,7 +5,10 @@ import com.hasandag.aiservice.dto.AiResponse;
 import com.hasandag.aiservice.util.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -16,27 +19,59 @@ public class MockProvider implements AiProvider {
     @Value("${ai.provider}")
     private String activeProvider;
 
+    // Simulated model latency, for load testing without a real provider
+    @Value("${ai.mock.latency:0ms}")
+    private Duration latency = Duration.ZERO;
+
+    // Simulated delay between streamed tokens; latency is then the time to the first token
+    @Value("${ai.mock.token-interval:0ms}")
+    private Duration tokenInterval = Duration.ZERO;
+
+    @Override
+    public String getName() {
+        return "mock";
+    }
+
     @Override
     public boolean isActive() {
         return "mock".equalsIgnoreCase(activeProvider);
     }
 
     @Override
-    public AiResponse processQuestion(AiRequest request) {
+    public Mono<AiResponse> processQuestion(AiRequest request) {
         log.info("Processing question with Mock provider: {}", request.getQuestion());
         
-        // Create a simulated response based on the question
-        String answer = generateMockAnswer(request.getQuestion(), request.getCourseId(), request.getContext());
-        
-        return AiResponse.builder()
-                .answer(answer)
-                .questionId(UUID.randomUUID().toString())
-                .timestamp(LocalDateTime.now())
-                .sourceReferences("Mock AI response - for testing only")
-                .courseId(request.getCourseId())
-                .userId(request.getUserId())
-                .success(true)
-                .build();
+        Mono<AiResponse> response = Mono.fromSupplier(() -> {
+            // Create a simulated response based on the question
+            String answer = generateMockAnswer(request.getQuestion(), request.getCourseId(), request.getContext());
+            
+            return AiResponse.builder()
+                    .answer(answer)
+                    .questionId(UUID.randomUUID().toString())
+                    .timestamp(LocalDateTime.now())
+                    .sourceReferences("Mock AI response - for testing only")
+                    .courseId(request.getCourseId())
+                    .userId(request.getUserId())
+                    .success(true)
+                    .build();
+        });
+        
+        // The delay runs on a timer, like waiting on a real provider it holds no thread
+        return latency.isZero() ? response : response.delayElement(latency);
+    }
+    
+    @Override
+    public Flux<String> streamAnswer(AiRequest request) {
+        log.info("Streaming answer with Mock provider: {}", request.getQuestion());
+        
+        // Word by word, with the whitespace kept on the preceding word so the chunks join back to the answer
+        Flux<String> tokens = Flux.defer(() -> Flux.fromArray(
+                generateMockAnswer(request.getQuestion(), request.getCourseId(), request.getContext()).split("(?<=\\s)")));
+        
+        if (!tokenInterval.isZero()) {
+            tokens = tokens.delayElements(tokenInterval);
+        }
+        return latency.isZero() ? tokens : tokens.delaySubscription(latency);
     }
     
     private String generateMockAnswer(String question, String courseId, String context) {
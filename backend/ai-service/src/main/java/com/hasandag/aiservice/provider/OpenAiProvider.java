@@ -8,9 +8,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @Primary
@@ -27,43 +30,52 @@ public class OpenAiProvider implements AiProvider {
         this.chatClient = chatClientBuilder.build();
     }
 
+    @Override
+    public String getName() {
+        return "openai";
+    }
+
     @Override
     public boolean isActive() {
         return "openai".equalsIgnoreCase(activeProvider);
     }
 
     @Override
-    public AiResponse processQuestion(AiRequest request) {
+    public Mono<AiResponse> processQuestion(AiRequest request) {
         log.info("Processing question with OpenAI provider: {}", request.getQuestion());
         
-        try {
-            // Build the system prompt
-            String systemPrompt = buildSystemPrompt(request);
-            
-            // Use the new fluent API
-            String answer = chatClient.prompt()
-                    .system(systemPrompt)
-                    .user(request.getQuestion())
-                    .call()
-                    .content();
-            
-            return AiResponse.builder()
-                    .answer(answer)
-                    .questionId(UUID.randomUUID().toString())
-                    .timestamp(LocalDateTime.now())
-                    .sourceReferences(generateSourceReference())
-                    .courseId(request.getCourseId())
-                    .userId(request.getUserId())
-                    .success(true)
-                    .build();
-        } catch (Exception e) {
-            log.error("Error processing OpenAI request", e);
-            return AiResponse.builder()
-                    .success(false)
-                    .errorMessage("Failed to process OpenAI request: " + e.getMessage())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-        }
+        return streamAnswer(request)
+                .collect(Collectors.joining())
+                .map(answer -> AiResponse.builder()
+                        .answer(answer)
+                        .questionId(UUID.randomUUID().toString())
+                        .timestamp(LocalDateTime.now())
+                        .sourceReferences(generateSourceReference())
+                        .courseId(request.getCourseId())
+                        .userId(request.getUserId())
+                        .success(true)
+                        .build())
+                .onErrorResume(e -> {
+                    log.error("Error processing OpenAI request", e);
+                    return Mono.just(AiResponse.builder()
+                            .success(false)
+                            .errorMessage("Failed to process OpenAI request: " + e.getMessage())
+                            .timestamp(LocalDateTime.now())
+                            .build());
+                });
+    }
+    
+    @Override
+    public Flux<String> streamAnswer(AiRequest request) {
+        log.info("Streaming answer with OpenAI provider: {}", request.getQuestion());
+        
+        // Stream instead of call(): call() blocks the subscribing event loop thread until the
+        // whole completion is back, the streamed chunks arrive on the HTTP client's own threads
+        return chatClient.prompt()
+                .system(buildSystemPrompt(request))
+                .user(request.getQuestion())
+                .stream()
+                .content();
     }
     
     private String buildSystemPrompt(AiRequest request) {
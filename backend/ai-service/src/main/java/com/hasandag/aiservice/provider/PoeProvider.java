@@ -48,66 +48,68 @@ public class PoeProvider implements AiProvider {
         log.debug("Initialized Poe provider with URL: {}, bot: {}", apiUrl, bot);
     }
 
+    @Override
+    public String getName() {
+        return "poe";
+    }
+
     @Override
     public boolean isActive() {
         return "poe".equalsIgnoreCase(activeProvider);
     }
 
     @Override
-    public AiResponse processQuestion(AiRequest request) {
+    public Mono<AiResponse> processQuestion(AiRequest request) {
         log.info("Processing question with Poe provider: {}", request.getQuestion());
 
-        try {
-            // For debugging - return a mock response until we can fix the Poe API integration
-            String mockAnswer = "This is a mock response from the Poe provider while we debug the API integration. " +
-                    "Your question was: " + request.getQuestion();
+        // For debugging - return a mock response until we can fix the Poe API integration
+        String mockAnswer = "This is a mock response from the Poe provider while we debug the API integration. " +
+                "Your question was: " + request.getQuestion();
+        
+        return Mono.just(AiResponse.builder()
+                .answer(mockAnswer)
+                .questionId(UUID.randomUUID().toString())
+                .timestamp(LocalDateTime.now())
+                .sourceReferences("Generated by Mock Poe AI (debugging)")
+                .courseId(request.getCourseId())
+                .userId(request.getUserId())
+                .success(true)
+                .build());
             
-            return AiResponse.builder()
-                    .answer(mockAnswer)
-                    .questionId(UUID.randomUUID().toString())
-                    .timestamp(LocalDateTime.now())
-                    .sourceReferences("Generated by Mock Poe AI (debugging)")
-                    .courseId(request.getCourseId())
-                    .userId(request.getUserId())
-                    .success(true)
-                    .build();
-                
-            /* Original implementation - temporarily commented out for debugging
-            String question = addContextToQuestion(request);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("message", question);
-            requestBody.put("bot", bot);
-            requestBody.put("conversation_id", request.getCourseId() != null ? request.getCourseId() : UUID.randomUUID().toString());
-
-            PoeResponse poeResponse = webClient.post()
-                    .uri("chat")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(PoeResponse.class)
-                    .timeout(Duration.ofSeconds(timeout))
-                    .block();
-
-            String answer = poeResponse != null ? poeResponse.text : "No response from Poe AI";
-
-            return AiResponse.builder()
-                    .answer(answer)
-                    .questionId(UUID.randomUUID().toString())
-                    .timestamp(LocalDateTime.now())
-                    .sourceReferences("Generated by Poe AI")
-                    .courseId(request.getCourseId())
-                    .userId(request.getUserId())
-                    .success(true)
-                    .build();
-            */
-        } catch (Exception e) {
-            log.error("Failed to process Poe request: {}", e.getMessage(), e);
-            return AiResponse.builder()
-                    .success(false)
-                    .errorMessage("Failed to process Poe request: " + e.getMessage())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-        }
+        /* Original implementation - temporarily commented out for debugging
+        String question = addContextToQuestion(request);
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("message", question);
+        requestBody.put("bot", bot);
+        requestBody.put("conversation_id", request.getCourseId() != null ? request.getCourseId() : UUID.randomUUID().toString());
+
+        return webClient.post()
+                .uri("chat")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(PoeResponse.class)
+                .timeout(Duration.ofSeconds(timeout))
+                .map(poeResponse -> poeResponse.text)
+                .defaultIfEmpty("No response from Poe AI")
+                .map(answer -> AiResponse.builder()
+                        .answer(answer)
+                        .questionId(UUID.randomUUID().toString())
+                        .timestamp(LocalDateTime.now())
+                        .sourceReferences("Generated by Poe AI")
+                        .courseId(request.getCourseId())
+                        .userId(request.getUserId())
+                        .success(true)
+                        .build())
+                .onErrorResume(e -> {
+                    log.error("Failed to process Poe request: {}", e.getMessage(), e);
+                    return Mono.just(AiResponse.builder()
+                            .success(false)
+                            .errorMessage("Failed to process Poe request: " + e.getMessage())
+                            .timestamp(LocalDateTime.now())
+                            .build());
+                });
+        */
     }
 
     private String addContextToQuestion(AiRequest request) {
@@ -0,0 +1,275 @@
+package com.hasandag.aiservice.router;
+
+import com.hasandag.aiservice.dto.AiRequest;
+import com.hasandag.aiservice.dto.AiResponse;
+import com.hasandag.aiservice.provider.AiProvider;
+import com.hasandag.aiservice.provider.MockProvider;
+import com.hasandag.aiservice.util.Logger;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Routes questions across the providers listed in ai.router.providers (by default just
+ * ai.provider), falling back to the mock provider when none of them exists.
+ * <p>
+ * Each question goes to a provider picked at random by weight, which favours providers with a
+ * low latency and error rate (moving averages of their recent calls) and few calls in progress;
+ * every provider keeps a small share of the traffic so that a recovered one is noticed. If the
+ * picked provider has not answered after its p95 latency, the question is hedged: sent to the
+ * next provider as well, and the first answer wins while the other call is cancelled. A provider
+ * that fails, answers unsuccessfully or times out is failed over to the next.
+ * Streams fail over as long as they have not emitted a chunk, and are not hedged.
+ * <p>
+ * Every provider call goes through the provider's resilience4j bulkhead, circuit breaker and
+ * time limiter, configured per provider name under resilience4j.*.instances (falling back to
+ * resilience4j.*.configs.default). A call the bulkhead or the open circuit rejects fails over
+ * at once; if every provider rejects, the question fails with {@link ProvidersBusyException}
+ * instead of queueing.
+ */
+@Component
+public class ProviderRouter {
+
+    private static final org.slf4j.Logger log = Logger.getLogger(ProviderRouter.class);
+
+    // Share of the traffic every provider gets at least
+    private static final double MIN_SHARE = 0.02;
+
+    private final List<ProviderStats> routes;
+    private final boolean hedging;
+    private final Duration minHedgeDelay;
+    private final DoubleSupplier random;
+
+    @Autowired
+    public ProviderRouter(
+            List<AiProvider> providers,
+            MockProvider mockProvider,
+            @Value("${ai.router.providers:${ai.provider:mock}}") List<String> routedProviders,
+            @Value("${ai.router.hedge.enabled:true}") boolean hedging,
+            @Value("${ai.router.hedge.min-delay:500ms}") Duration minHedgeDelay,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            TimeLimiterRegistry timeLimiterRegistry,
+            MeterRegistry meterRegistry) {
+        this(providers, mockProvider, routedProviders, hedging, minHedgeDelay, circuitBreakerRegistry,
+                bulkheadRegistry, timeLimiterRegistry, meterRegistry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    ProviderRouter(List<AiProvider> providers, MockProvider mockProvider, List<String> routedProviders,
+                   boolean hedging, Duration minHedgeDelay, CircuitBreakerRegistry circuitBreakerRegistry,
+                   BulkheadRegistry bulkheadRegistry, TimeLimiterRegistry timeLimiterRegistry,
+                   MeterRegistry meterRegistry, DoubleSupplier random) {
+        Map<String, AiProvider> byName = new LinkedHashMap<>();
+        for (String name : routedProviders) {
+            providers.stream()
+                    .filter(provider -> name.trim().equalsIgnoreCase(provider.getName()))
+                    .findFirst()
+                    .ifPresent(provider -> byName.putIfAbsent(provider.getName(), provider));
+        }
+        if (byName.isEmpty()) {
+            log.warn("None of the AI providers {} exists, routing to the mock provider", routedProviders);
+            byName.put(mockProvider.getName(), mockProvider);
+        }
+
+        this.routes = byName.values().stream()
+                .map(provider -> new ProviderStats(provider,
+                        circuitBreakerRegistry.circuitBreaker(provider.getName()),
+                        bulkheadRegistry.bulkhead(provider.getName()),
+                        timeLimiterRegistry.timeLimiter(provider.getName()),
+                        meterRegistry))
+                .toList();
+        this.hedging = hedging;
+        this.minHedgeDelay = minHedgeDelay;
+        this.random = random;
+        log.info("Routing AI questions to {}, hedging {}", byName.keySet(),
+                hedging ? "after p95 latency, at least " + minHedgeDelay : "disabled");
+    }
+
+    /**
+     * Answers the question with the providers in weighted order, hedging and failing over.
+     * Fails with the error of the last provider if none of them answers, or with
+     * {@link ProvidersBusyException} if the last one rejected the call.
+     */
+    public Mono<AiResponse> processQuestion(AiRequest request) {
+        return Mono.defer(() -> answer(order(), request))
+                .onErrorMap(ProviderRouter::isRejection, ProvidersBusyException::new);
+    }
+
+    /**
+     * Streams the answer from the provider picked by weight, failing over until the first chunk.
+     */
+    public Flux<String> streamAnswer(AiRequest request) {
+        return Flux.defer(() -> stream(order(), request))
+                .onErrorMap(ProviderRouter::isRejection, ProvidersBusyException::new);
+    }
+
+    private Mono<AiResponse> answer(List<ProviderStats> order, AiRequest request) {
+        ProviderStats primary = order.get(0);
+        Duration hedgeDelay = hedging && order.size() > 1 ? primary.hedgeDelay(minHedgeDelay) : null;
+        if (hedgeDelay == null) {
+            return attempt(primary, request)
+                    .onErrorResume(e -> failover(primary, order.subList(1, order.size()), request, e));
+        }
+
+        // The second provider is asked after the hedge delay, or as soon as the first one fails
+        ProviderStats second = order.get(1);
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        AtomicReference<Throwable> lastError = new AtomicReference<>();
+        Mono<AiResponse> first = attempt(primary, request)
+                .doOnError(e -> {
+                    lastError.set(e);
+                    primaryFailed.tryEmitEmpty();
+                });
+        Mono<AiResponse> hedged = Mono.firstWithSignal(Mono.delay(hedgeDelay).thenReturn(true), primaryFailed.asMono().thenReturn(false))
+                .flatMap(hedge -> {
+                    if (hedge) {
+                        log.debug("{} has not answered within {} ms, hedging to {}", primary.name(), hedgeDelay.toMillis(), second.name());
+                        second.recordHedge();
+                    } else {
+                        log.warn("AI provider {} failed, failing over to {}: {}", primary.name(), second.name(), lastError.get().getMessage());
+                        primary.recordFailover();
+                    }
+                    return attempt(second, request).doOnError(lastError::set);
+                });
+
+        return Mono.firstWithValue(first, hedged)
+                // Both failed: continue with the error of the provider that failed last
+                .onErrorMap(e -> lastError.get() != null ? lastError.get() : e)
+                .onErrorResume(e -> failover(second, order.subList(2, order.size()), request, e));
+    }
+
+    private Mono<AiResponse> failover(ProviderStats failed, List<ProviderStats> next, AiRequest request, Throwable error) {
+        if (next.isEmpty()) {
+            return Mono.error(error);
+        }
+        log.warn("AI provider {} failed, failing over to {}: {}", failed.name(), next.get(0).name(), error.getMessage());
+        failed.recordFailover();
+        return answer(next, request);
+    }
+
+    private Mono<AiResponse> attempt(ProviderStats route, AiRequest request) {
+        return Mono.defer(() -> {
+            long start = now();
+            route.started();
+            return route.guard(Mono.defer(() -> route.provider().processQuestion(request))
+                            // Providers report most failures as unsuccessful responses
+                            .flatMap(response -> response.isSuccess()
+                                    ? Mono.just(response)
+                                    : Mono.<AiResponse>error(new IllegalStateException(response.getErrorMessage()))))
+                    // A cancelled hedge loser says nothing about the provider, so it is not recorded
+                    .doOnSuccess(response -> route.recordSuccess(now() - start))
+                    .doOnError(e -> record(route, e, now() - start))
+                    .doFinally(signal -> route.finished());
+        });
+    }
+
+    private Flux<String> stream(List<ProviderStats> order, AiRequest request) {
+        ProviderStats route = order.get(0);
+        List<ProviderStats> rest = order.subList(1, order.size());
+        AtomicBoolean emitted = new AtomicBoolean();
+
+        return Flux.defer(() -> {
+                    long start = now();
+                    route.started();
+                    return route.guard(Flux.defer(() -> route.provider().streamAnswer(request)))
+                            .doOnNext(chunk -> emitted.set(true))
+                            .doOnComplete(route::recordStreamSuccess)
+                            .doOnError(e -> record(route, e, now() - start))
+                            .doFinally(signal -> route.finished());
+                })
+                .onErrorResume(e -> {
+                    if (emitted.get() || rest.isEmpty()) {
+                        return Flux.error(e);
+                    }
+                    log.warn("AI provider {} failed before streaming, failing over to {}: {}", route.name(), rest.get(0).name(), e.getMessage());
+                    route.recordFailover();
+                    return stream(rest, request);
+                });
+    }
+
+    private static void record(ProviderStats route, Throwable error, long elapsedMs) {
+        if (isRejection(error)) {
+            route.recordRejected(error);
+        } else {
+            route.recordFailure(elapsedMs, error instanceof TimeoutException);
+        }
+    }
+
+    private static boolean isRejection(Throwable error) {
+        return error instanceof BulkheadFullException || error instanceof CallNotPermittedException;
+    }
+
+    /**
+     * Orders the providers for one question: the first picked at random by weight, the others
+     * by descending weight as hedging and failover targets.
+     */
+    List<ProviderStats> order() {
+        if (routes.size() == 1) {
+            return routes;
+        }
+
+        double[] weights = new double[routes.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = routes.get(i).weight();
+            total += weights[i];
+        }
+        double adjustedTotal = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = Math.max(weights[i], MIN_SHARE * total);
+            adjustedTotal += weights[i];
+        }
+
+        int picked = weights.length - 1;
+        double target = random.getAsDouble() * adjustedTotal;
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                picked = i;
+                break;
+            }
+        }
+
+        List<ProviderStats> order = new ArrayList<>(routes.size());
+        order.add(routes.get(picked));
+        routes.stream()
+                .filter(route -> route != order.get(0))
+                .sorted(Comparator.comparingDouble(ProviderStats::weight).reversed())
+                .forEach(order::add);
+        return order;
+    }
+
+    List<ProviderStats> routes() {
+        return routes;
+    }
+
+    /**
+     * The clock of the scheduler that times out and hedges calls, so that it is virtual in tests.
+     */
+    private static long now() {
+        return Schedulers.parallel().now(TimeUnit.MILLISECONDS);
+    }
+}
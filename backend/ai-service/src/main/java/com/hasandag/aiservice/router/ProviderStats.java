@@ -0,0 +1,246 @@
+package com.hasandag.aiservice.router;
+
+import com.hasandag.aiservice.provider.AiProvider;
+import com.hasandag.aiservice.util.Logger;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live health of one routed provider: exponentially weighted moving averages of its latency
+ * and error rate, the calls in progress, and its recent latencies for the p95 that sets the
+ * hedging delay. Also owns the provider's ai.router.* meters and its resilience4j guards.
+ */
+class ProviderStats {
+
+    private static final org.slf4j.Logger log = Logger.getLogger(ProviderStats.class);
+
+    // Weight of the newest sample in the moving averages
+    private static final double ALPHA = 0.2;
+    // Assumed until the first call completes, about what an LLM answer takes
+    private static final double INITIAL_LATENCY_MS = 1000;
+    private static final int LATENCY_SAMPLES = 256;
+    // Hedging on a p95 of fewer samples would hedge on noise
+    private static final int MIN_SAMPLES_FOR_HEDGING = 20;
+
+    private final AiProvider provider;
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount; // Samples held, up to LATENCY_SAMPLES
+    private int nextLatency; // Slot the next sample overwrites
+    private long p95Ms = -1;
+    private double latencyEwmaMs = INITIAL_LATENCY_MS;
+    private double errorRateEwma;
+
+    private final Timer latencyTimer;
+    private final Counter successes;
+    private final Counter errors;
+    private final Counter timeouts;
+    private final Counter hedges;
+    private final Counter failovers;
+    private final Counter rejectedByBulkhead;
+    private final Counter rejectedByCircuitBreaker;
+
+    ProviderStats(AiProvider provider, CircuitBreaker circuitBreaker, Bulkhead bulkhead, TimeLimiter timeLimiter,
+                  MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.name = provider.getName();
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.timeLimiter = timeLimiter;
+        this.latencyTimer = Timer.builder("ai.router.latency")
+                .description("Latency of successful provider calls")
+                .tag("provider", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.successes = requests(meterRegistry, "success");
+        this.errors = requests(meterRegistry, "error");
+        this.timeouts = requests(meterRegistry, "timeout");
+        this.hedges = Counter.builder("ai.router.hedges")
+                .description("Hedged duplicate requests sent to this provider")
+                .tag("provider", name)
+                .register(meterRegistry);
+        this.failovers = Counter.builder("ai.router.failovers")
+                .description("Requests failed over from this provider to the next")
+                .tag("provider", name)
+                .register(meterRegistry);
+        this.rejectedByBulkhead = rejected(meterRegistry, "bulkhead");
+        this.rejectedByCircuitBreaker = rejected(meterRegistry, "circuit-open");
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker of AI provider {} went from {} to {}", name,
+                    event.getStateTransition().getFromState(), event.getStateTransition().getToState());
+            Counter.builder("ai.router.circuit.transitions")
+                    .description("Circuit breaker state transitions")
+                    .tag("provider", name)
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        Gauge.builder("ai.router.latency.ewma", this, ProviderStats::latencyEwmaMs)
+                .description("Moving average of the provider latency in milliseconds")
+                .tag("provider", name)
+                .register(meterRegistry);
+        Gauge.builder("ai.router.error-rate", this, ProviderStats::errorRate)
+                .description("Moving average of the share of failed provider calls")
+                .tag("provider", name)
+                .register(meterRegistry);
+        Gauge.builder("ai.router.in-flight", inFlight, AtomicInteger::get)
+                .description("Provider calls in progress")
+                .tag("provider", name)
+                .register(meterRegistry);
+    }
+
+    AiProvider provider() {
+        return provider;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Guards a call to the provider: the bulkhead rejects it at once when the provider's
+     * concurrency limit is reached, the circuit breaker rejects it while the provider is failing,
+     * and the time limiter fails it after the provider's timeout.
+     */
+    <T> Mono<T> guard(Mono<T> call) {
+        return call.transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                // Inside the bulkhead, so that load shedding does not count as provider failures
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * Guards a streamed call the same way; the timeout bounds the wait for the first chunk and
+     * the gaps between chunks rather than the whole stream.
+     */
+    <T> Flux<T> guard(Flux<T> stream) {
+        Duration timeout = timeLimiter.getTimeLimiterConfig().getTimeoutDuration();
+        return stream.timeout(Mono.delay(timeout), chunk -> Mono.delay(timeout))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * Routing weight: favours fast, reliable and idle providers. Squaring the success rate makes
+     * a provider that fails half its calls get a quarter of the traffic it would otherwise get.
+     */
+    synchronized double weight() {
+        double successRate = 1 - errorRateEwma;
+        return successRate * successRate / Math.max(latencyEwmaMs, 1) / (1 + inFlight.get());
+    }
+
+    /**
+     * Delay after which a call to this provider is hedged, its p95 latency but at least
+     * minDelay; null while there are too few samples to tell.
+     */
+    synchronized Duration hedgeDelay(Duration minDelay) {
+        if (latencyCount < MIN_SAMPLES_FOR_HEDGING) {
+            return null;
+        }
+        if (p95Ms < 0) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            p95Ms = sorted[(int) Math.ceil(0.95 * sorted.length) - 1];
+        }
+        Duration p95 = Duration.ofMillis(p95Ms);
+        return p95.compareTo(minDelay) < 0 ? minDelay : p95;
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void finished() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void recordSuccess(long latencyMs) {
+        successes.increment();
+        latencyTimer.record(latencyMs, TimeUnit.MILLISECONDS);
+        latencyEwmaMs += ALPHA * (latencyMs - latencyEwmaMs);
+        errorRateEwma += ALPHA * (0 - errorRateEwma);
+        latencies[nextLatency] = latencyMs;
+        nextLatency = (nextLatency + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        p95Ms = -1;
+    }
+
+    /**
+     * Records a successful streamed answer, whose duration says little about the provider's speed.
+     */
+    synchronized void recordStreamSuccess() {
+        successes.increment();
+        errorRateEwma += ALPHA * (0 - errorRateEwma);
+    }
+
+    /**
+     * Records a failed call. The time it took counts towards the latency too, so a provider
+     * that times out also looks slow.
+     */
+    synchronized void recordFailure(long elapsedMs, boolean timedOut) {
+        (timedOut ? timeouts : errors).increment();
+        latencyEwmaMs += ALPHA * (Math.max(elapsedMs, latencyEwmaMs) - latencyEwmaMs);
+        errorRateEwma += ALPHA * (1 - errorRateEwma);
+    }
+
+    /**
+     * Records a call the guards rejected without asking the provider. Rejections leave the
+     * moving averages alone: a saturated provider is not a failing one.
+     */
+    void recordRejected(Throwable rejection) {
+        (rejection instanceof BulkheadFullException ? rejectedByBulkhead : rejectedByCircuitBreaker).increment();
+    }
+
+    void recordHedge() {
+        hedges.increment();
+    }
+
+    void recordFailover() {
+        failovers.increment();
+    }
+
+    synchronized double latencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    synchronized double errorRate() {
+        return errorRateEwma;
+    }
+
+    private Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("ai.router.rejected")
+                .description("Provider calls rejected without asking the provider")
+                .tag("provider", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ai.router.requests")
+                .description("Provider calls by outcome")
+                .tag("provider", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
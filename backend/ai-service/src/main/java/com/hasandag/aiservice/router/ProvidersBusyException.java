@@ -0,0 +1,14 @@
+package com.hasandag.aiservice.router;
+
+/**
+ * Every provider rejected the question, because it was at its concurrency limit or its circuit
+ * was open. Retrying shortly after is expected to succeed.
+ */
+public class ProvidersBusyException extends RuntimeException {
+
+    public static final String MESSAGE = "The AI assistant is busy right now, please try again in a moment";
+
+    public ProvidersBusyException(Throwable cause) {
+        super(MESSAGE, cause);
+    }
+}
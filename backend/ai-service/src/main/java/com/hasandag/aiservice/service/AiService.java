@@ -1,56 +1,184 @@
 package com.hasandag.aiservice.service;
 
+import com.hasandag.aiservice.cache.AnswerCache;
+import com.hasandag.aiservice.cache.AnswerCache.CachedAnswer;
 import com.hasandag.aiservice.dto.AiRequest;
 import com.hasandag.aiservice.dto.AiResponse;
-import com.hasandag.aiservice.provider.AiProvider;
-import com.hasandag.aiservice.provider.MockProvider;
+import com.hasandag.aiservice.router.ProviderRouter;
+import com.hasandag.aiservice.router.ProvidersBusyException;
 import com.hasandag.aiservice.util.Logger;
-import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class AiService {
     
     private static final org.slf4j.Logger log = Logger.getLogger(AiService.class);
-
-    @Value("${ai.provider}")
-    private String configuredProvider;
     
-    private final List<AiProvider> providers;
-    private final MockProvider mockProvider;
+    // Chunks requested from the provider ahead of what the client has consumed
+    @Value("${ai.stream.prefetch:32}")
+    private int streamPrefetch = 32;
+    
+    private final ProviderRouter providerRouter;
+    private final AnswerCache answerCache;
+    private final InFlightQuestions inFlightQuestions;
+    private final Timer timeToFirstToken;
+    private final Counter streamsCancelled;
+    private final Counter shed;
 
     @Autowired
-    public AiService(List<AiProvider> providers, MockProvider mockProvider) {
-        this.providers = providers;
-        this.mockProvider = mockProvider;
+    public AiService(ProviderRouter providerRouter, AnswerCache answerCache,
+                     InFlightQuestions inFlightQuestions, MeterRegistry meterRegistry) {
+        this.providerRouter = providerRouter;
+        this.answerCache = answerCache;
+        this.inFlightQuestions = inFlightQuestions;
+        this.timeToFirstToken = Timer.builder("ai.ask.time-to-first-token")
+                .description("Time from a streamed question to the first chunk of its answer")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.streamsCancelled = Counter.builder("ai.ask.stream.cancelled")
+                .description("Streamed answers cancelled because the client disconnected")
+                .register(meterRegistry);
+        this.shed = Counter.builder("ai.ask.shed")
+                .description("Questions turned away because every provider was at its limit or its circuit was open")
+                .register(meterRegistry);
     }
     
-    public AiResponse processQuestion(AiRequest request) {
+    public Mono<AiResponse> processQuestion(AiRequest request) {
         log.info("Processing AI request for user: {}, course: {}", request.getUserId(), request.getCourseId());
         
-        try {
-            // Find the active provider
-            AiProvider activeProvider = providers.stream()
-                    .filter(AiProvider::isActive)
-                    .findFirst()
-                    .orElse(mockProvider); // Use mock provider as fallback
+        // Deferred so that a provider throwing before it returns its Mono fails the same way
+        return Mono.defer(() -> {
+                    AnswerCache.Key key = answerCache.key(request);
+                    Optional<CachedAnswer> cached = answerCache.get(key, false);
+                    if (cached.isPresent()) {
+                        return Mono.just(fromCache(request, cached.get()));
+                    }
+                    
+                    // Identical questions in flight share one routed provider call
+                    return inFlightQuestions.answer(key.getHash(),
+                            () -> providerRouter.processQuestion(request)
+                                    .doOnNext(response -> {
+                                        if (response.isSuccess()) {
+                                            answerCache.put(key, new CachedAnswer(response.getAnswer(), response.getSourceReferences()));
+                                        }
+                                    }),
+                            shared -> forRequester(request, shared));
+                })
+                .onErrorResume(ProvidersBusyException.class, e -> {
+                    log.warn("Shedding AI request for user: {}, no provider available", request.getUserId());
+                    shed.increment();
+                    return Mono.just(AiResponse.builder()
+                            .success(false)
+                            .errorMessage(e.getMessage())
+                            .timestamp(LocalDateTime.now())
+                            .build());
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing AI request", e);
+                    return Mono.just(AiResponse.builder()
+                            .success(false)
+                            .errorMessage("Failed to process AI request: " + e.getMessage())
+                            .timestamp(LocalDateTime.now())
+                            .build());
+                });
+    }
+    
+    /**
+     * Streams the answer chunk by chunk. Demand is passed on to the provider in batches of
+     * ai.stream.prefetch chunks, so a slow client slows the provider stream down instead of
+     * having the answer buffered here; a client that disconnects cancels the provider call.
+     * Time to first token is recorded as ai.ask.time-to-first-token. A cached answer is
+     * streamed as a single chunk; a streamed answer is cached once it is complete, for
+     * streamed questions only since it has no source references.
+     * Cancelling only cancels the provider call if no identical question shares it. Fails with
+     * {@link ProvidersBusyException} when every provider turns the question away.
+     */
+    public Flux<String> streamAnswer(AiRequest request) {
+        log.info("Streaming AI answer for user: {}, course: {}", request.getUserId(), request.getCourseId());
+        
+        return Flux.defer(() -> {
+            AnswerCache.Key key = answerCache.key(request);
+            Optional<CachedAnswer> cached = answerCache.get(key, true);
+            if (cached.isPresent()) {
+                return Flux.just(cached.get().getAnswer());
+            }
             
-            log.info("Using AI provider: {}", activeProvider.getClass().getSimpleName());
+            long start = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean(true);
             
-            return activeProvider.processQuestion(request);
-        } catch (Exception e) {
-            log.error("Error processing AI request", e);
-            return AiResponse.builder()
-                    .success(false)
-                    .errorMessage("Failed to process AI request: " + e.getMessage())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-        }
+            // Identical questions in flight share one routed provider stream
+            return inFlightQuestions.stream(key.getHash(), () -> {
+                        StringBuilder answer = new StringBuilder();
+                        return providerRouter.streamAnswer(request)
+                                .limitRate(streamPrefetch)
+                                .doOnNext(answer::append)
+                                .doOnComplete(() -> answerCache.put(key, new CachedAnswer(answer.toString(), null)));
+                    })
+                    .doOnNext(token -> {
+                        if (firstToken.compareAndSet(true, false)) {
+                            timeToFirstToken.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        log.info("Client went away while streaming an AI answer");
+                        streamsCancelled.increment();
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof ProvidersBusyException) {
+                            log.warn("Shedding streamed AI request for user: {}, no provider available", request.getUserId());
+                            shed.increment();
+                        } else {
+                            log.error("Error streaming AI answer", e);
+                        }
+                    });
+        });
+    }
+    
+    /**
+     * Drops the cached answers of a course, e.g. after its content changed.
+     */
+    public void invalidateCachedAnswers(String courseId) {
+        answerCache.invalidateCourse(courseId);
+    }
+    
+    /**
+     * Copies an answer shared with other requests, with a question id of its own.
+     */
+    private AiResponse forRequester(AiRequest request, AiResponse shared) {
+        return AiResponse.builder()
+                .answer(shared.getAnswer())
+                .questionId(UUID.randomUUID().toString())
+                .timestamp(LocalDateTime.now())
+                .sourceReferences(shared.getSourceReferences())
+                .courseId(request.getCourseId())
+                .userId(request.getUserId())
+                .success(shared.isSuccess())
+                .errorMessage(shared.getErrorMessage())
+                .build();
+    }
+    
+    private AiResponse fromCache(AiRequest request, CachedAnswer cached) {
+        return AiResponse.builder()
+                .answer(cached.getAnswer())
+                .questionId(UUID.randomUUID().toString())
+                .timestamp(LocalDateTime.now())
+                .sourceReferences(cached.getSourceReferences())
+                .courseId(request.getCourseId())
+                .userId(request.getUserId())
+                .success(true)
+                .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.hasandag.aiservice.service;
+
+import com.hasandag.aiservice.dto.AiResponse;
+import com.hasandag.aiservice.util.Logger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight for provider calls: identical questions asked while one is already being
+ * answered share that provider call instead of starting their own. The first request starts the
+ * call, later ones join it until it terminates; afterwards the answer cache takes over.
+ * <p>
+ * A shared answer is not cancelled when one of its requesters goes away. A shared stream replays
+ * the chunks sent so far to requesters that join late, and is cancelled once all of them are gone.
+ * Joined requests are counted in ai.ask.coalesced, the shared calls in progress are the
+ * ai.ask.in-flight gauge.
+ */
+@Component
+public class InFlightQuestions {
+
+    private static final org.slf4j.Logger log = Logger.getLogger(InFlightQuestions.class);
+
+    private final Map<String, Mono<AiResponse>> answers = new ConcurrentHashMap<>();
+    private final Map<String, Flux<String>> streams = new ConcurrentHashMap<>();
+    private final Counter coalescedAnswers;
+    private final Counter coalescedStreams;
+
+    public InFlightQuestions(MeterRegistry meterRegistry) {
+        this.coalescedAnswers = coalesced(meterRegistry, "answer");
+        this.coalescedStreams = coalesced(meterRegistry, "stream");
+        Gauge.builder("ai.ask.in-flight", answers, Map::size)
+                .description("Provider calls in progress that identical questions can join")
+                .tag("mode", "answer")
+                .register(meterRegistry);
+        Gauge.builder("ai.ask.in-flight", streams, Map::size)
+                .description("Provider calls in progress that identical questions can join")
+                .tag("mode", "stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the answer of the call in progress for the key, or starts the call. Requests that
+     * join a call receive the answer through forJoined, e.g. to give them their own question id.
+     */
+    public Mono<AiResponse> answer(String key, Supplier<Mono<AiResponse>> call, UnaryOperator<AiResponse> forJoined) {
+        return Mono.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            Mono<AiResponse> shared = answers.computeIfAbsent(key, k -> {
+                started.set(true);
+                AtomicReference<Mono<AiResponse>> self = new AtomicReference<>();
+                // share(): one subscription to the provider, whose result all requesters receive
+                Mono<AiResponse> answer = Mono.defer(call)
+                        .doFinally(signal -> answers.remove(k, self.get()))
+                        .share();
+                self.set(answer);
+                return answer;
+            });
+            if (started.get()) {
+                return shared;
+            }
+            log.debug("Joined the provider call in progress for question {}", key);
+            coalescedAnswers.increment();
+            return shared.map(forJoined);
+        });
+    }
+
+    /**
+     * Returns the answer stream of the call in progress for the key, or starts the call.
+     */
+    public Flux<String> stream(String key, Supplier<Flux<String>> call) {
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            Flux<String> shared = streams.computeIfAbsent(key, k -> {
+                started.set(true);
+                AtomicReference<Flux<String>> self = new AtomicReference<>();
+                // replay(): late requesters get the chunks they missed, refCount(): the provider
+                // call is cancelled when the last requester is gone
+                Flux<String> stream = Flux.defer(call)
+                        .doFinally(signal -> streams.remove(k, self.get()))
+                        .replay()
+                        .refCount();
+                self.set(stream);
+                return stream;
+            });
+            if (!started.get()) {
+                log.debug("Joined the provider stream in progress for question {}", key);
+                coalescedStreams.increment();
+            }
+            return shared;
+        });
+    }
+
+    private static Counter coalesced(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("ai.ask.coalesced")
+                .description("Questions that joined an identical provider call in progress")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
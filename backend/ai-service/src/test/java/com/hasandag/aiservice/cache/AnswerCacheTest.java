@@ -0,0 +1,210 @@
+package com.hasandag.aiservice.cache;
+
+import com.hasandag.aiservice.dto.AiRequest;
+import com.hasandag.aiservice.dto.AiResponse;
+import com.hasandag.aiservice.provider.MockProvider;
+import com.hasandag.aiservice.router.ProviderRouter;
+import com.hasandag.aiservice.service.AiService;
+import com.hasandag.aiservice.service.InFlightQuestions;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AnswerCacheTest {
+
+    private MockProvider mockProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AnswerCache answerCache;
+
+    private AiService aiService;
+
+    @BeforeEach
+    void setUp() {
+        MockProvider provider = new MockProvider();
+        ReflectionTestUtils.setField(provider, "activeProvider", "mock");
+        mockProvider = spy(provider);
+
+        meterRegistry = new SimpleMeterRegistry();
+        answerCache = new AnswerCache(true, 100, Duration.ofMinutes(5), 0.9, new QuestionEmbedder(), meterRegistry);
+        ProviderRouter providerRouter = new ProviderRouter(Collections.singletonList(mockProvider), mockProvider,
+                List.of("mock"), true, Duration.ofMillis(500), CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), meterRegistry);
+        aiService = new AiService(providerRouter, answerCache, new InFlightQuestions(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void testRepeatedQuestion_AnsweredFromExactTier() {
+        // Act
+        AiResponse first = aiService.processQuestion(request("What is Spring Boot?", "course-123", "user-1")).block();
+        AiResponse second = aiService.processQuestion(request("  what is SPRING boot ", "course-123", "user-2")).block();
+
+        // Assert
+        verify(mockProvider, times(1)).processQuestion(any(AiRequest.class));
+        assertEquals(first.getAnswer(), second.getAnswer());
+        assertEquals("user-2", second.getUserId());
+        assertNotEquals(first.getQuestionId(), second.getQuestionId());
+        assertEquals(1.0, lookups("exact"));
+    }
+
+    @Test
+    void testRephrasedQuestion_AnsweredFromSemanticTier() {
+        // Act
+        AiResponse first = aiService.processQuestion(request("What is Spring Boot?", "course-123", "user-1")).block();
+        AiResponse second = aiService.processQuestion(request("What exactly is Spring Boot", "course-123", "user-2")).block();
+
+        // Assert
+        verify(mockProvider, times(1)).processQuestion(any(AiRequest.class));
+        assertEquals(first.getAnswer(), second.getAnswer());
+        assertEquals(1.0, lookups("semantic"));
+    }
+
+    @Test
+    void testDifferentQuestion_NotAnsweredFromCache() {
+        // Act
+        aiService.processQuestion(request("What is Spring Boot?", "course-123", "user-1")).block();
+        aiService.processQuestion(request("What is Spring Data?", "course-123", "user-1")).block();
+        aiService.processQuestion(request("How do I install Java?", "course-123", "user-1")).block();
+        aiService.processQuestion(request("How do I uninstall Java?", "course-123", "user-1")).block();
+
+        // Assert
+        verify(mockProvider, times(4)).processQuestion(any(AiRequest.class));
+        assertEquals(4.0, lookups("miss"));
+    }
+
+    @Test
+    void testSameQuestionInOtherCourseOrContext_NotAnsweredFromCache() {
+        // Arrange
+        AiRequest withContext = request("What is Spring Boot?", "course-123", "user-1");
+        withContext.setContext("Lesson 2: auto-configuration");
+
+        // Act
+        aiService.processQuestion(request("What is Spring Boot?", "course-123", "user-1")).block();
+        aiService.processQuestion(request("What is Spring Boot?", "course-456", "user-1")).block();
+        aiService.processQuestion(withContext).block();
+
+        // Assert
+        verify(mockProvider, times(3)).processQuestion(any(AiRequest.class));
+    }
+
+    @Test
+    void testInvalidateCourse_DropsItsAnswersOnly() {
+        // Arrange
+        aiService.processQuestion(request("What is Spring Boot?", "course-123", "user-1")).block();
+        aiService.processQuestion(request("What is Spring Boot?", "course-456", "user-1")).block();
+
+        // Act
+        aiService.invalidateCachedAnswers("course-123");
+        aiService.processQuestion(request("What is Spring Boot?", "course-123", "user-1")).block();
+        aiService.processQuestion(request("What exactly is Spring Boot", "course-456", "user-1")).block();
+
+        // Assert
+        verify(mockProvider, times(3)).processQuestion(any(AiRequest.class));
+        assertEquals(1.0, lookups("semantic"));
+    }
+
+    @Test
+    void testInvalidateCourse_KeepsOutAnswerToQuestionAskedBefore() {
+        // Arrange: the provider was asked before the invalidation and answers after it
+        AiRequest request = request("What is Spring Boot?", "course-123", "user-1");
+        AnswerCache.Key askedBefore = answerCache.key(request);
+
+        // Act
+        answerCache.invalidateCourse("course-123");
+        answerCache.put(askedBefore, new AnswerCache.CachedAnswer("Outdated answer", "Documentation"));
+
+        // Assert
+        assertTrue(answerCache.get(answerCache.key(request), false).isEmpty());
+        assertTrue(answerCache.get(answerCache.key(request("What exactly is Spring Boot", "course-123", "user-1")), false).isEmpty());
+    }
+
+    @Test
+    void testInvalidateCourse_CachesAnswersToQuestionsAskedAfter() {
+        // Arrange
+        AiRequest request = request("What is Spring Boot?", "course-123", "user-1");
+        answerCache.invalidateCourse("course-123");
+
+        // Act
+        answerCache.put(answerCache.key(request), new AnswerCache.CachedAnswer("Current answer", "Documentation"));
+
+        // Assert
+        assertEquals("Current answer", answerCache.get(answerCache.key(request), false).orElseThrow().getAnswer());
+    }
+
+    @Test
+    void testStreamedAnswer_CachedForStreamedQuestions() {
+        // Act
+        String streamed = aiService.streamAnswer(request("What is Spring Boot?", "course-123", "user-1"))
+                .collect(Collectors.joining())
+                .block();
+        String cached = aiService.streamAnswer(request("What is Spring Boot?", "course-123", "user-2"))
+                .collect(Collectors.joining())
+                .block();
+
+        // Assert
+        verify(mockProvider, times(1)).streamAnswer(any(AiRequest.class));
+        assertEquals(streamed, cached);
+        assertEquals(1.0, lookups("exact"));
+    }
+
+    @Test
+    void testStreamedAnswer_NotServedWithoutSourceReferences() {
+        // Arrange
+        aiService.streamAnswer(request("What is Spring Boot?", "course-123", "user-1"))
+                .collect(Collectors.joining())
+                .block();
+
+        // Act
+        AiResponse answered = aiService.processQuestion(request("What is Spring Boot?", "course-123", "user-2")).block();
+        AiResponse cached = aiService.processQuestion(request("What exactly is Spring Boot", "course-123", "user-3")).block();
+
+        // Assert: the streamed answer is replaced by one with its references
+        verify(mockProvider, times(1)).processQuestion(any(AiRequest.class));
+        assertNotNull(answered.getSourceReferences());
+        assertEquals(answered.getSourceReferences(), cached.getSourceReferences());
+        assertEquals(1.0, lookups("semantic"));
+    }
+
+    @Test
+    void testEmbedder_SimilarityOfRephrasings() {
+        QuestionEmbedder embedder = new QuestionEmbedder();
+
+        float rephrased = QuestionEmbedder.similarity(
+                embedder.embed(AnswerCache.normalize("What is a virtual thread?")),
+                embedder.embed(AnswerCache.normalize("What are virtual threads")));
+        float different = QuestionEmbedder.similarity(
+                embedder.embed(AnswerCache.normalize("What is dependency injection?")),
+                embedder.embed(AnswerCache.normalize("What is Spring Boot?")));
+
+        assertTrue(rephrased > 0.99f);
+        assertTrue(different < 0.1f);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("ai.cache.lookups").tag("result", result).counter().count();
+    }
+
+    private static AiRequest request(String question, String courseId, String userId) {
+        AiRequest request = new AiRequest();
+        request.setQuestion(question);
+        request.setCourseId(courseId);
+        request.setUserId(userId);
+        return request;
+    }
+}
@@ -5,39 +5,45 @@ import com.hasandag.aiservice.dto.AiResponse;
 import com.hasandag.aiservice.service.AiService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
-import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(AiController.class)
+@WebFluxTest(value = AiController.class, properties = "ai.cache.invalidation-token=internal-secret")
 class AiControllerTest {
 
     @Autowired
-    private MockMvc mockMvc;
+    private WebTestClient webTestClient;
 
     @MockBean
     private AiService aiService;
 
     @Test
-    void testHealth() throws Exception {
-        mockMvc.perform(get("/api/v1/ai/health"))
-                .andExpect(status().isOk())
-                .andExpect(content().string("AI Service is running"));
+    void testHealth() {
+        webTestClient.get().uri("/api/ai/health")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("AI Service is running");
     }
 
     @Test
-    void testAsk() throws Exception {
+    void testAsk() {
         // Arrange
         AiResponse mockResponse = AiResponse.builder()
                 .answer("Spring Boot is a framework...")
@@ -49,12 +55,80 @@ class AiControllerTest {
                 .success(true)
                 .build();
 
-        when(aiService.processQuestion(any(AiRequest.class))).thenReturn(mockResponse);
+        when(aiService.processQuestion(any(AiRequest.class))).thenReturn(Mono.just(mockResponse));
 
         // Act & Assert
-        mockMvc.perform(post("/api/v1/ai/ask")
+        webTestClient.post().uri("/api/ai/ask")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content("{\"question\":\"What is Spring Boot?\",\"courseId\":\"course-123\",\"userId\":\"user-456\"}"))
-                .andExpect(status().isOk());
+                .bodyValue("{\"question\":\"What is Spring Boot?\",\"courseId\":\"course-123\",\"userId\":\"user-456\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.answer").isEqualTo("Spring Boot is a framework...")
+                .jsonPath("$.success").isEqualTo(true);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testAskStream() {
+        // Arrange
+        when(aiService.streamAnswer(any(AiRequest.class))).thenReturn(Flux.just("Spring ", "Boot"));
+
+        // Act & Assert
+        List<ServerSentEvent<String>> events = webTestClient.post().uri("/api/ai/ask/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue("{\"question\":\"What is Spring Boot?\",\"courseId\":\"course-123\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("token", "token", "done"), events.stream().map(ServerSentEvent::event).toList());
+        assertEquals("{\"text\":\"Spring \"}", events.get(0).data());
+    }
+
+    @Test
+    void testAskStream_ProviderFailure() {
+        // Arrange
+        when(aiService.streamAnswer(any(AiRequest.class)))
+                .thenReturn(Flux.concat(Flux.just("Spring "), Flux.error(new RuntimeException("Provider timed out"))));
+
+        // Act & Assert
+        List<ServerSentEvent<String>> events = webTestClient.get().uri("/api/ai/ask/stream?question=What is Spring Boot?")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("token", "error"), events.stream().map(ServerSentEvent::event).toList());
+        assertTrue(events.get(1).data().contains("Provider timed out"));
+    }
+
+    @Test
+    void testInvalidateCachedAnswers_WithInternalToken() {
+        webTestClient.delete().uri("/api/ai/cache/courses/course-123")
+                .header("X-Internal-Token", "internal-secret")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(aiService).invalidateCachedAnswers("course-123");
+    }
+
+    @Test
+    void testInvalidateCachedAnswers_ForbiddenWithoutInternalToken() {
+        webTestClient.delete().uri("/api/ai/cache/courses/course-123")
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.delete().uri("/api/ai/cache/courses/course-123")
+                .header("X-Internal-Token", "guessed")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verify(aiService, never()).invalidateCachedAnswers(any());
+    }
+}
@@ -0,0 +1,124 @@
+package com.hasandag.aiservice.controller;
+
+import com.hasandag.aiservice.AiServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures how many concurrent /api/ai/ask requests ai-service serves on its reactive stack.
+ * The mock provider answers after an LLM-like delay that, like a real provider call, holds no
+ * thread, so every request waits on the provider at once and the total time stays close to one
+ * provider latency. Prints throughput, latency percentiles and the number of Netty event loop
+ * threads that served the load. Run with the main method from the test classpath; it is not
+ * part of the unit test suite.
+ */
+public class AskCapacityBenchmark {
+
+    private static final int CONCURRENT_REQUESTS = 5000;
+    private static final Duration PROVIDER_LATENCY = Duration.ofSeconds(2);
+    // Every question is different, so neither the answer cache nor coalescing spares a provider call
+    private static final String BODY = "{\"question\":\"What is event loop %d?\",\"courseId\":\"1\",\"userId\":\"load-test\"}";
+
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AiServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "ai.provider=mock",
+                        "ai.mock.latency=" + PROVIDER_LATENCY.toMillis() + "ms",
+                        "ai.cache.enabled=false",
+                        // Measures capacity, not load shedding
+                        "resilience4j.bulkhead.instances.mock.max-concurrent-calls=" + CONCURRENT_REQUESTS,
+                        "logging.level.com.hasandag=WARN")
+                .run();
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .build();
+            URI uri = URI.create("http://localhost:" + port + "/api/ai/ask");
+
+            // Warm up the connection handling and JIT with a handful of requests
+            for (int i = 0; i < 5; i++) {
+                client.send(request(uri, -1 - i), HttpResponse.BodyHandlers.discarding());
+            }
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Long>> latencies = new ArrayList<>(CONCURRENT_REQUESTS);
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                long sent = System.nanoTime();
+                latencies.add(client.sendAsync(request(uri, i), HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> response.statusCode() == 200 ? System.nanoTime() - sent : -1L)
+                        .exceptionally(e -> -1L));
+            }
+            CompletableFuture.allOf(latencies.toArray(new CompletableFuture[0])).join();
+            long elapsed = System.nanoTime() - start;
+
+            long[] millis = latencies.stream()
+                    .mapToLong(CompletableFuture::join)
+                    .filter(nanos -> nanos >= 0)
+                    .map(nanos -> nanos / 1_000_000)
+                    .sorted()
+                    .toArray();
+            Result result = new Result(millis, CONCURRENT_REQUESTS - millis.length, elapsed / 1_000_000);
+
+            System.out.printf("%n%d concurrent requests, provider latency %d ms, %d event loop threads%n",
+                    CONCURRENT_REQUESTS, PROVIDER_LATENCY.toMillis(), eventLoopThreads());
+            System.out.printf("%-16s %10s %10s %10s %10s %8s%n", "stack", "req/s", "p50 ms", "p99 ms", "total ms", "errors");
+            result.print("webflux");
+        }
+    }
+
+    private static HttpRequest request(URI uri, int question) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(2))
+                .POST(HttpRequest.BodyPublishers.ofString(BODY.formatted(question)))
+                .build();
+    }
+
+    private static long eventLoopThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("reactor-http-"))
+                .count();
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final int errors;
+        private final long totalMillis;
+
+        Result(long[] sortedLatencies, int errors, long totalMillis) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.totalMillis = totalMillis;
+        }
+
+        void print(String mode) {
+            System.out.printf("%-16s %10.1f %10d %10d %10d %8d%n", mode,
+                    sortedLatencies.length * 1000.0 / totalMillis,
+                    percentile(0.50), percentile(0.99), totalMillis, errors);
+        }
+
+        private long percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.hasandag.aiservice.provider;
+
+import com.hasandag.aiservice.dto.AiRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockProviderTest {
+
+    private MockProvider mockProvider;
+
+    private AiRequest request;
+
+    @BeforeEach
+    void setUp() {
+        mockProvider = new MockProvider();
+        ReflectionTestUtils.setField(mockProvider, "activeProvider", "mock");
+
+        request = new AiRequest();
+        request.setQuestion("What is Spring Boot?");
+        request.setCourseId("course-123");
+    }
+
+    @Test
+    void testStreamAnswer_JoinsToFullAnswer() {
+        // Act
+        String answer = mockProvider.processQuestion(request).block().getAnswer();
+        String streamed = mockProvider.streamAnswer(request).collect(Collectors.joining()).block();
+
+        // Assert
+        assertEquals(answer, streamed);
+        assertTrue(mockProvider.streamAnswer(request).count().block() > 1);
+    }
+
+    @Test
+    void testStreamAnswer_PacedTokens() {
+        // Arrange
+        ReflectionTestUtils.setField(mockProvider, "latency", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(mockProvider, "tokenInterval", Duration.ofMillis(100));
+
+        // Act & Assert: nothing until the first token, then one token per interval
+        StepVerifier.withVirtualTime(() -> mockProvider.streamAnswer(request).take(3))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(2))
+                .thenAwait(Duration.ofMillis(100))
+                .expectNext("This ")
+                .thenAwait(Duration.ofMillis(100))
+                .expectNext("is ")
+                .thenAwait(Duration.ofMillis(100))
+                .expectNext("a ")
+                .verifyComplete();
+    }
+}
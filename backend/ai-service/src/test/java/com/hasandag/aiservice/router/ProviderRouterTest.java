@@ -0,0 +1,337 @@
+package com.hasandag.aiservice.router;
+
+import com.hasandag.aiservice.dto.AiRequest;
+import com.hasandag.aiservice.dto.AiResponse;
+import com.hasandag.aiservice.provider.AiProvider;
+import com.hasandag.aiservice.provider.MockProvider;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs on virtual time: the stand-in providers, timeouts, hedging delays and the latencies the
+ * router measures all use the parallel scheduler that StepVerifier.withVirtualTime replaces.
+ * Guards configured per provider name are registered before the router looks them up.
+ */
+class ProviderRouterTest {
+
+    // Always picks the first provider, so tests decide which provider is the primary
+    private static final DoubleSupplier FIRST = () -> 0.0;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private BulkheadRegistry bulkheadRegistry;
+
+    private AiRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        request = new AiRequest();
+        request.setQuestion("What is Spring Boot?");
+        request.setCourseId("course-123");
+    }
+
+    @Test
+    void testFailover_OnError() {
+        // Arrange
+        StandInProvider failing = new StandInProvider("primary", Duration.ofMillis(100));
+        failing.failing = true;
+        StandInProvider healthy = new StandInProvider("secondary", Duration.ofMillis(200));
+        ProviderRouter router = router(List.of(failing, healthy), false, FIRST);
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> router.processQuestion(request))
+                .thenAwait(Duration.ofMillis(300))
+                .assertNext(response -> assertEquals("secondary", response.getSourceReferences()))
+                .verifyComplete();
+        assertEquals(1.0, count("ai.router.failovers", "primary"));
+        assertEquals(1.0, requests("primary", "error"));
+        assertEquals(1.0, requests("secondary", "success"));
+    }
+
+    @Test
+    void testFailover_OnTimeout() {
+        // Arrange
+        StandInProvider stuck = new StandInProvider("primary", Duration.ofMinutes(10));
+        StandInProvider healthy = new StandInProvider("secondary", Duration.ofMillis(200));
+        ProviderRouter router = router(List.of(stuck, healthy), false, FIRST);
+
+        // Act & Assert: the 5 second timeout, then the secondary's latency
+        StepVerifier.withVirtualTime(() -> router.processQuestion(request))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(5))
+                .thenAwait(Duration.ofMillis(200))
+                .assertNext(response -> assertEquals("secondary", response.getSourceReferences()))
+                .verifyComplete();
+        assertEquals(1.0, requests("primary", "timeout"));
+    }
+
+    @Test
+    void testAllProvidersFail_ErrorOfLastProvider() {
+        // Arrange
+        StandInProvider first = new StandInProvider("primary", Duration.ofMillis(100));
+        first.failing = true;
+        StandInProvider second = new StandInProvider("secondary", Duration.ofMillis(100));
+        second.failing = true;
+        ProviderRouter router = router(List.of(first, second), false, FIRST);
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> router.processQuestion(request))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectErrorMessage("secondary is down")
+                .verify();
+    }
+
+    @Test
+    void testHedging_AfterP95Latency() {
+        // Arrange: enough fast answers for a p95, then the primary turns slow
+        StandInProvider primary = new StandInProvider("primary", Duration.ofMillis(100));
+        StandInProvider secondary = new StandInProvider("secondary", Duration.ofMillis(100));
+        ProviderRouter router = router(List.of(primary, secondary), true, FIRST);
+        warmUp(router, 20);
+        primary.setLatency(Duration.ofSeconds(10));
+
+        // Act & Assert: hedged after the 200 ms minimum delay, answered 100 ms later
+        StepVerifier.withVirtualTime(() -> router.processQuestion(request))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(299))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(response -> assertEquals("secondary", response.getSourceReferences()))
+                .verifyComplete();
+        assertEquals(1.0, count("ai.router.hedges", "secondary"));
+        assertEquals(0.0, meterRegistry.get("ai.router.in-flight").tag("provider", "primary").gauge().value());
+    }
+
+    @Test
+    void testHedging_NotBeforeEnoughSamples() {
+        // Arrange
+        StandInProvider primary = new StandInProvider("primary", Duration.ofSeconds(3));
+        StandInProvider secondary = new StandInProvider("secondary", Duration.ofMillis(100));
+        ProviderRouter router = router(List.of(primary, secondary), true, FIRST);
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> router.processQuestion(request))
+                .thenAwait(Duration.ofSeconds(3))
+                .assertNext(response -> assertEquals("primary", response.getSourceReferences()))
+                .verifyComplete();
+        assertEquals(0, secondary.calls.get());
+    }
+
+    @Test
+    void testWeightedRouting_FavoursFastProvider() {
+        // Arrange
+        StandInProvider fast = new StandInProvider("fast", Duration.ofMillis(50));
+        StandInProvider slow = new StandInProvider("slow", Duration.ofSeconds(1));
+        ProviderRouter router = router(List.of(fast, slow), false, new Random(42)::nextDouble);
+
+        // Act
+        warmUp(router, 200);
+
+        // Assert: most traffic goes to the fast provider, the slow one still gets probed
+        assertTrue(fast.calls.get() > 5 * slow.calls.get(), fast.calls + " vs " + slow.calls);
+        assertTrue(slow.calls.get() > 0);
+        assertTrue(meterRegistry.get("ai.router.latency.ewma").tag("provider", "fast").gauge().value() < 100);
+    }
+
+    @Test
+    void testStreamFailover_BeforeFirstChunk() {
+        // Arrange
+        StandInProvider failing = new StandInProvider("primary", Duration.ofMillis(100));
+        failing.failing = true;
+        StandInProvider healthy = new StandInProvider("secondary", Duration.ofMillis(100));
+        ProviderRouter router = router(List.of(failing, healthy), true, FIRST);
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> router.streamAnswer(request).collect(Collectors.joining()))
+                .thenAwait(Duration.ofSeconds(1))
+                .assertNext(answer -> assertTrue(answer.startsWith("This is a mock AI response")))
+                .verifyComplete();
+        assertEquals(1, healthy.calls.get());
+        assertEquals(1.0, count("ai.router.failovers", "primary"));
+    }
+
+    @Test
+    void testBulkheadFull_FailsOverToNextProvider() {
+        // Arrange: the primary takes one question at a time
+        bulkheadRegistry.bulkhead("primary", oneAtATime());
+        StandInProvider primary = new StandInProvider("primary", Duration.ofSeconds(1));
+        StandInProvider secondary = new StandInProvider("secondary", Duration.ofMillis(200));
+        ProviderRouter router = router(List.of(primary, secondary), false, FIRST);
+
+        // Act & Assert: the second question goes to the secondary without waiting
+        StepVerifier.withVirtualTime(() -> Flux.merge(router.processQuestion(request), router.processQuestion(request))
+                        .map(AiResponse::getSourceReferences))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(199))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext("secondary")
+                .thenAwait(Duration.ofMillis(800))
+                .expectNext("primary")
+                .verifyComplete();
+        assertEquals(1, primary.calls.get());
+        assertEquals(1.0, rejected("primary", "bulkhead"));
+        // Rejections are not provider failures
+        assertEquals(0.0, meterRegistry.get("ai.router.error-rate").tag("provider", "primary").gauge().value());
+    }
+
+    @Test
+    void testAllBulkheadsFull_FailsFastAsBusy() {
+        // Arrange
+        bulkheadRegistry.bulkhead("primary", oneAtATime());
+        StandInProvider primary = new StandInProvider("primary", Duration.ofSeconds(1));
+        ProviderRouter router = router(List.of(primary), false, FIRST);
+
+        // Act & Assert: the second question is turned away at once instead of queueing
+        StepVerifier.withVirtualTime(() -> Flux.merge(
+                        router.processQuestion(request).map(AiResponse::getSourceReferences),
+                        router.processQuestion(request).map(AiResponse::getSourceReferences)
+                                .onErrorResume(ProvidersBusyException.class, e -> Mono.just("busy"))))
+                .expectSubscription()
+                .expectNext("busy")
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("primary")
+                .verifyComplete();
+        assertEquals(1, primary.calls.get());
+    }
+
+    @Test
+    void testCircuitOpen_FailsOverWithoutCallingProvider() {
+        // Arrange: the primary's circuit opens once both of its last two calls failed
+        circuitBreakerRegistry.circuitBreaker("primary", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .build());
+        StandInProvider primary = new StandInProvider("primary", Duration.ofMillis(100));
+        primary.failing = true;
+        StandInProvider secondary = new StandInProvider("secondary", Duration.ofMillis(200));
+        ProviderRouter router = router(List.of(primary, secondary), false, FIRST);
+        warmUp(router, 2);
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> router.processQuestion(request))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(199))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(response -> assertEquals("secondary", response.getSourceReferences()))
+                .verifyComplete();
+        assertEquals(2, primary.calls.get());
+        assertEquals(1.0, rejected("primary", "circuit-open"));
+        assertEquals(1.0, meterRegistry.get("ai.router.circuit.transitions")
+                .tag("provider", "primary").tag("from", "CLOSED").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    void testNoRoutedProviderExists_FallsBackToMock() {
+        // Arrange
+        MockProvider mockProvider = new MockProvider();
+        ProviderRouter router = new ProviderRouter(List.of(mockProvider), mockProvider, List.of("openai"),
+                true, Duration.ofMillis(200), circuitBreakerRegistry, bulkheadRegistry, timeLimiterRegistry(),
+                meterRegistry, FIRST);
+
+        // Act & Assert
+        assertEquals(List.of("mock"), router.routes().stream().map(ProviderStats::name).toList());
+        StepVerifier.create(router.processQuestion(request))
+                .assertNext(response -> assertTrue(response.isSuccess()))
+                .verifyComplete();
+    }
+
+    private ProviderRouter router(List<AiProvider> providers, boolean hedging, DoubleSupplier random) {
+        List<String> names = providers.stream().map(AiProvider::getName).toList();
+        return new ProviderRouter(providers, new MockProvider(), names, hedging, Duration.ofMillis(200),
+                circuitBreakerRegistry, bulkheadRegistry, timeLimiterRegistry(), meterRegistry, random);
+    }
+
+    private static TimeLimiterRegistry timeLimiterRegistry() {
+        return TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(5)).build());
+    }
+
+    private static BulkheadConfig oneAtATime() {
+        return BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build();
+    }
+
+    private void warmUp(ProviderRouter router, int questions) {
+        StepVerifier.withVirtualTime(() -> Flux.range(0, questions).concatMap(i -> router.processQuestion(request)))
+                .thenAwait(Duration.ofHours(1))
+                .expectNextCount(questions)
+                .verifyComplete();
+    }
+
+    private double requests(String provider, String outcome) {
+        return meterRegistry.get("ai.router.requests").tag("provider", provider).tag("outcome", outcome).counter().count();
+    }
+
+    private double rejected(String provider, String reason) {
+        return meterRegistry.get("ai.router.rejected").tag("provider", provider).tag("reason", reason).counter().count();
+    }
+
+    private double count(String meter, String provider) {
+        return meterRegistry.get(meter).tag("provider", provider).counter().count();
+    }
+
+    /**
+     * The mock provider under another name, with a latency that can change and the option to fail.
+     */
+    private static class StandInProvider extends MockProvider {
+        private final String name;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+
+        StandInProvider(String name, Duration latency) {
+            this.name = name;
+            setLatency(latency);
+        }
+
+        void setLatency(Duration latency) {
+            ReflectionTestUtils.setField(this, "latency", latency);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Mono<AiResponse> processQuestion(AiRequest request) {
+            calls.incrementAndGet();
+            if (failing) {
+                Duration latency = (Duration) ReflectionTestUtils.getField(this, "latency");
+                return Mono.delay(latency).then(Mono.error(new IllegalStateException(name + " is down")));
+            }
+            return super.processQuestion(request)
+                    .doOnNext(response -> response.setSourceReferences(name));
+        }
+
+        @Override
+        public Flux<String> streamAnswer(AiRequest request) {
+            calls.incrementAndGet();
+            if (failing) {
+                return Flux.error(new IllegalStateException(name + " is down"));
+            }
+            return super.streamAnswer(request);
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.hasandag.aiservice.service;
 
+import com.hasandag.aiservice.cache.AnswerCache;
+import com.hasandag.aiservice.cache.QuestionEmbedder;
 import com.hasandag.aiservice.dto.AiRequest;
 import com.hasandag.aiservice.dto.AiResponse;
 import com.hasandag.aiservice.provider.MockProvider;
+import com.hasandag.aiservice.router.ProviderRouter;
+import com.hasandag.aiservice.router.ProvidersBusyException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AiServiceTest {
@@ -21,6 +35,10 @@ class AiServiceTest {
 
     @Mock
     private MockProvider mockProvider;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private CircuitBreakerRegistry circuitBreakerRegistry;
 
     @BeforeEach
     void setUp() {
@@ -28,6 +46,7 @@ class AiServiceTest {
         
         // Set up the mock provider to be active
         when(mockProvider.isActive()).thenReturn(true);
+        when(mockProvider.getName()).thenReturn("mock");
         
         // Create response for the mock provider
         AiResponse mockResponse = AiResponse.builder()
@@ -35,13 +54,16 @@ class AiServiceTest {
                 .questionId("test-id")
                 .success(true)
                 .build();
-        when(mockProvider.processQuestion(any(AiRequest.class))).thenReturn(mockResponse);
+        when(mockProvider.processQuestion(any(AiRequest.class))).thenReturn(Mono.just(mockResponse));
         
         // Initialize the service with only the mock provider
-        aiService = new AiService(Collections.singletonList(mockProvider), mockProvider);
-        
-        // Set the configured provider to "mock"
-        ReflectionTestUtils.setField(aiService, "configuredProvider", "mock");
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        AnswerCache answerCache = new AnswerCache(true, 100, Duration.ofMinutes(5), 0.9, new QuestionEmbedder(), meterRegistry);
+        ProviderRouter providerRouter = new ProviderRouter(Collections.singletonList(mockProvider), mockProvider,
+                List.of("mock"), true, Duration.ofMillis(500), circuitBreakerRegistry,
+                BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), meterRegistry);
+        aiService = new AiService(providerRouter, answerCache, new InFlightQuestions(meterRegistry), meterRegistry);
     }
 
     @Test
@@ -53,7 +75,7 @@ class AiServiceTest {
         request.setUserId("user-456");
 
         // Act
-        AiResponse response = aiService.processQuestion(request);
+        AiResponse response = aiService.processQuestion(request).block();
 
         // Assert
         assertNotNull(response);
@@ -72,7 +94,7 @@ class AiServiceTest {
         when(mockProvider.processQuestion(any(AiRequest.class))).thenThrow(new RuntimeException("Test exception"));
 
         // Act
-        AiResponse response = aiService.processQuestion(request);
+        AiResponse response = aiService.processQuestion(request).block();
 
         // Assert
         assertNotNull(response);
@@ -80,4 +102,69 @@ class AiServiceTest {
         assertNotNull(response.getErrorMessage());
         assertTrue(response.getErrorMessage().contains("Test exception"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testProcessQuestion_WithErrorSignalled() {
+        // Arrange
+        AiRequest request = new AiRequest();
+        request.setQuestion("What is Spring Boot?");
+        
+        // Setup the mock to fail asynchronously, as a provider call does
+        when(mockProvider.processQuestion(any(AiRequest.class))).thenReturn(Mono.error(new RuntimeException("Provider timed out")));
+
+        // Act
+        AiResponse response = aiService.processQuestion(request).block();
+
+        // Assert
+        assertNotNull(response);
+        assertFalse(response.isSuccess());
+        assertTrue(response.getErrorMessage().contains("Provider timed out"));
+    }
+
+    @Test
+    void testProcessQuestion_ShedWhileCircuitOpen() {
+        // Arrange
+        AiRequest request = new AiRequest();
+        request.setQuestion("What is Spring Boot?");
+        circuitBreakerRegistry.circuitBreaker("mock").transitionToForcedOpenState();
+
+        // Act
+        AiResponse response = aiService.processQuestion(request).block();
+
+        // Assert: the busy fallback, without asking the provider
+        assertNotNull(response);
+        assertFalse(response.isSuccess());
+        assertEquals(ProvidersBusyException.MESSAGE, response.getErrorMessage());
+        verify(mockProvider, never()).processQuestion(any(AiRequest.class));
+        assertEquals(1.0, meterRegistry.get("ai.ask.shed").counter().count());
+    }
+
+    @Test
+    void testStreamAnswer_RecordsTimeToFirstToken() {
+        // Arrange
+        AiRequest request = new AiRequest();
+        request.setQuestion("What is Spring Boot?");
+        when(mockProvider.streamAnswer(any(AiRequest.class))).thenReturn(Flux.just("Spring ", "Boot ", "is..."));
+
+        // Act & Assert
+        StepVerifier.create(aiService.streamAnswer(request))
+                .expectNext("Spring ", "Boot ", "is...")
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("ai.ask.time-to-first-token").timer().count());
+    }
+
+    @Test
+    void testStreamAnswer_CancelledByClient() {
+        // Arrange
+        AiRequest request = new AiRequest();
+        request.setQuestion("What is Spring Boot?");
+        when(mockProvider.streamAnswer(any(AiRequest.class))).thenReturn(Flux.just("Spring ", "Boot ", "is..."));
+
+        // Act & Assert
+        StepVerifier.create(aiService.streamAnswer(request), 1)
+                .expectNext("Spring ")
+                .thenCancel()
+                .verify();
+        assertEquals(1.0, meterRegistry.get("ai.ask.stream.cancelled").counter().count());
+    }
+}
@@ -0,0 +1,123 @@
+package com.hasandag.aiservice.service;
+
+import com.hasandag.aiservice.cache.AnswerCache;
+import com.hasandag.aiservice.cache.QuestionEmbedder;
+import com.hasandag.aiservice.dto.AiRequest;
+import com.hasandag.aiservice.dto.AiResponse;
+import com.hasandag.aiservice.provider.MockProvider;
+import com.hasandag.aiservice.router.ProviderRouter;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class InFlightQuestionsTest {
+
+    private static final int REQUESTS = 10;
+
+    private MockProvider mockProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AiService aiService;
+
+    @BeforeEach
+    void setUp() {
+        // The provider answers slowly enough for all requests to arrive while it is busy
+        MockProvider provider = new MockProvider();
+        ReflectionTestUtils.setField(provider, "activeProvider", "mock");
+        ReflectionTestUtils.setField(provider, "latency", Duration.ofMillis(200));
+        mockProvider = spy(provider);
+
+        meterRegistry = new SimpleMeterRegistry();
+        // The cache is disabled, so only coalescing can save provider calls
+        AnswerCache answerCache = new AnswerCache(false, 100, Duration.ofMinutes(5), 0.9, new QuestionEmbedder(), meterRegistry);
+        ProviderRouter providerRouter = new ProviderRouter(Collections.singletonList(mockProvider), mockProvider,
+                List.of("mock"), true, Duration.ofMillis(500), CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), meterRegistry);
+        aiService = new AiService(providerRouter, answerCache, new InFlightQuestions(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void testConcurrentIdenticalQuestions_ShareOneProviderCall() {
+        // Act
+        List<AiResponse> responses = Flux.range(0, REQUESTS)
+                .flatMap(i -> aiService.processQuestion(request(i % 2 == 0 ? "What is Spring Boot?" : "what is spring boot", "user-" + i)))
+                .collectList()
+                .block();
+
+        // Assert
+        verify(mockProvider, times(1)).processQuestion(any(AiRequest.class));
+        assertEquals(REQUESTS, responses.size());
+        assertEquals(1, responses.stream().map(AiResponse::getAnswer).distinct().count());
+        assertEquals(REQUESTS, responses.stream().map(AiResponse::getQuestionId).distinct().count());
+        assertEquals(REQUESTS, responses.stream().map(AiResponse::getUserId).distinct().count());
+        assertEquals(REQUESTS - 1, coalesced("answer"));
+    }
+
+    @Test
+    void testDifferentQuestions_NotCoalesced() {
+        // Act
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> aiService.processQuestion(request("What is lesson " + i + " about?", "user-" + i)))
+                .blockLast();
+
+        // Assert
+        verify(mockProvider, times(REQUESTS)).processQuestion(any(AiRequest.class));
+        assertEquals(0, coalesced("answer"));
+    }
+
+    @Test
+    void testSequentialIdenticalQuestions_NotCoalesced() {
+        // Act
+        aiService.processQuestion(request("What is Spring Boot?", "user-1")).block();
+        aiService.processQuestion(request("What is Spring Boot?", "user-2")).block();
+
+        // Assert
+        verify(mockProvider, times(2)).processQuestion(any(AiRequest.class));
+    }
+
+    @Test
+    void testConcurrentIdenticalStreams_ShareOneProviderStream() {
+        // Act
+        List<String> answers = Flux.range(0, REQUESTS)
+                .flatMap(i -> aiService.streamAnswer(request("What is Spring Boot?", "user-" + i))
+                        .collect(Collectors.joining()))
+                .collectList()
+                .block();
+
+        // Assert
+        verify(mockProvider, times(1)).streamAnswer(any(AiRequest.class));
+        assertEquals(REQUESTS, answers.size());
+        assertEquals(1, answers.stream().distinct().count());
+        assertTrue(answers.get(0).startsWith("This is a mock AI response"));
+        assertEquals(REQUESTS - 1, coalesced("stream"));
+    }
+
+    private double coalesced(String mode) {
+        return meterRegistry.get("ai.ask.coalesced").tag("mode", mode).counter().count();
+    }
+
+    private static AiRequest request(String question, String userId) {
+        AiRequest request = new AiRequest();
+        request.setQuestion(question);
+        request.setCourseId("course-123");
+        request.setUserId(userId);
+        return request;
+    }
+}
@@ -1,65 +1,133 @@
 package com.hasandag.common.config;
 
+import com.hasandag.common.event.EventCodecs;
+import com.hasandag.common.event.EventDeserializer;
+import com.hasandag.common.event.EventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
-@Configuration
+/**
+ * Kafka clients shared by all services, registered as auto-configuration so every service that
+ * depends on common-lib picks it up. Client settings start from the service's spring.kafka.*
+ * properties; producers then get the throughput profile from {@link KafkaProducerProperties}.
+ * Keys are strings and values are the shared events in their compact binary encoding
+ * ({@link EventSerializer} / {@link EventDeserializer}). Values that cannot be decoded do not
+ * fail the container: batch listeners receive them as null values carrying the deserialization
+ * exception header, while record listeners never see them, as the container's error handler
+ * logs and skips the record without retrying.
+ * Producer and consumer client metrics are bound to Micrometer as kafka.producer.* and
+ * kafka.consumer.* meters.
+ */
+@AutoConfiguration(before = KafkaAutoConfiguration.class)
+@ConditionalOnClass(KafkaTemplate.class)
+@EnableConfigurationProperties({KafkaProperties.class, KafkaProducerProperties.class})
 public class KafkaConfig {
 
     @Value("${spring.kafka.bootstrap-servers:kafka:29092}")
     private String bootstrapServers;
 
     @Bean
-    public KafkaAdmin kafkaAdmin() {
-        Map<String, Object> configs = new HashMap<>();
+    public KafkaAdmin kafkaAdmin(KafkaProperties kafkaProperties) {
+        Map<String, Object> configs = new HashMap<>(kafkaProperties.buildAdminProperties(null));
         configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         return new KafkaAdmin(configs);
     }
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
+    @ConditionalOnMissingBean
+    public EventCodecs eventCodecs() {
+        return EventCodecs.defaults();
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory(
+            KafkaProperties kafkaProperties,
+            KafkaProducerProperties producerProperties,
+            EventCodecs eventCodecs,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, Object> configProps = new HashMap<>(kafkaProperties.buildProducerProperties(null));
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.putAll(producerProfile(producerProperties));
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(
+                configProps, StringSerializer::new, () -> new EventSerializer(eventCodecs));
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerProducerListener<>(registry)));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
-        Map<String, Object> props = new HashMap<>();
+    public ConsumerFactory<String, Object> consumerFactory(
+            KafkaProperties kafkaProperties,
+            EventCodecs eventCodecs,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.lang.Object");
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.putIfAbsent(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(
+                props, StringDeserializer::new, () -> new ErrorHandlingDeserializer<>(new EventDeserializer(eventCodecs)));
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerConsumerListener<>(registry)));
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory,
+            ObjectProvider<ConcurrentKafkaListenerContainerFactoryConfigurer> configurer) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        // Applies the spring.kafka.listener.* properties, as the Boot default factory would
+        configurer.ifAvailable(c -> c.configure(castFactory(factory), castConsumerFactory(consumerFactory)));
         return factory;
     }
-} 
\ No newline at end of file
+
+    static Map<String, Object> producerProfile(KafkaProducerProperties properties) {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put(ProducerConfig.ACKS_CONFIG, properties.getAcks());
+        profile.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, properties.isIdempotence());
+        profile.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.getBatchSize());
+        profile.put(ProducerConfig.LINGER_MS_CONFIG, (int) properties.getLinger().toMillis());
+        profile.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompressionType());
+        profile.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, properties.getMaxInFlightRequestsPerConnection());
+        profile.put(ProducerConfig.BUFFER_MEMORY_CONFIG, properties.getBufferMemory());
+        profile.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, properties.getMaxBlock().toMillis());
+        profile.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) properties.getDeliveryTimeout().toMillis());
+        return profile;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentKafkaListenerContainerFactory<Object, Object> castFactory(
+            ConcurrentKafkaListenerContainerFactory<String, Object> factory) {
+        return (ConcurrentKafkaListenerContainerFactory<Object, Object>) (ConcurrentKafkaListenerContainerFactory<?, ?>) factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConsumerFactory<Object, Object> castConsumerFactory(ConsumerFactory<String, Object> consumerFactory) {
+        return (ConsumerFactory<Object, Object>) (ConsumerFactory<?, ?>) consumerFactory;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hasandag.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Throughput-oriented producer settings shared by all services. Each service can override
+ * any of them with elearning.kafka.producer.* in its own configuration.
+ */
+@Data
+@ConfigurationProperties(prefix = "elearning.kafka.producer")
+public class KafkaProducerProperties {
+
+    private String acks = "all";
+    private boolean idempotence = true;
+    private int batchSize = 65536;
+    private Duration linger = Duration.ofMillis(10);
+    private String compressionType = "lz4"; // lz4 or zstd
+    private int maxInFlightRequestsPerConnection = 5; // At most 5 keeps ordering with idempotence
+    private long bufferMemory = 64L * 1024 * 1024;
+    private Duration maxBlock = Duration.ofSeconds(5); // Bounds how long send() may block a caller
+    private Duration deliveryTimeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,67 @@
+package com.hasandag.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+
+import java.time.Duration;
+
+/**
+ * Opt-in virtual thread mode, switched on with spring.threads.virtual.enabled=true (the services
+ * map it to the VIRTUAL_THREADS_ENABLED environment variable). Spring Boot then runs Tomcat
+ * requests, the @Async executor, @Scheduled tasks and the listener containers it configures
+ * itself on virtual threads. This configuration adds what Boot does not cover: listener
+ * container factories that services build themselves, and pinning detection.
+ * <p>
+ * The mode is meant for the servlet services (course-service, user-service, video-service);
+ * ai-service is reactive and does not use it. VirtualThreadCapacityBenchmark in the
+ * course-service tests compares blocking request capacity on platform and virtual threads; no
+ * figures from it are recorded yet, and the mode stays off by default.
+ */
+@AutoConfiguration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "elearning.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${elearning.threads.pinning-monitor.threshold:20ms}") Duration threshold,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry.getIfAvailable());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(AbstractKafkaListenerContainerFactory.class)
+    static class KafkaListenerVirtualThreads {
+
+        /**
+         * Gives every listener container factory without a task executor of its own one that
+         * starts a virtual thread per consumer.
+         */
+        @Bean
+        static BeanPostProcessor virtualThreadListenerContainerFactories() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory
+                            && factory.getContainerProperties().getListenerTaskExecutor() == null) {
+                        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(beanName + "-");
+                        executor.setVirtualThreads(true);
+                        factory.getContainerProperties().setListenerTaskExecutor(executor);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.hasandag.common.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, which happens when a
+ * virtual thread blocks inside a synchronized block or a native frame, for example in a JDBC
+ * driver that guards its socket with synchronized. A pinned virtual thread holds a carrier
+ * (there are only as many as CPU cores) for the whole blocking call.
+ * <p>
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process. Every pinning longer than the
+ * threshold is counted in jvm.threads.virtual.pinned; the stack trace is logged once per
+ * distinct call site, since the same site usually pins over and over.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_SITES = 1000;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedCounter = meterRegistry == null ? null : Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier for longer than the monitor threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.setMaxAge(Duration.ofMinutes(1));
+        recording.startAsync();
+        stream = recording;
+        log.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        if (pinnedCounter != null) {
+            pinnedCounter.increment();
+        }
+        String stackTrace = format(event.getStackTrace());
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(stackTrace)) {
+            log.warn("Virtual thread was pinned to its carrier for {} ms at:\n{}",
+                    event.getDuration().toMillis(), stackTrace);
+        }
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
@@ -1,4 +1,4 @@
-package com.hasandag.course.kafka;
+package com.hasandag.common.event;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +7,9 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Course lifecycle event; the wire format is defined by avro/CourseEvent.avsc.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -24,4 +27,4 @@ public class CourseEvent {
         UPDATED,
         DELETED
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.hasandag.common.event;
+
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+import java.io.IOException;
+
+public class CourseEventCodec extends EventCodec<CourseEvent> {
+
+    public CourseEventCodec() {
+        super(CourseEvent.class, "avro/CourseEvent.avsc",
+                "courseId", "title", "instructorId", "eventType", "timestamp");
+        requireSymbols("eventType", CourseEvent.EventType.values());
+    }
+
+    @Override
+    protected void write(CourseEvent event, Encoder encoder) throws IOException {
+        writeString(encoder, event.getCourseId());
+        writeString(encoder, event.getTitle());
+        writeString(encoder, event.getInstructorId());
+        writeEnum(encoder, event.getEventType());
+        writeTimestamp(encoder, event.getTimestamp());
+    }
+
+    @Override
+    protected CourseEvent read(Decoder decoder) throws IOException {
+        return CourseEvent.builder()
+                .courseId(readString(decoder))
+                .title(readString(decoder))
+                .instructorId(readString(decoder))
+                .eventType(readEnum(decoder, CourseEvent.EventType.values()))
+                .timestamp(readTimestamp(decoder))
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.hasandag.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Full current state of a course; the wire format is defined by avro/CourseState.avsc.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseState {
+
+    private String courseId;
+    private String title;
+    private String description;
+    private String category;
+    private String level;
+    private BigDecimal price;
+    private String imageUrl;
+    private String instructorId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
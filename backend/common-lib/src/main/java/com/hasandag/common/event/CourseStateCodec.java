@@ -0,0 +1,48 @@
+package com.hasandag.common.event;
+
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+public class CourseStateCodec extends EventCodec<CourseState> {
+
+    public CourseStateCodec() {
+        super(CourseState.class, "avro/CourseState.avsc",
+                "courseId", "title", "description", "category", "level", "price", "imageUrl", "instructorId",
+                "createdAt", "updatedAt");
+    }
+
+    @Override
+    protected void write(CourseState state, Encoder encoder) throws IOException {
+        writeString(encoder, state.getCourseId());
+        writeString(encoder, state.getTitle());
+        writeString(encoder, state.getDescription());
+        writeString(encoder, state.getCategory());
+        writeString(encoder, state.getLevel());
+        writeString(encoder, state.getPrice() != null ? state.getPrice().toPlainString() : null);
+        writeString(encoder, state.getImageUrl());
+        writeString(encoder, state.getInstructorId());
+        writeTimestamp(encoder, state.getCreatedAt());
+        writeTimestamp(encoder, state.getUpdatedAt());
+    }
+
+    @Override
+    protected CourseState read(Decoder decoder) throws IOException {
+        CourseState.CourseStateBuilder state = CourseState.builder()
+                .courseId(readString(decoder))
+                .title(readString(decoder))
+                .description(readString(decoder))
+                .category(readString(decoder))
+                .level(readString(decoder));
+        String price = readString(decoder);
+        return state
+                .price(price != null ? new BigDecimal(price) : null)
+                .imageUrl(readString(decoder))
+                .instructorId(readString(decoder))
+                .createdAt(readTimestamp(decoder))
+                .updatedAt(readTimestamp(decoder))
+                .build();
+    }
+}
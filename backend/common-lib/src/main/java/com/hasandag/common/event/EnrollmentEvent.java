@@ -1,4 +1,4 @@
-package com.hasandag.course.kafka;
+package com.hasandag.common.event;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +7,9 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Enrollment state change event; the wire format is defined by avro/EnrollmentEvent.avsc.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -24,4 +27,4 @@ public class EnrollmentEvent {
         UNENROLLED,
         COMPLETED
     }
-} 
\ No newline at end of file
+}
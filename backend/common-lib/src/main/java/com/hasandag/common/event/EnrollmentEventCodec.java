@@ -0,0 +1,35 @@
+package com.hasandag.common.event;
+
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+import java.io.IOException;
+
+public class EnrollmentEventCodec extends EventCodec<EnrollmentEvent> {
+
+    public EnrollmentEventCodec() {
+        super(EnrollmentEvent.class, "avro/EnrollmentEvent.avsc",
+                "userId", "courseId", "courseName", "status", "timestamp");
+        requireSymbols("status", EnrollmentEvent.EnrollmentStatus.values());
+    }
+
+    @Override
+    protected void write(EnrollmentEvent event, Encoder encoder) throws IOException {
+        writeString(encoder, event.getUserId());
+        writeString(encoder, event.getCourseId());
+        writeString(encoder, event.getCourseName());
+        writeEnum(encoder, event.getStatus());
+        writeTimestamp(encoder, event.getTimestamp());
+    }
+
+    @Override
+    protected EnrollmentEvent read(Decoder decoder) throws IOException {
+        return EnrollmentEvent.builder()
+                .userId(readString(decoder))
+                .courseId(readString(decoder))
+                .courseName(readString(decoder))
+                .status(readEnum(decoder, EnrollmentEvent.EnrollmentStatus.values()))
+                .timestamp(readTimestamp(decoder))
+                .build();
+    }
+}
@@ -0,0 +1,217 @@
+package com.hasandag.common.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes one event class in the Avro binary format of its schema file, without reflection or
+ * generic records. Messages use Avro single-object encoding: a two byte marker and the 64-bit
+ * fingerprint of the writer schema, followed by the field values in schema order. The fingerprint
+ * identifies the event type, so no schema registry or type headers are needed.
+ * <p>
+ * Implementations write and read the fields in the order of the schema file; the constructor
+ * checks the field names so the codec and the schema cannot drift apart silently.
+ * <p>
+ * Records keep the fingerprint of the schema they were written with, and the log-compacted
+ * course-state topic keeps old records indefinitely, so a codec whose schema changes lists the
+ * earlier schema files in {@link #previousSchemaResources()}. Messages written with one of them
+ * are resolved to the current schema by Avro's schema resolution before they are read.
+ */
+public abstract class EventCodec<T> {
+
+    static final byte MARKER_0 = (byte) 0xC3;
+    static final byte MARKER_1 = (byte) 0x01;
+    static final int HEADER_LENGTH = 10;
+
+    private final Class<T> type;
+    private final Schema schema;
+    private final long fingerprint;
+
+    protected EventCodec(Class<T> type, String schemaResource, String... fieldNames) {
+        this.type = type;
+        this.schema = loadSchema(schemaResource);
+        this.fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+
+        List<String> schemaFields = schema.getFields().stream().map(Schema.Field::name).toList();
+        if (!schemaFields.equals(Arrays.asList(fieldNames))) {
+            throw new IllegalStateException("Codec for " + type.getSimpleName() + " writes " + Arrays.toString(fieldNames)
+                    + " but " + schemaResource + " declares " + schemaFields);
+        }
+    }
+
+    protected abstract void write(T event, Encoder encoder) throws IOException;
+
+    protected abstract T read(Decoder decoder) throws IOException;
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Schema files of earlier versions of this event that may still be found in the topics.
+     * Each must be readable by the current schema under Avro's resolution rules, which the
+     * {@link EventCodecs} constructor checks.
+     */
+    protected List<String> previousSchemaResources() {
+        return List.of();
+    }
+
+    List<Schema> getPreviousSchemas() {
+        return previousSchemaResources().stream().map(EventCodec::loadSchema).toList();
+    }
+
+    public byte[] encode(T event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(MARKER_0);
+        out.write(MARKER_1);
+        for (int i = 0; i < Long.BYTES; i++) {
+            out.write((int) (fingerprint >>> (8 * i)));
+        }
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            write(event, encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode " + type.getSimpleName(), e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the body of a message whose header has already been matched to this codec.
+     */
+    T decodeBody(byte[] message) {
+        try {
+            BinaryDecoder decoder = DecoderFactory.get()
+                    .binaryDecoder(message, HEADER_LENGTH, message.length - HEADER_LENGTH, null);
+            return read(decoder);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not decode " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Decodes the body of a message written with an earlier schema of this event: the values are
+     * resolved to the current schema, re-encoded in it and then read as usual. Only records from
+     * before a schema change take this slower path.
+     */
+    T decodeBody(byte[] message, Schema writerSchema) {
+        try {
+            BinaryDecoder decoder = DecoderFactory.get()
+                    .binaryDecoder(message, HEADER_LENGTH, message.length - HEADER_LENGTH, null);
+            GenericRecord record = new GenericDatumReader<GenericRecord>(writerSchema, schema).read(null, decoder);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(message.length);
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+            encoder.flush();
+            return read(DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not decode " + type.getSimpleName() + " written with an earlier schema", e);
+        }
+    }
+
+    // Nullable fields are ["null", T] unions: branch 0 is null, branch 1 the value
+
+    protected static void writeString(Encoder encoder, String value) throws IOException {
+        if (writeNullBranch(encoder, value)) {
+            encoder.writeString(value);
+        }
+    }
+
+    protected static String readString(Decoder decoder) throws IOException {
+        return readNullBranch(decoder) ? null : decoder.readString();
+    }
+
+    protected static void writeEnum(Encoder encoder, Enum<?> value) throws IOException {
+        if (writeNullBranch(encoder, value)) {
+            encoder.writeEnum(value.ordinal());
+        }
+    }
+
+    protected static <E extends Enum<E>> E readEnum(Decoder decoder, E[] values) throws IOException {
+        return readNullBranch(decoder) ? null : values[decoder.readEnum()];
+    }
+
+    protected static void writeTimestamp(Encoder encoder, LocalDateTime value) throws IOException {
+        if (writeNullBranch(encoder, value)) {
+            encoder.writeLong(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    protected static LocalDateTime readTimestamp(Decoder decoder) throws IOException {
+        if (readNullBranch(decoder)) {
+            return null;
+        }
+        long millis = decoder.readLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Checks that the enum constants are declared in the same order as the schema symbols,
+     * since enums are encoded by ordinal.
+     */
+    protected void requireSymbols(String field, Enum<?>[] values) {
+        Schema enumSchema = schema.getField(field).schema().getTypes().get(1);
+        List<String> names = Arrays.stream(values).map(Enum::name).toList();
+        if (!enumSchema.getEnumSymbols().equals(names)) {
+            throw new IllegalStateException(field + " symbols " + enumSchema.getEnumSymbols() + " do not match " + names);
+        }
+    }
+
+    private static boolean writeNullBranch(Encoder encoder, Object value) throws IOException {
+        if (value == null) {
+            encoder.writeIndex(0);
+            encoder.writeNull();
+            return false;
+        }
+        encoder.writeIndex(1);
+        return true;
+    }
+
+    private static boolean readNullBranch(Decoder decoder) throws IOException {
+        if (decoder.readIndex() == 0) {
+            decoder.readNull();
+            return true;
+        }
+        return false;
+    }
+
+    private static Schema loadSchema(String resource) {
+        try (InputStream in = EventCodec.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Schema " + resource + " not found on the classpath");
+            }
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read schema " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.hasandag.common.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.SchemaNormalization;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The codecs of all shared event types, looked up by class when writing and by schema
+ * fingerprint when reading. Fingerprints of earlier schemas of an event are registered too, so
+ * records written before a schema change stay readable; a schema change the current schema
+ * cannot resolve is rejected when the codecs are created.
+ */
+public final class EventCodecs {
+
+    private static final EventCodecs DEFAULT = new EventCodecs(List.of(
+            new CourseEventCodec(), new CourseStateCodec(), new EnrollmentEventCodec()));
+
+    private final Map<Class<?>, EventCodec<?>> byType = new HashMap<>();
+    private final Map<Long, EventCodec<?>> byFingerprint = new HashMap<>();
+    private final Map<Long, PreviousSchema> byPreviousFingerprint = new HashMap<>();
+
+    public EventCodecs(List<EventCodec<?>> codecs) {
+        for (EventCodec<?> codec : codecs) {
+            byType.put(codec.getType(), codec);
+            if (byFingerprint.put(codec.getFingerprint(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate schema fingerprint for " + codec.getType().getName());
+            }
+        }
+        for (EventCodec<?> codec : codecs) {
+            for (Schema writerSchema : codec.getPreviousSchemas()) {
+                SchemaCompatibility.SchemaPairCompatibility compatibility =
+                        SchemaCompatibility.checkReaderWriterCompatibility(codec.getSchema(), writerSchema);
+                if (compatibility.getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+                    throw new IllegalStateException("Schema of " + codec.getType().getSimpleName()
+                            + " cannot read an earlier version: " + compatibility.getDescription());
+                }
+                long fingerprint = SchemaNormalization.parsingFingerprint64(writerSchema);
+                if (byFingerprint.containsKey(fingerprint)
+                        || byPreviousFingerprint.put(fingerprint, new PreviousSchema(codec, writerSchema)) != null) {
+                    throw new IllegalArgumentException("Duplicate schema fingerprint for " + codec.getType().getName());
+                }
+            }
+        }
+    }
+
+    public static EventCodecs defaults() {
+        return DEFAULT;
+    }
+
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Object event) {
+        EventCodec<Object> codec = (EventCodec<Object>) byType.get(event.getClass());
+        if (codec == null) {
+            throw new SerializationException("No event schema for " + event.getClass().getName());
+        }
+        return codec.encode(event);
+    }
+
+    public Object decode(byte[] message) {
+        if (message.length < EventCodec.HEADER_LENGTH
+                || message[0] != EventCodec.MARKER_0 || message[1] != EventCodec.MARKER_1) {
+            throw new SerializationException("Not a single-object encoded event");
+        }
+        long fingerprint = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            fingerprint |= (message[2 + i] & 0xFFL) << (8 * i);
+        }
+        EventCodec<?> codec = byFingerprint.get(fingerprint);
+        if (codec != null) {
+            return codec.decodeBody(message);
+        }
+        PreviousSchema previous = byPreviousFingerprint.get(fingerprint);
+        if (previous == null) {
+            throw new SerializationException("Unknown event schema fingerprint " + Long.toHexString(fingerprint));
+        }
+        return previous.codec.decodeBody(message, previous.writerSchema);
+    }
+
+    private static final class PreviousSchema {
+        private final EventCodec<?> codec;
+        private final Schema writerSchema;
+
+        private PreviousSchema(EventCodec<?> codec, Schema writerSchema) {
+            this.codec = codec;
+            this.writerSchema = writerSchema;
+        }
+    }
+}
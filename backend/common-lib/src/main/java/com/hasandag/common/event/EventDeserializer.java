@@ -0,0 +1,25 @@
+package com.hasandag.common.event;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka value deserializer for the shared event types. The event class is taken from the
+ * schema fingerprint in the message, so listeners need no type mapping.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final EventCodecs codecs;
+
+    public EventDeserializer() {
+        this(EventCodecs.defaults());
+    }
+
+    public EventDeserializer(EventCodecs codecs) {
+        this.codecs = codecs;
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return data == null ? null : codecs.decode(data);
+    }
+}
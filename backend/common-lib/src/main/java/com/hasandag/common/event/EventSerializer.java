@@ -0,0 +1,29 @@
+package com.hasandag.common.event;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer for the shared event types; see {@link EventCodec} for the format.
+ * A null value is passed through as a tombstone, and a byte array is taken to be an already
+ * encoded message (e.g. a dead letter being republished) and written unchanged.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    private final EventCodecs codecs;
+
+    public EventSerializer() {
+        this(EventCodecs.defaults());
+    }
+
+    public EventSerializer(EventCodecs codecs) {
+        this.codecs = codecs;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null || data instanceof byte[]) {
+            return (byte[]) data;
+        }
+        return codecs.encode(data);
+    }
+}
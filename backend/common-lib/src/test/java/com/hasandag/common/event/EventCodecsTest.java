@@ -0,0 +1,118 @@
+package com.hasandag.common.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecsTest {
+
+    private static final String BEFORE_IMAGE_URL = "avro/CourseState-before-imageUrl.avsc";
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 15, 8, 0);
+
+    @Test
+    void decodesRecordsWrittenWithAnEarlierSchema() throws IOException {
+        // Arrange
+        EventCodecs codecs = new EventCodecs(List.of(courseStateCodec(BEFORE_IMAGE_URL)));
+        Schema writerSchema = schema(BEFORE_IMAGE_URL);
+        GenericRecord old = new GenericData.Record(writerSchema);
+        old.put("courseId", "42");
+        old.put("title", "Kafka Streams in Practice");
+        old.put("price", "49.90");
+        old.put("instructorId", "7");
+        old.put("updatedAt", UPDATED_AT.toInstant(ZoneOffset.UTC).toEpochMilli());
+
+        // Act
+        Object decoded = codecs.decode(encode(writerSchema, old));
+
+        // Assert
+        assertEquals(CourseState.builder()
+                .courseId("42")
+                .title("Kafka Streams in Practice")
+                .price(new BigDecimal("49.90"))
+                .instructorId("7")
+                .updatedAt(UPDATED_AT)
+                .build(), decoded);
+    }
+
+    @Test
+    void stillDecodesRecordsWrittenWithTheCurrentSchema() {
+        // Arrange
+        EventCodecs codecs = new EventCodecs(List.of(courseStateCodec(BEFORE_IMAGE_URL)));
+        CourseState state = CourseState.builder().courseId("42").imageUrl("/images/42.png").updatedAt(UPDATED_AT).build();
+
+        // Act
+        Object decoded = codecs.decode(codecs.encode(state));
+
+        // Assert
+        assertEquals(state, decoded);
+    }
+
+    @Test
+    void rejectsEarlierSchemasTheCurrentSchemaCannotRead() {
+        assertThrows(IllegalStateException.class,
+                () -> new EventCodecs(List.of(courseStateCodec("avro/CourseState-numeric-price.avsc"))));
+    }
+
+    @Test
+    void rejectsUnregisteredEarlierSchemas() throws IOException {
+        // Arrange
+        Schema writerSchema = schema(BEFORE_IMAGE_URL);
+        GenericRecord old = new GenericData.Record(writerSchema);
+        old.put("courseId", "42");
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> EventCodecs.defaults().decode(encode(writerSchema, old)));
+    }
+
+    @Test
+    void defaultCodecsResolveTheirEarlierSchemas() {
+        // Fails when a schema file changes in a way its current version cannot read
+        assertDoesNotThrow(() -> new EventCodecs(List.of(
+                new CourseEventCodec(), new CourseStateCodec(), new EnrollmentEventCodec())));
+    }
+
+    private static CourseStateCodec courseStateCodec(String previousSchema) {
+        return new CourseStateCodec() {
+            @Override
+            protected List<String> previousSchemaResources() {
+                return List.of(previousSchema);
+            }
+        };
+    }
+
+    private static byte[] encode(Schema schema, GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(EventCodec.MARKER_0);
+        out.write(EventCodec.MARKER_1);
+        long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        for (int i = 0; i < Long.BYTES; i++) {
+            out.write((int) (fingerprint >>> (8 * i)));
+        }
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static Schema schema(String resource) throws IOException {
+        try (InputStream in = EventCodecsTest.class.getClassLoader().getResourceAsStream(resource)) {
+            return new Schema.Parser().parse(in);
+        }
+    }
+}
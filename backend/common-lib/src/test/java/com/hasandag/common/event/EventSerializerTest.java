@@ -0,0 +1,126 @@
+package com.hasandag.common.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSerializerTest {
+
+    private final EventSerializer serializer = new EventSerializer();
+    private final EventDeserializer deserializer = new EventDeserializer();
+
+    @Test
+    void courseEventRoundTrips() {
+        // Arrange
+        CourseEvent event = CourseEvent.builder()
+                .courseId("42")
+                .title("Kafka Streams in Practice")
+                .instructorId("7")
+                .eventType(CourseEvent.EventType.UPDATED)
+                .timestamp(LocalDateTime.of(2024, 3, 14, 15, 9, 26, 535_000_000))
+                .build();
+
+        // Act
+        byte[] bytes = serializer.serialize("course-events", event);
+        Object decoded = deserializer.deserialize("course-events", bytes);
+
+        // Assert
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void enrollmentEventRoundTripsWithNullFields() {
+        // Arrange
+        EnrollmentEvent event = EnrollmentEvent.builder()
+                .userId("user-1")
+                .courseId("42")
+                .status(EnrollmentEvent.EnrollmentStatus.COMPLETED)
+                .build();
+
+        // Act
+        Object decoded = deserializer.deserialize("enrollment-events", serializer.serialize("enrollment-events", event));
+
+        // Assert
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void courseStateRoundTripsWithDecimalPrice() {
+        // Arrange
+        CourseState state = CourseState.builder()
+                .courseId("42")
+                .title("Kafka Streams in Practice")
+                .description("Stateful stream processing")
+                .category("Programming")
+                .level("Advanced")
+                .price(new BigDecimal("49.90"))
+                .instructorId("7")
+                .createdAt(LocalDateTime.of(2024, 3, 14, 15, 9, 26))
+                .updatedAt(LocalDateTime.of(2024, 3, 15, 8, 0))
+                .build();
+
+        // Act
+        Object decoded = deserializer.deserialize("course-state", serializer.serialize("course-state", state));
+
+        // Assert
+        assertEquals(state, decoded);
+    }
+
+    @Test
+    void timestampsAreTruncatedToMillis() {
+        // Arrange
+        CourseEvent event = CourseEvent.builder()
+                .courseId("1")
+                .timestamp(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999))
+                .build();
+
+        // Act
+        CourseEvent decoded = (CourseEvent) deserializer.deserialize("course-events", serializer.serialize("course-events", event));
+
+        // Assert
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000), decoded.getTimestamp());
+    }
+
+    @Test
+    void nullValuesPassThroughAsTombstones() {
+        assertNull(serializer.serialize("course-events", null));
+        assertNull(deserializer.deserialize("course-events", null));
+    }
+
+    @Test
+    void encodedMessagesPassThroughUnchanged() {
+        byte[] encoded = serializer.serialize("course-events", CourseEvent.builder().courseId("1").build());
+        assertSame(encoded, serializer.serialize("course-events", encoded));
+    }
+
+    @Test
+    void rejectsUnknownPayloads() {
+        assertThrows(SerializationException.class, () -> serializer.serialize("course-events", "not an event"));
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize("course-events", "{\"courseId\":\"1\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void encodesCompactly() {
+        // Arrange
+        CourseEvent event = CourseEvent.builder()
+                .courseId("128734")
+                .title("Spring Boot Microservices")
+                .instructorId("4821")
+                .eventType(CourseEvent.EventType.CREATED)
+                .timestamp(LocalDateTime.of(2024, 3, 14, 15, 9, 26))
+                .build();
+
+        // Act
+        byte[] bytes = serializer.serialize("course-events", event);
+
+        // Assert: 10 byte header, then union branch + length + UTF-8 for the strings (8 + 27 + 6),
+        // branch + index for the enum (2) and branch + varint millis for the timestamp (7)
+        assertEquals(60, bytes.length);
+    }
+}
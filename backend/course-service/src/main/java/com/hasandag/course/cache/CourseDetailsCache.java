@@ -0,0 +1,54 @@
+package com.hasandag.course.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hasandag.course.dto.CourseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of the course row part of course details, keyed by course id; the
+ * per-user progress and the enrollment and rating stats are added per request and never cached.
+ * Entries expire after a TTL and are invalidated on every replica when course UPDATED/DELETED
+ * events are consumed. Hit, miss and eviction counts are published as cache.* meters.
+ */
+@Component
+@Slf4j
+public class CourseDetailsCache {
+
+    private static final String CACHE_NAME = "courseDetails";
+
+    private final Cache<Long, CourseDto> cache;
+
+    public CourseDetailsCache(
+            @Value("${course.cache.details.maximum-size:10000}") long maximumSize,
+            @Value("${course.cache.details.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Initialized course details cache with maximum size {} and TTL {}", maximumSize, ttl);
+    }
+
+    /**
+     * Returns the cached details, loading them on a miss. The returned instance is shared and
+     * must not be modified; a null loader result is not cached.
+     */
+    public CourseDto get(Long courseId, Function<Long, CourseDto> loader) {
+        return cache.get(courseId, loader);
+    }
+
+    public void invalidate(Long courseId) {
+        log.debug("Invalidating cached details for course {}", courseId);
+        cache.invalidate(courseId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.hasandag.course.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+/**
+ * Declares the topics course-service publishes to. KafkaAdmin creates them on startup, or adds
+ * partitions to an existing topic that has fewer. Consumers size their listener concurrency to
+ * the partition count.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${course.kafka.topic.partitions:6}")
+    private int partitions;
+
+    @Value("${course.kafka.topic.replicas:1}")
+    private int replicas;
+
+    @Value("${course.kafka.state-topic.segment:1h}")
+    private Duration stateSegment;
+
+    @Value("${course.kafka.state-topic.delete-retention:1d}")
+    private Duration stateDeleteRetention;
+
+    @Bean
+    public NewTopic courseEventsTopic() {
+        return TopicBuilder.name("course-events")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Latest state per course, keyed by course id. Segments roll every {@code segment} so
+     * superseded states become eligible for compaction; tombstones are kept for
+     * {@code delete-retention}, which must exceed the time a consumer may lag behind, or that
+     * consumer would miss a deletion.
+     */
+    @Bean
+    public NewTopic courseStateTopic() {
+        return TopicBuilder.name("course-state")
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(stateSegment.toMillis()))
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, String.valueOf(stateDeleteRetention.toMillis()))
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .build();
+    }
+
+    @Bean
+    public NewTopic enrollmentEventsTopic() {
+        return TopicBuilder.name("enrollment-events")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -1,8 +1,13 @@
 package com.hasandag.course.controller;
 
+import com.hasandag.course.dto.CourseCursor;
 import com.hasandag.course.dto.CourseDto;
+import com.hasandag.course.dto.CourseSuggestion;
+import com.hasandag.course.dto.CursorPage;
+import com.hasandag.course.exception.InvalidCursorException;
 import com.hasandag.course.mapper.CourseMapper;
 import com.hasandag.course.model.Course;
+import com.hasandag.course.search.CourseSuggestionTrie;
 import com.hasandag.course.service.CourseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,15 +23,20 @@ import java.util.List;
 @RequestMapping("/api/courses")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "http://localhost:3002", "http://localhost:3003"}, maxAge = 3600, allowCredentials = "true")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001", "http://localhost:3002", "http://localhost:3003"}, maxAge = 3600, allowCredentials = "true", exposedHeaders = CourseController.NEXT_CURSOR_HEADER)
 public class CourseController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CourseService courseService;
     private final CourseMapper courseMapper;
 
     @GetMapping
-    public ResponseEntity<List<CourseDto>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCoursesWithDetails());
+    public ResponseEntity<List<CourseDto>> getAllCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return toResponse(courseService.getAllCoursesWithDetails(CourseCursor.decode(cursor), pageSize(size)));
     }
 
     @GetMapping("/{id}")
@@ -73,26 +83,67 @@ public class CourseController {
     }
 
     @GetMapping("/instructor/{instructorId}")
-    public ResponseEntity<List<CourseDto>> getCoursesByInstructorId(@PathVariable Long instructorId) {
-        List<Course> courses = courseService.getCoursesByInstructorId(instructorId);
-        return ResponseEntity.ok(courseMapper.toDtoList(courses));
+    public ResponseEntity<List<CourseDto>> getCoursesByInstructorId(
+            @PathVariable Long instructorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<Course> courses = courseService.getCoursesByInstructorId(instructorId, CourseCursor.decode(cursor), pageSize(size));
+        return toResponse(courses.map(courseMapper::toDto));
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<CourseDto>> getCoursesByCategory(@PathVariable String category) {
-        List<Course> courses = courseService.getCoursesByCategory(category);
-        return ResponseEntity.ok(courseMapper.toDtoList(courses));
+    public ResponseEntity<List<CourseDto>> getCoursesByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<Course> courses = courseService.getCoursesByCategory(category, CourseCursor.decode(cursor), pageSize(size));
+        return toResponse(courses.map(courseMapper::toDto));
     }
 
     @GetMapping("/level/{level}")
-    public ResponseEntity<List<CourseDto>> getCoursesByLevel(@PathVariable String level) {
-        List<Course> courses = courseService.getCoursesByLevel(level);
-        return ResponseEntity.ok(courseMapper.toDtoList(courses));
+    public ResponseEntity<List<CourseDto>> getCoursesByLevel(
+            @PathVariable String level,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<Course> courses = courseService.getCoursesByLevel(level, CourseCursor.decode(cursor), pageSize(size));
+        return toResponse(courses.map(courseMapper::toDto));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<CourseDto>> searchCourses(@RequestParam String keyword) {
-        List<Course> courses = courseService.searchCoursesByTitle(keyword);
-        return ResponseEntity.ok(courseMapper.toDtoList(courses));
+    public ResponseEntity<List<CourseDto>> searchCourses(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<Course> courses = courseService.searchCourses(keyword, CourseCursor.decode(cursor), pageSize(size));
+        return toResponse(courses.map(courseMapper::toDto));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CourseSuggestion>> suggestCourses(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, CourseSuggestionTrie.TOP_K));
+        return ResponseEntity.ok(courseService.suggestCourses(prefix, boundedLimit));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * The body is a plain list of one page; the cursor for the next page, if any, is returned
+     * in the X-Next-Cursor header, and clients that want every course follow it.
+     */
+    private ResponseEntity<List<CourseDto>> toResponse(CursorPage<CourseDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
     }
 } 
\ No newline at end of file
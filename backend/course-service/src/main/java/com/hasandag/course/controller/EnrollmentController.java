@@ -1,10 +1,14 @@
 package com.hasandag.course.controller;
 
+import com.hasandag.course.dto.BatchEnrollmentRequest;
+import com.hasandag.course.dto.BatchEnrollmentResponse;
+import com.hasandag.course.exception.BatchTooLargeException;
 import com.hasandag.course.model.Enrollment;
 import com.hasandag.course.service.CourseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
@@ -41,6 +45,18 @@ public class EnrollmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(enrollment);
     }
 
+    /**
+     * Enrolls arbitrary users, so it is reserved for admins and instructors.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    public ResponseEntity<BatchEnrollmentResponse> enrollInBatch(@RequestBody BatchEnrollmentRequest request) {
+        if (request.getEnrollments() == null || request.getEnrollments().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(courseService.enrollUsersInBatch(request.getEnrollments()));
+    }
+
     @PutMapping("/progress")
     public ResponseEntity<Enrollment> updateProgress(
             @AuthenticationPrincipal Jwt jwt,
@@ -57,4 +73,21 @@ public class EnrollmentController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-} 
\ No newline at end of file
+
+    @DeleteMapping("/{courseId}")
+    public ResponseEntity<Void> unenroll(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long courseId) {
+        
+        String userId = jwt.getSubject();
+        
+        return courseService.unenrollUserFromCourse(Long.parseLong(userId), courseId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<String> handleBatchTooLarge(BatchTooLargeException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.hasandag.course.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEnrollmentRequest {
+    private List<EnrollmentRequest> enrollments;
+}
@@ -0,0 +1,19 @@
+package com.hasandag.course.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEnrollmentResponse {
+    private int created;
+    private int alreadyEnrolled;
+    private int failed;
+    private List<EnrollmentResult> results; // In request order
+}
@@ -0,0 +1,41 @@
+package com.hasandag.course.dto;
+
+import com.hasandag.course.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque keyset cursor handed out by paginated course endpoints.
+ * The cursor wraps the id of the last course on the previous page.
+ */
+public final class CourseCursor {
+
+    private static final String PREFIX = "course:";
+
+    private CourseCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.parseLong(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Malformed Base64 or id, reported below
+        }
+
+        throw new InvalidCursorException(cursor);
+    }
+}
@@ -0,0 +1,22 @@
+package com.hasandag.course.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSuggestion {
+    private String text;
+    private Type type;
+    private Long courseId; // Only set for title suggestions
+    private Long enrollmentCount;
+
+    public enum Type {
+        TITLE,
+        CATEGORY
+    }
+}
@@ -0,0 +1,35 @@
+package com.hasandag.course.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a course joined with its course_stats row, loaded in a single
+ * query by the repository.
+ */
+public interface CourseSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getCategory();
+
+    String getLevel();
+
+    BigDecimal getPrice();
+
+    String getImageUrl();
+
+    Long getInstructorId();
+
+    Long getEnrollmentCount();
+
+    Double getAverageRating();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package com.hasandag.course.dto;
+
+/**
+ * Id and title of a course, for callers that only need to name it.
+ */
+public interface CourseTitle {
+
+    Long getId();
+
+    String getTitle();
+}
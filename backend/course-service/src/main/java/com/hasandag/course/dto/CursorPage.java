@@ -0,0 +1,34 @@
+package com.hasandag.course.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor; // Null when this is the last page
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}; the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idExtractor) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, size);
+        return new CursorPage<>(content, CourseCursor.encode(idExtractor.apply(content.get(size - 1))));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hasandag.course.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentRequest {
+    private Long userId;
+    private Long courseId;
+}
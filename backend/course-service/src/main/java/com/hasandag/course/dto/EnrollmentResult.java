@@ -0,0 +1,23 @@
+package com.hasandag.course.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentResult {
+    private Long userId;
+    private Long courseId;
+    private Status status;
+
+    public enum Status {
+        CREATED,
+        ALREADY_ENROLLED,
+        COURSE_NOT_FOUND,
+        INVALID
+    }
+}
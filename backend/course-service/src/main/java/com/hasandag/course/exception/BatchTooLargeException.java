@@ -0,0 +1,11 @@
+package com.hasandag.course.exception;
+
+/**
+ * A batch request with more items than the service accepts in one call.
+ */
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int size, int maximum) {
+        super("Batch size " + size + " exceeds the maximum of " + maximum);
+    }
+}
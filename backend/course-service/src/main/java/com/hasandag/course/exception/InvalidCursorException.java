@@ -0,0 +1,11 @@
+package com.hasandag.course.exception;
+
+/**
+ * A pagination cursor that was not issued by this service, or was altered by the client.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hasandag.course.kafka;
+
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.course.cache.CourseDetailsCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts cached course details when a course is updated or deleted on any replica.
+ * Each replica uses its own consumer group so that every instance sees every event,
+ * and starts from the latest offset since older events cannot affect a fresh cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseCacheInvalidationConsumer {
+
+    private final CourseDetailsCache courseDetailsCache;
+
+    @KafkaListener(
+            topics = "course-events",
+            groupId = "${course.cache.invalidation.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void consumeCourseEvent(CourseEvent event) {
+        switch (event.getEventType()) {
+            case UPDATED:
+            case DELETED:
+                log.debug("Invalidating course details cache for {} event on course {}", event.getEventType(), event.getCourseId());
+                courseDetailsCache.invalidate(Long.parseLong(event.getCourseId()));
+                break;
+            default:
+                break;
+        }
+    }
+}
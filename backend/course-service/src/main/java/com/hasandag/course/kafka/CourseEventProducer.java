@@ -1,37 +1,98 @@
 package com.hasandag.course.kafka;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.common.event.CourseState;
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.course.model.OutboxEvent;
+import com.hasandag.course.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Records events in the outbox table as part of the caller's transaction; {@link OutboxRelay}
+ * publishes them to Kafka after commit. Nothing is published for a rolled back change and
+ * the request never waits on the broker.
+ * <p>
+ * Besides the course-events change log, every course write also records the full course state
+ * on the log-compacted course-state topic, keyed by course id. Compaction keeps only the latest
+ * state per course and drops deleted courses, so a new consumer bootstraps by reading one record
+ * per live course instead of replaying the whole change history.
+ * <p>
+ * Pending changes are flushed before each outbox row is saved, so the row locks of the change
+ * are held before the row draws its id. A later change to the same course or enrollment waits
+ * for those locks and therefore draws a higher id, which lets {@link OutboxRelay} publish each
+ * key in commit order.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CourseEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
     
     private static final String COURSE_EVENTS_TOPIC = "course-events";
+    private static final String COURSE_STATE_TOPIC = "course-state";
     private static final String ENROLLMENT_EVENTS_TOPIC = "enrollment-events";
     
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishCourseCreated(CourseEvent event) {
         log.info("Publishing course created event: {}", event);
-        kafkaTemplate.send(COURSE_EVENTS_TOPIC, event.getCourseId(), event);
+        append(COURSE_EVENTS_TOPIC, event.getCourseId(), event);
     }
     
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishCourseUpdated(CourseEvent event) {
         log.info("Publishing course updated event: {}", event);
-        kafkaTemplate.send(COURSE_EVENTS_TOPIC, event.getCourseId(), event);
+        append(COURSE_EVENTS_TOPIC, event.getCourseId(), event);
     }
     
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishCourseDeleted(CourseEvent event) {
         log.info("Publishing course deleted event: {}", event);
-        kafkaTemplate.send(COURSE_EVENTS_TOPIC, event.getCourseId(), event);
+        append(COURSE_EVENTS_TOPIC, event.getCourseId(), event);
     }
     
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishCourseState(CourseState state) {
+        log.debug("Publishing course state: {}", state.getCourseId());
+        append(COURSE_STATE_TOPIC, state.getCourseId(), state);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishCourseStateDeleted(String courseId) {
+        log.debug("Publishing course state tombstone: {}", courseId);
+        outboxEventRepository.flush();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(COURSE_STATE_TOPIC)
+                .messageKey(courseId)
+                .payloadType(OutboxEvent.TOMBSTONE_TYPE)
+                .payload("")
+                .build());
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishEnrollment(EnrollmentEvent event) {
         log.info("Publishing enrollment event: {}", event);
-        kafkaTemplate.send(ENROLLMENT_EVENTS_TOPIC, event.getUserId(), event);
+        append(ENROLLMENT_EVENTS_TOPIC, event.getUserId(), event);
+    }
+    
+    private void append(String topic, String key, Object event) {
+        try {
+            outboxEventRepository.flush();
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .payloadType(event.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize event " + event, e);
+        }
     }
-} 
\ No newline at end of file
+}
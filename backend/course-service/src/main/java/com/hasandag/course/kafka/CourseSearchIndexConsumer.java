@@ -0,0 +1,69 @@
+package com.hasandag.course.kafka;
+
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.course.search.InvertedIndexCourseSearch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Applies course changes to this replica's in-memory search index. Like the cache
+ * invalidation consumer, every replica uses its own consumer group.
+ * <p>
+ * The index is built when the partitions are assigned, on the listener thread so no event is
+ * applied while it is built, and the partitions are then sought back to the time taken before
+ * the database was read. Changes committed between reading the database and the assignment are
+ * therefore applied from course-events instead of waiting for the next full build; events the
+ * index already has are applied again, which only re-reads their course.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "course.search.mode", havingValue = "index")
+public class CourseSearchIndexConsumer extends AbstractConsumerSeekAware {
+
+    // Replayed before the snapshot time as well, for clock differences with the outbox relay
+    // that stamps the events
+    private static final Duration REPLAY_OVERLAP = Duration.ofMinutes(1);
+
+    private final InvertedIndexCourseSearch invertedIndexCourseSearch;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        if (assignments.isEmpty()) {
+            return;
+        }
+        Instant snapshotTime = invertedIndexCourseSearch.build();
+        callback.seekToTimestamp(assignments.keySet(), snapshotTime.minus(REPLAY_OVERLAP).toEpochMilli());
+    }
+
+    @KafkaListener(
+            topics = "course-events",
+            groupId = "${course.search.index.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void consumeCourseEvent(CourseEvent event) {
+        Long courseId = Long.parseLong(event.getCourseId());
+        switch (event.getEventType()) {
+            case CREATED:
+            case UPDATED:
+                log.debug("Indexing course {} after {} event", courseId, event.getEventType());
+                invertedIndexCourseSearch.onCourseChanged(courseId);
+                break;
+            case DELETED:
+                log.debug("Removing course {} from search index", courseId);
+                invertedIndexCourseSearch.onCourseDeleted(courseId);
+                break;
+            default:
+                log.warn("Unknown event type: {}", event.getEventType());
+        }
+    }
+}
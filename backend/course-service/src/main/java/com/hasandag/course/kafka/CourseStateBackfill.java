@@ -0,0 +1,67 @@
+package com.hasandag.course.kafka;
+
+import com.hasandag.course.mapper.CourseMapper;
+import com.hasandag.course.model.Course;
+import com.hasandag.course.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Seeds the course-state topic with the current state of every course, for courses written
+ * before the topic existed. Each page of courses is recorded in the outbox in its own
+ * transaction. Publishing a state again is harmless since compaction keeps only the latest
+ * record per course.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "course.kafka.state-topic.backfill-on-startup", havingValue = "true")
+public class CourseStateBackfill {
+
+    private final CourseRepository courseRepository;
+    private final CourseEventProducer courseEventProducer;
+    private final CourseMapper courseMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CourseStateBackfill(
+            CourseRepository courseRepository,
+            CourseEventProducer courseEventProducer,
+            CourseMapper courseMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${course.kafka.state-topic.backfill-batch-size:500}") int batchSize) {
+        this.courseRepository = courseRepository;
+        this.courseEventProducer = courseEventProducer;
+        this.courseMapper = courseMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0L;
+        int published = 0;
+        List<Course> batch;
+        do {
+            long from = afterId;
+            batch = transactionTemplate.execute(status -> {
+                List<Course> courses = courseRepository.findByIdGreaterThanOrderByIdAsc(from, PageRequest.of(0, batchSize));
+                courses.forEach(course -> courseEventProducer.publishCourseState(courseMapper.toCourseState(course)));
+                return courses;
+            });
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+                published += batch.size();
+            }
+        } while (batch.size() == batchSize);
+        log.info("Recorded the state of {} courses for the course-state topic", published);
+    }
+}
@@ -0,0 +1,65 @@
+package com.hasandag.course.kafka;
+
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.course.search.CourseSuggestionIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Applies course changes to this replica's suggestion trie. Like the cache invalidation
+ * consumer, every replica uses its own consumer group.
+ * <p>
+ * As for the search index, the trie is built when the partitions are assigned and the
+ * partitions are sought back to the time taken before the database was read, so changes
+ * committed in between are applied from course-events.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSuggestionConsumer extends AbstractConsumerSeekAware {
+
+    // Replayed before the snapshot time as well, for clock differences with the outbox relay
+    // that stamps the events
+    private static final Duration REPLAY_OVERLAP = Duration.ofMinutes(1);
+
+    private final CourseSuggestionIndex courseSuggestionIndex;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        if (assignments.isEmpty()) {
+            return;
+        }
+        Instant snapshotTime = courseSuggestionIndex.build();
+        callback.seekToTimestamp(assignments.keySet(), snapshotTime.minus(REPLAY_OVERLAP).toEpochMilli());
+    }
+
+    @KafkaListener(
+            topics = "course-events",
+            groupId = "${course.suggest.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void consumeCourseEvent(CourseEvent event) {
+        Long courseId = Long.parseLong(event.getCourseId());
+        switch (event.getEventType()) {
+            case CREATED:
+            case UPDATED:
+                log.debug("Updating suggestions for course {} after {} event", courseId, event.getEventType());
+                courseSuggestionIndex.onCourseChanged(courseId);
+                break;
+            case DELETED:
+                log.debug("Removing course {} from suggestions", courseId);
+                courseSuggestionIndex.onCourseDeleted(courseId);
+                break;
+            default:
+                log.warn("Unknown event type: {}", event.getEventType());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.hasandag.course.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasandag.course.model.OutboxEvent;
+import com.hasandag.course.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to Kafka in id order. Each batch is sent without waiting per record so
+ * the producer can fill its linger/compression batches, and deleted once every send is
+ * acknowledged. A failed batch stays in the outbox and is retried on the next run, so delivery
+ * is at least once. Reading and deleting a batch are separate short transactions, so no
+ * transaction is held open while the relay waits for Kafka, and the relay runs on a thread of
+ * its own, so a Kafka outage does not hold up the other scheduled jobs.
+ * <p>
+ * Only one replica relays at a time, the one holding the {@link OutboxRelayLock}; the others
+ * skip their runs. Since {@link CourseEventProducer} draws the id of a row only once the change
+ * it describes holds its row locks, rows with the same key are published in the order they
+ * committed. The log-compacted course-state topic
+ * relies on that, as its last record per course must be the latest state.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "course.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayLock relayLock;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final Duration sendTimeout;
+    private final ScheduledExecutorService scheduler;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            OutboxRelayLock relayLock,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper,
+            @Value("${course.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${course.outbox.relay.interval-ms:500}") long intervalMillis,
+            @Value("${course.outbox.relay.send-timeout:30s}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.relayLock = relayLock;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.sendTimeout = sendTimeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::relay, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.warn("Outbox relay failed, the batch will be retried: {}", e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        if (!relayLock.tryAcquire()) {
+            log.debug("Another replica is relaying the outbox");
+            return 0;
+        }
+        List<OutboxEvent> events = outboxEventRepository.findNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            if (event.isTombstone()) {
+                sends.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), null));
+                ids.add(event.getId());
+                continue;
+            }
+            Object payload = toPayload(event);
+            if (payload != null) {
+                sends.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), payload));
+            }
+            ids.add(event.getId());
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox events", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not publish outbox events", e);
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+        log.debug("Relayed {} outbox events", ids.size());
+        return ids.size();
+    }
+
+    // An unreadable row would block the outbox forever, so it is logged and dropped
+    private Object toPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (Exception e) {
+            log.error("Dropping unreadable outbox event {} of type {}: {}", event.getId(), event.getPayloadType(), event.getPayload(), e);
+            return null;
+        }
+    }
+}
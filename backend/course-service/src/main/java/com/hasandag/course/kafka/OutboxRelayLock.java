@@ -0,0 +1,95 @@
+package com.hasandag.course.kafka;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Session-level PostgreSQL advisory lock that makes one replica the outbox relay. The lock is
+ * kept on a connection of its own for as long as the replica relays, so that no transaction has
+ * to stay open while the relay waits for Kafka. If that connection breaks, the database releases
+ * the lock and another replica takes over on its next run.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "course.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+class OutboxRelayLock {
+
+    static final long RELAY_LOCK_ID = 0x6f7574626f78L; // "outbox"
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSource dataSource;
+    private Connection connection;
+    private boolean held;
+
+    OutboxRelayLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * True if this replica holds the relay lock, taking it if it is free. A replica that does
+     * not get the lock gives its connection back to the pool.
+     */
+    synchronized boolean tryAcquire() {
+        try {
+            if (connection != null && !connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                log.warn("Lost the connection holding the outbox relay lock");
+                close();
+            }
+            if (held) {
+                return true;
+            }
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, RELAY_LOCK_ID);
+                try (ResultSet result = statement.executeQuery()) {
+                    held = result.next() && result.getBoolean(1);
+                }
+            }
+            if (held) {
+                log.info("This replica is now the outbox relay");
+            } else {
+                close();
+            }
+            return held;
+        } catch (SQLException e) {
+            log.warn("Could not take the outbox relay lock: {}", e.getMessage());
+            close();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    synchronized void release() {
+        close();
+    }
+
+    // A pooled connection keeps its session locks, so they are released before it goes back
+    private void close() {
+        if (connection == null) {
+            return;
+        }
+        try (Connection closing = connection) {
+            if (held) {
+                try (Statement statement = closing.createStatement()) {
+                    statement.execute("SELECT pg_advisory_unlock_all()");
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Could not release the outbox relay lock cleanly: {}", e.getMessage());
+        } finally {
+            connection = null;
+            held = false;
+        }
+    }
+}
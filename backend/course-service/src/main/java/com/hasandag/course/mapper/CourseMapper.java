@@ -1,6 +1,8 @@
 package com.hasandag.course.mapper;
 
+import com.hasandag.common.event.CourseState;
 import com.hasandag.course.dto.CourseDto;
+import com.hasandag.course.dto.CourseSummary;
 import com.hasandag.course.model.Course;
 import org.springframework.stereotype.Component;
 
@@ -29,6 +31,39 @@ public class CourseMapper {
                 .build();
     }
 
+    public CourseDto toDto(CourseSummary summary) {
+        return CourseDto.builder()
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .description(summary.getDescription())
+                .category(summary.getCategory())
+                .level(summary.getLevel())
+                .price(summary.getPrice())
+                .imageUrl(summary.getImageUrl())
+                .instructorId(summary.getInstructorId())
+                .createdAt(summary.getCreatedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .progress(0)
+                .averageRating(summary.getAverageRating())
+                .enrollmentCount(summary.getEnrollmentCount() != null ? summary.getEnrollmentCount().intValue() : 0)
+                .build();
+    }
+
+    public CourseState toCourseState(Course course) {
+        return CourseState.builder()
+                .courseId(course.getId().toString())
+                .title(course.getTitle())
+                .description(course.getDescription())
+                .category(course.getCategory())
+                .level(course.getLevel())
+                .price(course.getPrice())
+                .imageUrl(course.getImageUrl())
+                .instructorId(course.getInstructorId() != null ? course.getInstructorId().toString() : null)
+                .createdAt(course.getCreatedAt())
+                .updatedAt(course.getUpdatedAt())
+                .build();
+    }
+
     public List<CourseDto> toDtoList(List<Course> courses) {
         return courses.stream()
                 .map(this::toDto)
@@ -0,0 +1,62 @@
+package com.hasandag.course.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-course aggregates maintained incrementally on enrollment, rating and progress writes,
+ * so that course reads do not need COUNT/AVG queries over enrollments and ratings.
+ */
+@Entity
+@Table(name = "course_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseStats {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "enrollment_count", nullable = false)
+    private Long enrollmentCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount;
+
+    @Column(name = "avg_progress", nullable = false)
+    private Double avgProgress;
+
+    // Lets readers pick up only the rows that changed since their last read
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public static CourseStats empty(Long courseId) {
+        return CourseStats.builder()
+                .courseId(courseId)
+                .enrollmentCount(0L)
+                .ratingSum(0L)
+                .ratingCount(0L)
+                .avgProgress(0.0)
+                .build();
+    }
+
+    public Double getAverageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+}
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class Enrollment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollments_seq")
+    @SequenceGenerator(name = "enrollments_seq", sequenceName = "enrollments_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -0,0 +1,55 @@
+package com.hasandag.course.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Kafka message written in the same transaction as the change it describes and published
+ * later by the outbox relay. A row of type {@link #TOMBSTONE_TYPE} is published as a record
+ * with a null value, which deletes its key from a log-compacted topic.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public static final String TOMBSTONE_TYPE = "tombstone";
+
+    // Not pooled: ids must follow the order in which changes to the same key commit
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "payload_type", nullable = false)
+    private String payloadType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public boolean isTombstone() {
+        return TOMBSTONE_TYPE.equals(payloadType);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,19 +1,52 @@
 package com.hasandag.course.repository;
 
+import com.hasandag.course.dto.CourseSummary;
+import com.hasandag.course.dto.CourseTitle;
 import com.hasandag.course.model.Course;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     
-    List<Course> findByInstructorId(Long instructorId);
+    // Keyset pagination: callers pass the last id of the previous page and a Pageable of page 0
+    // so that deep pages are served with an index range scan instead of an OFFSET scan
     
-    List<Course> findByCategory(String category);
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<Course> findByInstructorIdAndIdGreaterThanOrderByIdAsc(Long instructorId, Long afterId, Pageable pageable);
+    
+    List<Course> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Long afterId, Pageable pageable);
+    
+    List<Course> findByLevelAndIdGreaterThanOrderByIdAsc(String level, Long afterId, Pageable pageable);
     
-    List<Course> findByLevel(String level);
+    List<Course> findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String keyword, Long afterId, Pageable pageable);
     
-    List<Course> findByTitleContainingIgnoreCase(String keyword);
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.category AS category, " +
+           "c.level AS level, c.price AS price, c.imageUrl AS imageUrl, c.instructorId AS instructorId, " +
+           "s.enrollmentCount AS enrollmentCount, " +
+           "CASE WHEN s.ratingCount > 0 THEN CAST(s.ratingSum AS Double) / s.ratingCount ELSE NULL END AS averageRating, " +
+           "c.createdAt AS createdAt, c.updatedAt AS updatedAt " +
+           "FROM Course c LEFT JOIN CourseStats s ON s.courseId = c.id WHERE c.id > ?1 ORDER BY c.id")
+    List<CourseSummary> findSummariesAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.category AS category, " +
+           "c.level AS level, c.price AS price, c.imageUrl AS imageUrl, c.instructorId AS instructorId, " +
+           "s.enrollmentCount AS enrollmentCount, " +
+           "CASE WHEN s.ratingCount > 0 THEN CAST(s.ratingSum AS Double) / s.ratingCount ELSE NULL END AS averageRating, " +
+           "c.createdAt AS createdAt, c.updatedAt AS updatedAt " +
+           "FROM Course c LEFT JOIN CourseStats s ON s.courseId = c.id WHERE c.id = ?1")
+    Optional<CourseSummary> findSummaryById(Long id);
+
+    @Query("SELECT c.title FROM Course c WHERE c.id = ?1")
+    Optional<String> findTitleById(Long id);
+
+    @Query("SELECT c.id AS id, c.title AS title FROM Course c WHERE c.id IN ?1")
+    List<CourseTitle> findTitlesByIds(Collection<Long> ids);
 } 
\ No newline at end of file
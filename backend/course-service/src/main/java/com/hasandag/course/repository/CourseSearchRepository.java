@@ -0,0 +1,97 @@
+package com.hasandag.course.repository;
+
+import com.hasandag.course.model.Course;
+import com.hasandag.course.search.CourseTokenizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text course search over title, category and description.
+ * On PostgreSQL it queries the GIN-indexed courses.search_vector column with prefix matching and
+ * ts_rank_cd relevance ordering. Other databases (H2 in tests) fall back to a LIKE-based scan
+ * that ranks title matches above category and description matches.
+ */
+@Repository
+@Slf4j
+public class CourseSearchRepository {
+
+    private static final String FULL_TEXT_QUERY =
+            "SELECT c.* FROM courses c " +
+            "WHERE c.search_vector @@ to_tsquery('english', ?1) " +
+            "ORDER BY ts_rank_cd(c.search_vector, to_tsquery('english', ?1)) DESC, c.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final boolean postgres;
+
+    public CourseSearchRepository(DataSource dataSource) {
+        this.postgres = isPostgres(dataSource);
+        log.info("Course full-text search uses {}", postgres ? "PostgreSQL tsvector index" : "LIKE fallback");
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Course> search(String keyword, int limit) {
+        List<String> terms = CourseTokenizer.tokenize(keyword);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        if (postgres) {
+            return entityManager.createNativeQuery(FULL_TEXT_QUERY, Course.class)
+                    .setParameter(1, toPrefixTsQuery(terms))
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        return searchWithLike(terms, limit);
+    }
+
+    private List<Course> searchWithLike(List<String> terms, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT c FROM Course c WHERE ");
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) {
+                jpql.append(" AND ");
+            }
+            int param = i + 1;
+            jpql.append("(LOWER(c.title) LIKE ?").append(param)
+                    .append(" OR LOWER(c.category) LIKE ?").append(param)
+                    .append(" OR LOWER(c.description) LIKE ?").append(param).append(")");
+        }
+        jpql.append(" ORDER BY CASE WHEN LOWER(c.title) LIKE ?1 THEN 0 WHEN LOWER(c.category) LIKE ?1 THEN 1 ELSE 2 END, c.id");
+
+        TypedQuery<Course> query = entityManager.createQuery(jpql.toString(), Course.class);
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter(i + 1, "%" + terms.get(i) + "%");
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Builds a tsquery in which every term must match as a prefix, e.g. "spring:* & boo:*".
+     * Terms only contain letters and digits, so no tsquery operators can be injected.
+     */
+    static String toPrefixTsQuery(List<String> terms) {
+        return terms.stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Could not determine database type, using LIKE search fallback", e);
+            return false;
+        }
+    }
+}
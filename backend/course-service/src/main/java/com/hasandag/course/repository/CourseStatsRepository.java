@@ -0,0 +1,85 @@
+package com.hasandag.course.repository;
+
+import com.hasandag.course.model.CourseStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseStatsRepository extends JpaRepository<CourseStats, Long> {
+    
+    // Increments are applied in the database so that concurrent writers never lose updates;
+    // each method returns the number of updated rows (0 when the course has no stats row yet)
+    // and stamps updated_at, which the @PreUpdate callback does not cover for bulk updates
+    
+    @Modifying
+    @Query("UPDATE CourseStats s SET s.avgProgress = (s.avgProgress * s.enrollmentCount) / (s.enrollmentCount + 1), " +
+           "s.enrollmentCount = s.enrollmentCount + 1, s.updatedAt = CURRENT_TIMESTAMP WHERE s.courseId = ?1")
+    int incrementEnrollmentCount(Long courseId);
+    
+    @Modifying
+    @Query("UPDATE CourseStats s SET s.avgProgress = (s.avgProgress * s.enrollmentCount) / (s.enrollmentCount + ?2), " +
+           "s.enrollmentCount = s.enrollmentCount + ?2, s.updatedAt = CURRENT_TIMESTAMP WHERE s.courseId = ?1")
+    int addEnrollments(Long courseId, Long count);
+    
+    @Modifying
+    @Query("UPDATE CourseStats s SET s.ratingSum = s.ratingSum + ?2, s.ratingCount = s.ratingCount + 1, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.courseId = ?1")
+    int addRating(Long courseId, Long rating);
+    
+    @Modifying
+    @Query("UPDATE CourseStats s SET s.ratingSum = s.ratingSum + ?2, s.updatedAt = CURRENT_TIMESTAMP WHERE s.courseId = ?1")
+    int adjustRatingSum(Long courseId, Long delta);
+    
+    @Modifying
+    @Query("UPDATE CourseStats s SET s.avgProgress = s.avgProgress + ?2 / s.enrollmentCount, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.courseId = ?1 AND s.enrollmentCount > 0")
+    int adjustAverageProgress(Long courseId, Double delta);
+    
+    // Held until the end of the transaction; false if another replica is rebuilding
+    @Query(value = "SELECT pg_try_advisory_xact_lock(?1)", nativeQuery = true)
+    boolean tryLockRebuild(long lockId);
+    
+    // Locked in course id order, the order in which progress flushes lock them too
+    @Query(value = "SELECT course_id FROM course_stats ORDER BY course_id FOR UPDATE", nativeQuery = true)
+    List<Long> lockAll();
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CourseStats s WHERE s.courseId = ?1")
+    Optional<CourseStats> findByIdForUpdate(Long courseId);
+    
+    // Rows whose values did not change keep their updated_at
+    @Modifying
+    @Query(value = "INSERT INTO course_stats (course_id, enrollment_count, rating_sum, rating_count, avg_progress, updated_at) " +
+                   "SELECT c.id, COALESCE(e.cnt, 0), COALESCE(r.total, 0), COALESCE(r.cnt, 0), COALESCE(e.avg_progress, 0), CURRENT_TIMESTAMP " +
+                   "FROM courses c " +
+                   "LEFT JOIN (SELECT course_id, COUNT(*) AS cnt, AVG(progress) AS avg_progress FROM enrollments GROUP BY course_id) e " +
+                   "ON e.course_id = c.id " +
+                   "LEFT JOIN (SELECT course_id, COUNT(*) AS cnt, SUM(rating) AS total FROM ratings GROUP BY course_id) r " +
+                   "ON r.course_id = c.id " +
+                   "ON CONFLICT (course_id) DO UPDATE SET enrollment_count = EXCLUDED.enrollment_count, " +
+                   "rating_sum = EXCLUDED.rating_sum, rating_count = EXCLUDED.rating_count, avg_progress = EXCLUDED.avg_progress, " +
+                   "updated_at = EXCLUDED.updated_at " +
+                   "WHERE (course_stats.enrollment_count, course_stats.rating_sum, course_stats.rating_count, course_stats.avg_progress) " +
+                   "IS DISTINCT FROM (EXCLUDED.enrollment_count, EXCLUDED.rating_sum, EXCLUDED.rating_count, EXCLUDED.avg_progress)",
+           nativeQuery = true)
+    int rebuildAll();
+    
+    @Modifying
+    @Query(value = "DELETE FROM course_stats s WHERE NOT EXISTS (SELECT 1 FROM courses c WHERE c.id = s.course_id)",
+           nativeQuery = true)
+    int deleteOrphaned();
+    
+    @Query("SELECT s FROM CourseStats s WHERE s.updatedAt > ?1")
+    List<CourseStats> findUpdatedAfter(LocalDateTime since);
+    
+    @Query("SELECT MAX(s.updatedAt) FROM CourseStats s")
+    Optional<LocalDateTime> findLatestUpdate();
+}
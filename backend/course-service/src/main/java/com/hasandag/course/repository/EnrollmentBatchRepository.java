@@ -0,0 +1,237 @@
+package com.hasandag.course.repository;
+
+import com.hasandag.course.dto.EnrollmentRequest;
+import com.hasandag.course.model.Enrollment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk enrollment writes. New enrollments skip pairs which are already enrolled, relying on the
+ * uk_enrollments_user_course unique constraint. Ids come from enrollments_seq, the column
+ * default on PostgreSQL, so they never collide with blocks allocated by Hibernate.
+ * On PostgreSQL each chunk is a single INSERT ... SELECT FROM unnest(...) ON CONFLICT DO NOTHING
+ * whose RETURNING clause tells which pairs were inserted. Other databases (H2 in tests) fall
+ * back to a JDBC batch of conditional inserts.
+ */
+@Repository
+@Slf4j
+public class EnrollmentBatchRepository {
+
+    private static final String UPSERT_QUERY =
+            "INSERT INTO enrollments (user_id, course_id, progress, status, enrollment_date, last_accessed) " +
+            "SELECT p.user_id, p.course_id, 0, 'ENROLLED', ?, ? " +
+            "FROM unnest(?::bigint[], ?::bigint[]) AS p(user_id, course_id) " +
+            "ON CONFLICT (user_id, course_id) DO NOTHING " +
+            "RETURNING user_id, course_id";
+
+    private static final String CONDITIONAL_INSERT_QUERY =
+            "INSERT INTO enrollments (id, user_id, course_id, progress, status, enrollment_date, last_accessed) " +
+            "SELECT NEXT VALUE FOR enrollments_seq, CAST(? AS BIGINT), CAST(? AS BIGINT), 0, 'ENROLLED', CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM enrollments e WHERE e.user_id = ? AND e.course_id = ?)";
+
+    private static final String PROGRESS_UPDATE_QUERY =
+            "UPDATE enrollments e SET progress = u.progress, status = u.status, last_accessed = u.last_accessed " +
+            "FROM unnest(?::bigint[], ?::bigint[], ?::int[], ?::varchar[], ?::timestamp[]) AS u(user_id, course_id, progress, status, last_accessed) " +
+            "CROSS JOIN LATERAL (SELECT o.progress, o.status FROM enrollments o " +
+            "WHERE o.user_id = u.user_id AND o.course_id = u.course_id FOR UPDATE) AS old " +
+            "WHERE e.user_id = u.user_id AND e.course_id = u.course_id " +
+            "RETURNING e.user_id, e.course_id, old.progress AS previous_progress, old.status AS previous_status";
+
+    private static final String LOCK_PROGRESS_QUERY =
+            "SELECT progress, status FROM enrollments WHERE user_id = ? AND course_id = ? FOR UPDATE";
+
+    private static final String SINGLE_PROGRESS_UPDATE_QUERY =
+            "UPDATE enrollments SET progress = ?, status = ?, last_accessed = ? WHERE user_id = ? AND course_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final boolean postgres;
+
+    public EnrollmentBatchRepository(
+            JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            @Value("${course.enrollment.batch.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    /**
+     * Inserts the given (user, course) pairs, which must be distinct, and returns for each pair
+     * whether it was inserted (true) or already enrolled (false).
+     */
+    public boolean[] insertIgnoringExisting(List<EnrollmentRequest> enrollments) {
+        boolean[] inserted = new boolean[enrollments.size()];
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < enrollments.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, enrollments.size());
+            if (postgres) {
+                upsertChunk(enrollments, from, to, now, inserted);
+            } else {
+                insertChunkConditionally(enrollments, from, to, now, inserted);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Writes the progress, status and last access time of the given enrollments, matched by
+     * (user, course); on PostgreSQL each chunk is a single UPDATE ... FROM unnest(...).
+     * The updated rows are locked first, and their progress and status as stored just before
+     * the write are returned, so callers can derive deltas from the database rather than from
+     * what they last wrote themselves. Enrollments that no longer exist are not returned.
+     * Must run in a transaction.
+     */
+    public List<StoredProgress> updateProgress(List<Enrollment> enrollments) {
+        List<StoredProgress> previous = new ArrayList<>(enrollments.size());
+        for (int from = 0; from < enrollments.size(); from += chunkSize) {
+            List<Enrollment> chunk = enrollments.subList(from, Math.min(from + chunkSize, enrollments.size()));
+            if (postgres) {
+                updateProgressChunk(chunk, previous);
+            } else {
+                lockProgressChunk(chunk, previous);
+                jdbcTemplate.batchUpdate(SINGLE_PROGRESS_UPDATE_QUERY, chunk, chunk.size(), (statement, enrollment) -> {
+                    statement.setInt(1, enrollment.getProgress());
+                    statement.setString(2, enrollment.getStatus());
+                    statement.setTimestamp(3, Timestamp.valueOf(enrollment.getLastAccessed()));
+                    statement.setLong(4, enrollment.getUserId());
+                    statement.setLong(5, enrollment.getCourseId());
+                });
+            }
+        }
+        return previous;
+    }
+
+    private void lockProgressChunk(List<Enrollment> chunk, List<StoredProgress> previous) {
+        for (Enrollment enrollment : chunk) {
+            jdbcTemplate.query(LOCK_PROGRESS_QUERY, resultSet -> {
+                previous.add(new StoredProgress(enrollment.getUserId(), enrollment.getCourseId(),
+                        resultSet.getInt("progress"), resultSet.getString("status")));
+            }, enrollment.getUserId(), enrollment.getCourseId());
+        }
+    }
+
+    private void updateProgressChunk(List<Enrollment> chunk, List<StoredProgress> previous) {
+        Long[] userIds = new Long[chunk.size()];
+        Long[] courseIds = new Long[chunk.size()];
+        Integer[] progress = new Integer[chunk.size()];
+        String[] statuses = new String[chunk.size()];
+        Timestamp[] lastAccessed = new Timestamp[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Enrollment enrollment = chunk.get(i);
+            userIds[i] = enrollment.getUserId();
+            courseIds[i] = enrollment.getCourseId();
+            progress[i] = enrollment.getProgress();
+            statuses[i] = enrollment.getStatus();
+            lastAccessed[i] = Timestamp.valueOf(enrollment.getLastAccessed());
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(PROGRESS_UPDATE_QUERY);
+            statement.setArray(1, connection.createArrayOf("bigint", userIds));
+            statement.setArray(2, connection.createArrayOf("bigint", courseIds));
+            statement.setArray(3, connection.createArrayOf("integer", progress));
+            statement.setArray(4, connection.createArrayOf("varchar", statuses));
+            statement.setArray(5, connection.createArrayOf("timestamp", lastAccessed));
+            return statement;
+        }, resultSet -> {
+            previous.add(new StoredProgress(resultSet.getLong("user_id"), resultSet.getLong("course_id"),
+                    resultSet.getInt("previous_progress"), resultSet.getString("previous_status")));
+        });
+    }
+
+    private void upsertChunk(List<EnrollmentRequest> enrollments, int from, int to, Timestamp now, boolean[] inserted) {
+        Long[] userIds = new Long[to - from];
+        Long[] courseIds = new Long[to - from];
+        Map<List<Long>, Integer> positions = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            EnrollmentRequest enrollment = enrollments.get(i);
+            userIds[i - from] = enrollment.getUserId();
+            courseIds[i - from] = enrollment.getCourseId();
+            positions.put(List.of(enrollment.getUserId(), enrollment.getCourseId()), i);
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPSERT_QUERY);
+            statement.setTimestamp(1, now);
+            statement.setTimestamp(2, now);
+            statement.setArray(3, connection.createArrayOf("bigint", userIds));
+            statement.setArray(4, connection.createArrayOf("bigint", courseIds));
+            return statement;
+        }, resultSet -> {
+            Integer position = positions.get(List.of(resultSet.getLong("user_id"), resultSet.getLong("course_id")));
+            if (position != null) {
+                inserted[position] = true;
+            }
+        });
+    }
+
+    private void insertChunkConditionally(List<EnrollmentRequest> enrollments, int from, int to, Timestamp now, boolean[] inserted) {
+        List<Object[]> args = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            EnrollmentRequest enrollment = enrollments.get(i);
+            args.add(new Object[]{enrollment.getUserId(), enrollment.getCourseId(), now, now,
+                    enrollment.getUserId(), enrollment.getCourseId()});
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(CONDITIONAL_INSERT_QUERY, args);
+        for (int i = 0; i < counts.length; i++) {
+            inserted[from + i] = counts[i] > 0;
+        }
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Could not determine database type, using conditional insert fallback", e);
+            return false;
+        }
+    }
+
+    /**
+     * Progress and status of an enrollment as stored before a progress update.
+     */
+    public static final class StoredProgress {
+        private final Long userId;
+        private final Long courseId;
+        private final int progress;
+        private final String status;
+
+        public StoredProgress(Long userId, Long courseId, int progress, String status) {
+            this.userId = userId;
+            this.courseId = courseId;
+            this.progress = progress;
+            this.status = status;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        public int getProgress() {
+            return progress;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+}
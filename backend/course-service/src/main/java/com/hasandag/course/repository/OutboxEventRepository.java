@@ -0,0 +1,16 @@
+package com.hasandag.course.repository;
+
+import com.hasandag.course.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Only called by the replica holding the relay lock, so the rows need no row locks
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT ?1", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(int limit);
+}
@@ -22,4 +22,7 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     
     @Query("SELECT COUNT(r) FROM Rating r WHERE r.courseId = ?1")
     Integer countByCourseId(Long courseId);
+    
+    @Query("SELECT COALESCE(SUM(r.rating), 0) FROM Rating r WHERE r.courseId = ?1")
+    Long getRatingSumForCourse(Long courseId);
 } 
\ No newline at end of file
@@ -0,0 +1,281 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.model.Course;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over course title, category and description, ranked with BM25.
+ * <p>
+ * Each term maps to a postings list of parallel int arrays (document ids and field-weighted term
+ * frequencies). Updates and deletes tombstone the old document and the postings are compacted
+ * once tombstones outnumber half of the live documents. Every query term is matched as a prefix
+ * and all query terms must match, mirroring the database full-text search.
+ */
+public class CourseSearchIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> docIdsByCourseId = new HashMap<>();
+
+    private Course[] docs = new Course[1024];
+    private int[] docLengths = new int[1024];
+    private int docCount; // Includes tombstoned documents
+    private int liveDocCount;
+    private long totalLiveLength;
+
+    public void rebuild(Collection<Course> courses) {
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            docIdsByCourseId.clear();
+            docs = new Course[Math.max(1024, courses.size())];
+            docLengths = new int[docs.length];
+            docCount = 0;
+            liveDocCount = 0;
+            totalLiveLength = 0;
+            courses.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Course course) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(course.getId());
+            addDocument(course);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long courseId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(courseId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Course> search(String keyword, int limit) {
+        List<String> terms = CourseTokenizer.tokenize(keyword);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocCount == 0) {
+                return List.of();
+            }
+
+            double averageLength = (double) totalLiveLength / liveDocCount;
+            float[] scores = new float[docCount];
+            int[] matchedTerms = new int[docCount];
+
+            for (int q = 0; q < terms.size(); q++) {
+                scoreTerm(terms.get(q), 1 << q, averageLength, scores, matchedTerms);
+            }
+
+            return topDocuments(scores, matchedTerms, (1 << terms.size()) - 1, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scoreTerm(String prefix, int termBit, double averageLength, float[] scores, int[] matchedTerms) {
+        int expansions = 0;
+        for (Map.Entry<String, Postings> entry : dictionary.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+
+            Postings postings = entry.getValue();
+            double idf = Math.log(1 + (liveDocCount - postings.size + 0.5) / (postings.size + 0.5));
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docIds[i];
+                if (docs[doc] == null) {
+                    continue;
+                }
+                int tf = postings.frequencies[i];
+                double lengthNorm = 1 - B + B * docLengths[doc] / averageLength;
+                scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + K1 * lengthNorm));
+                matchedTerms[doc] |= termBit;
+            }
+        }
+    }
+
+    private List<Course> topDocuments(float[] scores, int[] matchedTerms, int allTerms, int limit) {
+        // Min-heap on score; on equal scores the older document ranks first
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Float.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(b, a);
+        });
+
+        for (int doc = 0; doc < docCount; doc++) {
+            if (matchedTerms[doc] != allTerms || docs[doc] == null) {
+                continue;
+            }
+            top.offer(doc);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        Course[] ranked = new Course[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = docs[top.poll()];
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private void addDocument(Course course) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, course.getTitle(), TITLE_WEIGHT);
+        addTerms(frequencies, course.getCategory(), CATEGORY_WEIGHT);
+        addTerms(frequencies, course.getDescription(), DESCRIPTION_WEIGHT);
+
+        int doc = docCount++;
+        if (doc == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+            docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+        }
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            dictionary.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+
+        docs[doc] = course;
+        docLengths[doc] = length;
+        docIdsByCourseId.put(course.getId(), doc);
+        liveDocCount++;
+        totalLiveLength += length;
+    }
+
+    private void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : CourseTokenizer.tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void removeDocument(Long courseId) {
+        Integer doc = docIdsByCourseId.remove(courseId);
+        if (doc == null) {
+            return;
+        }
+        docs[doc] = null;
+        liveDocCount--;
+        totalLiveLength -= docLengths[doc];
+    }
+
+    private void compactIfNeeded() {
+        int tombstones = docCount - liveDocCount;
+        if (tombstones < MIN_TOMBSTONES_FOR_COMPACTION || tombstones < liveDocCount / 2) {
+            return;
+        }
+
+        int[] remapped = new int[docCount];
+        Course[] compactedDocs = new Course[Math.max(1024, liveDocCount * 2)];
+        int[] compactedLengths = new int[compactedDocs.length];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docs[doc] == null) {
+                remapped[doc] = -1;
+                continue;
+            }
+            remapped[doc] = next;
+            compactedDocs[next] = docs[doc];
+            compactedLengths[next] = docLengths[doc];
+            docIdsByCourseId.put(docs[doc].getId(), next);
+            next++;
+        }
+
+        Iterator<Postings> iterator = dictionary.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            postings.remap(remapped);
+            if (postings.size == 0) {
+                iterator.remove();
+            }
+        }
+
+        docs = compactedDocs;
+        docLengths = compactedLengths;
+        docCount = next;
+    }
+
+    /**
+     * Postings of a single term; document ids are appended in increasing order.
+     */
+    private static final class Postings {
+        private int[] docIds = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int docId, int frequency) {
+            if (size == docIds.length) {
+                int capacity = size + (size >> 1) + 1;
+                docIds = Arrays.copyOf(docIds, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            docIds[size] = docId;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remap(int[] remapped) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int target = remapped[docIds[i]];
+                if (target >= 0) {
+                    docIds[kept] = target;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (size < docIds.length / 4) {
+                docIds = Arrays.copyOf(docIds, Math.max(4, size));
+                frequencies = Arrays.copyOf(frequencies, Math.max(4, size));
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.dto.CourseSuggestion;
+import com.hasandag.course.dto.CourseSummary;
+import com.hasandag.course.model.CourseStats;
+import com.hasandag.course.repository.CourseRepository;
+import com.hasandag.course.repository.CourseStatsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves course title/category typeahead from an in-process {@link CourseSuggestionTrie}.
+ * The trie is built from the database once the course-events consumer has its partitions
+ * assigned (see {@link com.hasandag.course.kafka.CourseSuggestionConsumer}), course changes
+ * arrive through course-events and enrollment counts are refreshed on a fixed delay from the
+ * course_stats rows that changed since the previous refresh. The changed counts are read without holding the trie lock and
+ * applied in small chunks, so a refresh never blocks lookups for longer than one chunk.
+ */
+@Component
+@Slf4j
+public class CourseSuggestionIndex {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final int REFRESH_CHUNK_SIZE = 256;
+    // Re-read window before the newest change seen, for rows stamped before they were committed
+    // and for clock differences between the replicas that stamp them
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final LocalDateTime NO_STATS = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final CourseRepository courseRepository;
+    private final CourseStatsRepository courseStatsRepository;
+    private final CourseSuggestionTrie trie;
+    private final Timer suggestTimer;
+    private volatile LocalDateTime refreshedUpTo; // Null until the trie is built
+
+    public CourseSuggestionIndex(
+            CourseRepository courseRepository,
+            CourseStatsRepository courseStatsRepository,
+            @Value("${course.suggest.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.courseRepository = courseRepository;
+        this.courseStatsRepository = courseStatsRepository;
+        this.trie = new CourseSuggestionTrie(maxEntries);
+        this.suggestTimer = Timer.builder("course.suggest.latency")
+                .description("Time to answer a typeahead lookup from the suggestion trie")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("course.suggest.entries", trie, CourseSuggestionTrie::entryCount)
+                .description("Titles and categories held in the suggestion trie")
+                .register(meterRegistry);
+        Gauge.builder("course.suggest.memory", trie, CourseSuggestionTrie::estimatedSizeBytes)
+                .description("Estimated heap footprint of the suggestion trie")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds the trie from the database and returns the time taken before reading it; every
+     * course change the trie misses was committed, and published to course-events, after that time.
+     */
+    public Instant build() {
+        long start = System.nanoTime();
+        Instant snapshotTime = Instant.now();
+        // Taken before reading the courses, so that later changes are picked up by the next refresh
+        LocalDateTime latestStatsUpdate = courseStatsRepository.findLatestUpdate().orElse(NO_STATS);
+        trie.clear();
+
+        long afterId = 0L;
+        int skipped = 0;
+        List<CourseSummary> batch;
+        do {
+            batch = courseRepository.findSummariesAfter(afterId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (CourseSummary course : batch) {
+                if (!upsert(course)) {
+                    skipped++;
+                }
+                afterId = course.getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        if (skipped > 0) {
+            log.warn("Suggestion trie is full, {} courses were not added", skipped);
+        }
+        refreshedUpTo = latestStatsUpdate;
+        log.info("Built course suggestion trie with {} entries in {} ms", trie.entryCount(), (System.nanoTime() - start) / 1_000_000);
+        return snapshotTime;
+    }
+
+    public List<CourseSuggestion> suggest(String prefix, int limit) {
+        return suggestTimer.record(() -> trie.suggest(prefix, limit));
+    }
+
+    @Scheduled(fixedDelayString = "${course.suggest.refresh-interval-ms:30000}", initialDelayString = "${course.suggest.refresh-interval-ms:30000}")
+    public void refreshEnrollmentCounts() {
+        LocalDateTime since = refreshedUpTo;
+        if (since == null) {
+            return;
+        }
+
+        LocalDateTime latest = since;
+        Map<Long, Long> enrollmentCounts = new HashMap<>();
+        for (CourseStats stats : courseStatsRepository.findUpdatedAfter(since.minus(REFRESH_OVERLAP))) {
+            enrollmentCounts.put(stats.getCourseId(), stats.getEnrollmentCount());
+            if (stats.getUpdatedAt().isAfter(latest)) {
+                latest = stats.getUpdatedAt();
+            }
+        }
+
+        Map<Long, Long> chunk = new HashMap<>();
+        for (Map.Entry<Long, Long> count : enrollmentCounts.entrySet()) {
+            chunk.put(count.getKey(), count.getValue());
+            if (chunk.size() == REFRESH_CHUNK_SIZE) {
+                trie.updateEnrollmentCounts(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            trie.updateEnrollmentCounts(chunk);
+        }
+        refreshedUpTo = latest;
+        log.debug("Refreshed suggestion enrollment counts of {} courses", enrollmentCounts.size());
+    }
+
+    public void onCourseChanged(Long courseId) {
+        courseRepository.findSummaryById(courseId)
+                .ifPresentOrElse(course -> {
+                    if (!upsert(course)) {
+                        log.warn("Suggestion trie is full, course {} was not added", courseId);
+                    }
+                }, () -> trie.removeCourse(courseId));
+    }
+
+    public void onCourseDeleted(Long courseId) {
+        trie.removeCourse(courseId);
+    }
+
+    private boolean upsert(CourseSummary course) {
+        long enrollmentCount = course.getEnrollmentCount() != null ? course.getEnrollmentCount() : 0L;
+        return trie.upsertCourse(course.getId(), course.getTitle(), course.getCategory(), enrollmentCount);
+    }
+}
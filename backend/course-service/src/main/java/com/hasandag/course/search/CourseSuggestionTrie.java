@@ -0,0 +1,520 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.dto.CourseSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed prefix trie (radix tree) of course titles and categories for typeahead suggestions.
+ * <p>
+ * Every node caches the top {@link #TOP_K} distinct entries of its subtree by enrollment count, so
+ * a lookup is a walk down the prefix followed by a copy of that list. Titles are also keyed from
+ * each of their first words, so "boot" finds "Spring Boot Basics". A category suggestion is
+ * weighted by the enrollments of all its courses. Keys are truncated and the number of entries is
+ * capped, which bounds the memory footprint.
+ */
+public class CourseSuggestionTrie {
+
+    public static final int TOP_K = 10;
+
+    static final int MAX_KEY_LENGTH = 64;
+    static final int MAX_WORD_KEYS_PER_TITLE = 8;
+
+    // Rough per-object sizes on a 64-bit JVM with compressed oops, used for the memory estimate
+    private static final int NODE_BYTES = 48;
+    private static final int STRING_BYTES = 40;
+    private static final int ENTRY_BYTES = 64;
+    private static final int REFERENCE_BYTES = 4;
+
+    private static final Comparator<Entry> BY_WEIGHT = Comparator
+            .comparingLong((Entry entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.text)
+            .thenComparingLong(entry -> entry.courseId != null ? entry.courseId : 0L);
+
+    private final int maxEntries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> titles = new HashMap<>();
+    private final Map<String, Entry> categories = new HashMap<>();
+    private final Map<String, Integer> categoryCourseCounts = new HashMap<>();
+    private Node root = new Node("");
+
+    public CourseSuggestionTrie(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = new Node("");
+            titles.clear();
+            categories.clear();
+            categoryCourseCounts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the title and category entries of a course.
+     *
+     * @return false if the course was not added because the trie is full
+     */
+    public boolean upsertCourse(Long courseId, String title, String category, long enrollmentCount) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = titles.get(courseId);
+            if (existing != null && existing.text.equals(title) && sameCategory(existing.category, category)) {
+                setEnrollmentCount(existing, enrollmentCount);
+                return true;
+            }
+
+            removeCourseEntries(courseId);
+            if (titles.size() + categories.size() >= maxEntries) {
+                return false;
+            }
+
+            Entry entry = new Entry(title, CourseSuggestion.Type.TITLE, courseId, category, enrollmentCount, titleKeys(title));
+            if (entry.keys.length == 0) {
+                return true;
+            }
+            titles.put(courseId, entry);
+            for (String key : entry.keys) {
+                insert(key, entry);
+            }
+            addToCategory(category, enrollmentCount);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCourse(Long courseId) {
+        lock.writeLock().lock();
+        try {
+            removeCourseEntries(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies current enrollment counts; courses that are not in the trie are ignored.
+     */
+    public void updateEnrollmentCounts(Map<Long, Long> enrollmentCounts) {
+        lock.writeLock().lock();
+        try {
+            enrollmentCounts.forEach((courseId, count) -> {
+                Entry entry = titles.get(courseId);
+                if (entry != null) {
+                    setEnrollmentCount(entry, count != null ? count : 0L);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CourseSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+
+            int count = Math.min(limit, node.top.length);
+            List<CourseSuggestion> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                suggestions.add(node.top[i].toSuggestion());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int entryCount() {
+        lock.readLock().lock();
+        try {
+            return titles.size() + categories.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the trie to estimate its heap footprint; intended for a metrics gauge, not hot paths.
+     */
+    public long estimatedSizeBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = estimatedSizeBytes(root);
+            for (Entry entry : titles.values()) {
+                bytes += entry.estimatedSizeBytes();
+            }
+            for (Entry entry : categories.values()) {
+                bytes += entry.estimatedSizeBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long estimatedSizeBytes(Node node) {
+        long bytes = NODE_BYTES + STRING_BYTES + 2L * node.label.length()
+                + (long) REFERENCE_BYTES * (node.children.length + node.own.length + node.top.length);
+        for (Node child : node.children) {
+            bytes += estimatedSizeBytes(child);
+        }
+        return bytes;
+    }
+
+    static String normalize(String text) {
+        String key = String.join(" ", CourseTokenizer.tokenize(text));
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static String[] titleKeys(String title) {
+        List<String> words = CourseTokenizer.tokenize(title);
+        int keyCount = Math.min(words.size(), MAX_WORD_KEYS_PER_TITLE);
+        List<String> keys = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            String key = normalize(String.join(" ", words.subList(i, words.size())));
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static boolean sameCategory(String a, String b) {
+        return normalize(a).equals(normalize(b));
+    }
+
+    private void setEnrollmentCount(Entry entry, long enrollmentCount) {
+        long delta = enrollmentCount - entry.weight;
+        if (delta == 0) {
+            return;
+        }
+        entry.weight = enrollmentCount;
+        for (String key : entry.keys) {
+            refresh(key);
+        }
+
+        Entry category = categories.get(normalize(entry.category));
+        if (category != null) {
+            category.weight += delta;
+            refresh(category.keys[0]);
+        }
+    }
+
+    private void addToCategory(String category, long enrollmentCount) {
+        String key = normalize(category);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Entry entry = categories.get(key);
+        if (entry == null) {
+            entry = new Entry(category, CourseSuggestion.Type.CATEGORY, null, category, enrollmentCount, new String[]{key});
+            categories.put(key, entry);
+            insert(key, entry);
+        } else {
+            entry.weight += enrollmentCount;
+            refresh(key);
+        }
+        categoryCourseCounts.merge(key, 1, Integer::sum);
+    }
+
+    private void removeCourseEntries(Long courseId) {
+        Entry entry = titles.remove(courseId);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            remove(key, entry);
+        }
+
+        String categoryKey = normalize(entry.category);
+        Entry category = categories.get(categoryKey);
+        if (category == null) {
+            return;
+        }
+        if (categoryCourseCounts.merge(categoryKey, -1, Integer::sum) <= 0) {
+            categoryCourseCounts.remove(categoryKey);
+            categories.remove(categoryKey);
+            remove(categoryKey, category);
+        } else {
+            category.weight -= entry.weight;
+            refresh(categoryKey);
+        }
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    private void insert(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.addChild(child);
+                i = key.length();
+            } else {
+                int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    Node split = new Node(child.label.substring(0, common));
+                    node.replaceChild(split);
+                    child.label = child.label.substring(common);
+                    split.addChild(child);
+                    split.top = child.top;
+                    child = split;
+                }
+                i += common;
+            }
+            path.add(child);
+            node = child;
+        }
+
+        node.own = append(node.own, entry);
+        updateTops(path);
+    }
+
+    private void remove(String key, Entry entry) {
+        List<Node> path = path(key);
+        if (path == null) {
+            return;
+        }
+
+        Node terminal = path.get(path.size() - 1);
+        terminal.own = without(terminal.own, entry);
+
+        // Drop nodes that no longer lead anywhere and merge pass-through nodes into their child
+        for (int j = path.size() - 1; j > 0; j--) {
+            Node node = path.get(j);
+            Node parent = path.get(j - 1);
+            if (node.own.length > 0) {
+                break;
+            }
+            if (node.children.length == 0) {
+                parent.removeChild(node);
+            } else if (node.children.length == 1) {
+                Node child = node.children[0];
+                child.label = node.label + child.label;
+                parent.replaceChild(child);
+                path.set(j, child);
+            }
+        }
+        updateTops(path);
+    }
+
+    private void refresh(String key) {
+        List<Node> path = path(key);
+        if (path != null) {
+            updateTops(path);
+        }
+    }
+
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            path.add(child);
+            node = child;
+            i += child.label.length();
+        }
+        return path;
+    }
+
+    private static void updateTops(List<Node> path) {
+        for (int j = path.size() - 1; j >= 0; j--) {
+            path.get(j).updateTop();
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i] == entry) {
+                Entry[] result = new Entry[entries.length - 1];
+                System.arraycopy(entries, 0, result, 0, i);
+                System.arraycopy(entries, i + 1, result, i, entries.length - i - 1);
+                return result;
+            }
+        }
+        return entries;
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        private String label;
+        private Node[] children = NO_CHILDREN; // Sorted by the first character of the label
+        private Entry[] own = NO_ENTRIES; // Entries whose key ends at this node
+        private Entry[] top = NO_ENTRIES; // Best distinct entries of the subtree, best first
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            int insertAt = -indexOf(child.label.charAt(0)) - 1;
+            Node[] result = new Node[children.length + 1];
+            System.arraycopy(children, 0, result, 0, insertAt);
+            result[insertAt] = child;
+            System.arraycopy(children, insertAt, result, insertAt + 1, children.length - insertAt);
+            children = result;
+        }
+
+        void replaceChild(Node child) {
+            children[indexOf(child.label.charAt(0))] = child;
+        }
+
+        void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] result = new Node[children.length - 1];
+            System.arraycopy(children, 0, result, 0, index);
+            System.arraycopy(children, index + 1, result, index, children.length - index - 1);
+            children = result.length == 0 ? NO_CHILDREN : result;
+        }
+
+        /**
+         * Merges the own entries with the children's top lists. Each child list already holds the
+         * best entries of its subtree, so the merge yields the best entries of this subtree.
+         */
+        void updateTop() {
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(own));
+            for (Node child : children) {
+                for (Entry entry : child.top) {
+                    if (!containsSame(candidates, entry)) {
+                        candidates.add(entry);
+                    }
+                }
+            }
+            candidates.sort(BY_WEIGHT);
+            top = candidates.subList(0, Math.min(TOP_K, candidates.size())).toArray(NO_ENTRIES);
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private static boolean containsSame(List<Entry> entries, Entry entry) {
+            for (Entry candidate : entries) {
+                if (candidate == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        private final String text;
+        private final CourseSuggestion.Type type;
+        private final Long courseId;
+        private final String category;
+        private final String[] keys;
+        private long weight;
+
+        Entry(String text, CourseSuggestion.Type type, Long courseId, String category, long weight, String[] keys) {
+            this.text = text;
+            this.type = type;
+            this.courseId = courseId;
+            this.category = category;
+            this.weight = weight;
+            this.keys = keys;
+        }
+
+        CourseSuggestion toSuggestion() {
+            return CourseSuggestion.builder()
+                    .text(text)
+                    .type(type)
+                    .courseId(courseId)
+                    .enrollmentCount(weight)
+                    .build();
+        }
+
+        long estimatedSizeBytes() {
+            long bytes = ENTRY_BYTES + STRING_BYTES + 2L * text.length();
+            for (String key : keys) {
+                bytes += REFERENCE_BYTES + STRING_BYTES + 2L * key.length();
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.model.Course;
+import com.hasandag.course.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Serves course search from an in-process {@link CourseSearchIndex} when
+ * course.search.mode=index. The index is built from the database once the course-events
+ * consumer has its partitions assigned, and kept current from course-events from a point
+ * before the database was read (see {@link com.hasandag.course.kafka.CourseSearchIndexConsumer}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "course.search.mode", havingValue = "index")
+public class InvertedIndexCourseSearch {
+
+    private final CourseRepository courseRepository;
+    private final CourseSearchIndex index = new CourseSearchIndex();
+
+    /**
+     * Rebuilds the index from the database and returns the time taken before reading it; every
+     * change the index misses was committed, and published to course-events, after that time.
+     */
+    public Instant build() {
+        long start = System.nanoTime();
+        Instant snapshotTime = Instant.now();
+        List<Course> courses = courseRepository.findAll();
+        index.rebuild(courses);
+        log.info("Built course search index with {} courses in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        return snapshotTime;
+    }
+
+    public List<Course> search(String keyword, int limit) {
+        return index.search(keyword, limit);
+    }
+
+    public void onCourseChanged(Long courseId) {
+        courseRepository.findById(courseId)
+                .ifPresentOrElse(index::upsert, () -> index.remove(courseId));
+    }
+
+    public void onCourseDeleted(Long courseId) {
+        index.remove(courseId);
+    }
+}
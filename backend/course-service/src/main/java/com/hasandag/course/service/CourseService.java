@@ -1,24 +1,47 @@
 package com.hasandag.course.service;
 
+import com.hasandag.course.cache.CourseDetailsCache;
 import com.hasandag.course.model.Course;
+import com.hasandag.course.model.CourseStats;
 import com.hasandag.course.model.Enrollment;
 import com.hasandag.course.model.Rating;
 import com.hasandag.course.repository.CourseRepository;
+import com.hasandag.course.repository.EnrollmentBatchRepository;
 import com.hasandag.course.repository.EnrollmentRepository;
+import com.hasandag.course.repository.CourseSearchRepository;
 import com.hasandag.course.repository.RatingRepository;
-import com.hasandag.course.kafka.CourseEvent;
+import com.hasandag.course.search.CourseSuggestionIndex;
+import com.hasandag.course.search.InvertedIndexCourseSearch;
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.common.event.EnrollmentEvent;
 import com.hasandag.course.kafka.CourseEventProducer;
+import com.hasandag.course.dto.BatchEnrollmentResponse;
 import com.hasandag.course.dto.CourseDto;
+import com.hasandag.course.dto.CourseSuggestion;
+import com.hasandag.course.dto.CourseSummary;
+import com.hasandag.course.dto.CourseTitle;
+import com.hasandag.course.dto.CursorPage;
+import com.hasandag.course.dto.EnrollmentRequest;
+import com.hasandag.course.dto.EnrollmentResult;
+import com.hasandag.course.exception.BatchTooLargeException;
 import com.hasandag.course.mapper.CourseMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -27,57 +50,69 @@ public class CourseService {
 
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentBatchRepository enrollmentBatchRepository;
     private final RatingRepository ratingRepository;
     private final CourseEventProducer courseEventProducer;
     private final CourseMapper courseMapper;
+    private final CourseStatsService courseStatsService;
+    private final CourseDetailsCache courseDetailsCache;
+    private final CourseSearchRepository courseSearchRepository;
+    private final ObjectProvider<InvertedIndexCourseSearch> invertedIndexCourseSearch;
+    private final CourseSuggestionIndex courseSuggestionIndex;
+    private final EnrollmentProgressBuffer enrollmentProgressBuffer;
+    
+    @Value("${course.search.mode:fulltext}")
+    private String searchMode;
+    
+    @Value("${course.enrollment.batch.max-size:10000}")
+    private int maxBatchEnrollments;
 
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
     
-    public List<CourseDto> getAllCoursesWithDetails() {
-        List<Course> courses = courseRepository.findAll();
-        return courses.stream()
-                .map(course -> {
-                    CourseDto dto = courseMapper.toDto(course);
-                    
-                    // Enhance with additional details
-                    Integer enrollmentCount = enrollmentRepository.countByCourseId(course.getId());
-                    Double averageRating = ratingRepository.getAverageRatingForCourse(course.getId());
-                    
-                    dto.setEnrollmentCount(enrollmentCount);
-                    dto.setAverageRating(averageRating);
-                    
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    public CursorPage<CourseDto> getAllCoursesWithDetails(Long afterId, int size) {
+        // Enrollment counts and average ratings are aggregated in the same query
+        List<CourseSummary> summaries = courseRepository.findSummariesAfter(afterId, pageOf(size));
+        return CursorPage.of(summaries, size, CourseSummary::getId).map(courseMapper::toDto);
     }
     
     public CourseDto getCourseWithDetails(Long courseId, Long userId) {
-        Optional<Course> courseOpt = courseRepository.findById(courseId);
+        CourseDto cachedDto = courseDetailsCache.get(courseId, this::loadCourseDetails);
         
-        if (!courseOpt.isPresent()) {
+        if (cachedDto == null) {
             return null;
         }
         
-        Course course = courseOpt.get();
-        CourseDto dto = courseMapper.toDto(course);
-        
-        // Add enrollment count and average rating
-        Integer enrollmentCount = enrollmentRepository.countByCourseId(courseId);
-        Double averageRating = ratingRepository.getAverageRatingForCourse(courseId);
+        // Copy so that per-user data never leaks into the shared cached instance
+        CourseDto dto = cachedDto.toBuilder().build();
         
-        dto.setEnrollmentCount(enrollmentCount);
-        dto.setAverageRating(averageRating);
+        // Read per request from the materialized stats row: enrollments and ratings change far
+        // more often than the course itself, and are not covered by the cache invalidation
+        courseStatsService.getStats(courseId).ifPresent(stats -> {
+            dto.setEnrollmentCount(stats.getEnrollmentCount().intValue());
+            dto.setAverageRating(stats.getAverageRating());
+        });
         
         // Add user-specific progress if available
         if (userId != null) {
-            Optional<Enrollment> enrollment = enrollmentRepository.findByUserIdAndCourseId(userId, courseId);
-            enrollment.ifPresent(e -> dto.setProgress(e.getProgress()));
+            Optional<Integer> bufferedProgress = enrollmentProgressBuffer.getBufferedProgress(userId, courseId);
+            if (bufferedProgress.isPresent()) {
+                dto.setProgress(bufferedProgress.get());
+            } else {
+                Optional<Enrollment> enrollment = enrollmentRepository.findByUserIdAndCourseId(userId, courseId);
+                enrollment.ifPresent(e -> dto.setProgress(e.getProgress()));
+            }
         }
         
         return dto;
     }
+    
+    private CourseDto loadCourseDetails(Long courseId) {
+        return courseRepository.findById(courseId)
+                .map(courseMapper::toDto)
+                .orElse(null);
+    }
 
     public Optional<Course> getCourseById(Long id) {
         return courseRepository.findById(id);
@@ -86,6 +121,7 @@ public class CourseService {
     @Transactional
     public Course createCourse(Course course) {
         Course savedCourse = courseRepository.save(course);
+        courseStatsService.initialize(savedCourse.getId());
         
         // Publish course created event
         CourseEvent courseEvent = CourseEvent.builder()
@@ -97,6 +133,7 @@ public class CourseService {
                 .build();
         
         courseEventProducer.publishCourseCreated(courseEvent);
+        courseEventProducer.publishCourseState(courseMapper.toCourseState(savedCourse));
         
         return savedCourse;
     }
@@ -112,7 +149,9 @@ public class CourseService {
                     existingCourse.setPrice(courseDetails.getPrice());
                     existingCourse.setImageUrl(courseDetails.getImageUrl());
                     
-                    Course updatedCourse = courseRepository.save(existingCourse);
+                    // Flushed so that the published course state carries the new updatedAt
+                    Course updatedCourse = courseRepository.saveAndFlush(existingCourse);
+                    courseDetailsCache.invalidate(updatedCourse.getId());
                     
                     // Publish course updated event
                     CourseEvent courseEvent = CourseEvent.builder()
@@ -124,6 +163,7 @@ public class CourseService {
                             .build();
                     
                     courseEventProducer.publishCourseUpdated(courseEvent);
+                    courseEventProducer.publishCourseState(courseMapper.toCourseState(updatedCourse));
                     
                     return updatedCourse;
                 });
@@ -134,6 +174,8 @@ public class CourseService {
         return courseRepository.findById(id)
                 .map(course -> {
                     courseRepository.delete(course);
+                    courseStatsService.remove(course.getId());
+                    courseDetailsCache.invalidate(course.getId());
                     
                     // Publish course deleted event
                     CourseEvent courseEvent = CourseEvent.builder()
@@ -145,32 +187,54 @@ public class CourseService {
                             .build();
                     
                     courseEventProducer.publishCourseDeleted(courseEvent);
+                    courseEventProducer.publishCourseStateDeleted(course.getId().toString());
                     
                     return true;
                 })
                 .orElse(false);
     }
 
-    public List<Course> getCoursesByInstructorId(Long instructorId) {
-        return courseRepository.findByInstructorId(instructorId);
+    public CursorPage<Course> getCoursesByInstructorId(Long instructorId, Long afterId, int size) {
+        List<Course> courses = courseRepository.findByInstructorIdAndIdGreaterThanOrderByIdAsc(instructorId, afterId, pageOf(size));
+        return CursorPage.of(courses, size, Course::getId);
+    }
+
+    public CursorPage<Course> getCoursesByCategory(String category, Long afterId, int size) {
+        List<Course> courses = courseRepository.findByCategoryAndIdGreaterThanOrderByIdAsc(category, afterId, pageOf(size));
+        return CursorPage.of(courses, size, Course::getId);
     }
 
-    public List<Course> getCoursesByCategory(String category) {
-        return courseRepository.findByCategory(category);
+    public CursorPage<Course> getCoursesByLevel(String level, Long afterId, int size) {
+        List<Course> courses = courseRepository.findByLevelAndIdGreaterThanOrderByIdAsc(level, afterId, pageOf(size));
+        return CursorPage.of(courses, size, Course::getId);
     }
 
-    public List<Course> getCoursesByLevel(String level) {
-        return courseRepository.findByLevel(level);
+    public CursorPage<Course> searchCourses(String keyword, Long afterId, int size) {
+        if ("title".equalsIgnoreCase(searchMode)) {
+            List<Course> courses = courseRepository.findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(keyword, afterId, pageOf(size));
+            return CursorPage.of(courses, size, Course::getId);
+        }
+        
+        // Relevance-ranked results: the size is the result limit and there is no next page
+        if ("index".equalsIgnoreCase(searchMode)) {
+            return new CursorPage<>(invertedIndexCourseSearch.getObject().search(keyword, size), null);
+        }
+        return new CursorPage<>(courseSearchRepository.search(keyword, size), null);
     }
 
-    public List<Course> searchCoursesByTitle(String keyword) {
-        return courseRepository.findByTitleContainingIgnoreCase(keyword);
+    public List<CourseSuggestion> suggestCourses(String prefix, int limit) {
+        return courseSuggestionIndex.suggest(prefix, limit);
+    }
+    
+    private Pageable pageOf(int size) {
+        // Always the first page: the keyset predicate does the skipping, one extra row detects a next page
+        return PageRequest.of(0, size + 1);
     }
     
     // Enrollment methods
     
     public List<Enrollment> getUserEnrollments(Long userId) {
-        return enrollmentRepository.findByUserId(userId);
+        return enrollmentProgressBuffer.overlay(enrollmentRepository.findByUserId(userId));
     }
     
     @Transactional
@@ -188,17 +252,128 @@ public class CourseService {
                 .status("ENROLLED")
                 .build();
                 
-        return enrollmentRepository.save(enrollment);
+        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        courseStatsService.recordEnrollment(courseId);
+        publishEnrollmentEvent(userId, courseId, courseRepository.findTitleById(courseId).orElse(null),
+                EnrollmentEvent.EnrollmentStatus.ENROLLED);
+        
+        return savedEnrollment;
     }
     
+    /**
+     * Deletes an enrollment and recomputes the course stats from the remaining enrollments.
+     *
+     * @return false if the user was not enrolled
+     */
     @Transactional
-    public Optional<Enrollment> updateEnrollmentProgress(Long userId, Long courseId, Integer progress) {
+    public boolean unenrollUserFromCourse(Long userId, Long courseId) {
         return enrollmentRepository.findByUserIdAndCourseId(userId, courseId)
                 .map(enrollment -> {
-                    enrollment.setProgress(progress);
-                    enrollment.setLastAccessed(LocalDateTime.now());
-                    return enrollmentRepository.save(enrollment);
-                });
+                    enrollmentProgressBuffer.discard(userId, courseId);
+                    enrollmentRepository.delete(enrollment);
+                    courseStatsService.rebuild(courseId);
+                    publishEnrollmentEvent(userId, courseId, courseRepository.findTitleById(courseId).orElse(null),
+                            EnrollmentEvent.EnrollmentStatus.UNENROLLED);
+                    return true;
+                })
+                .orElse(false);
+    }
+    
+    /**
+     * Enrolls many (user, course) pairs at once. Pairs that are already enrolled, repeated in the
+     * request or point to a missing course are reported per item instead of failing the batch.
+     */
+    @Transactional
+    public BatchEnrollmentResponse enrollUsersInBatch(List<EnrollmentRequest> requests) {
+        if (requests.size() > maxBatchEnrollments) {
+            throw new BatchTooLargeException(requests.size(), maxBatchEnrollments);
+        }
+        
+        Set<Long> courseIds = new HashSet<>();
+        for (EnrollmentRequest request : requests) {
+            if (request != null && request.getCourseId() != null) {
+                courseIds.add(request.getCourseId());
+            }
+        }
+        Map<Long, String> existingCourseTitles = new HashMap<>();
+        if (!courseIds.isEmpty()) {
+            for (CourseTitle course : courseRepository.findTitlesByIds(courseIds)) {
+                existingCourseTitles.put(course.getId(), course.getTitle());
+            }
+        }
+        
+        EnrollmentResult[] results = new EnrollmentResult[requests.size()];
+        List<EnrollmentRequest> toInsert = new ArrayList<>();
+        List<Integer> insertPositions = new ArrayList<>();
+        Set<List<Long>> seen = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            EnrollmentRequest request = requests.get(i);
+            if (request == null || request.getUserId() == null || request.getCourseId() == null) {
+                results[i] = result(request, EnrollmentResult.Status.INVALID);
+            } else if (!existingCourseTitles.containsKey(request.getCourseId())) {
+                results[i] = result(request, EnrollmentResult.Status.COURSE_NOT_FOUND);
+            } else if (!seen.add(List.of(request.getUserId(), request.getCourseId()))) {
+                results[i] = result(request, EnrollmentResult.Status.ALREADY_ENROLLED);
+            } else {
+                toInsert.add(request);
+                insertPositions.add(i);
+            }
+        }
+        
+        boolean[] inserted = toInsert.isEmpty() ? new boolean[0] : enrollmentBatchRepository.insertIgnoringExisting(toInsert);
+        Map<Long, Integer> createdPerCourse = new HashMap<>();
+        for (int i = 0; i < inserted.length; i++) {
+            EnrollmentRequest request = toInsert.get(i);
+            if (inserted[i]) {
+                createdPerCourse.merge(request.getCourseId(), 1, Integer::sum);
+                publishEnrollmentEvent(request.getUserId(), request.getCourseId(),
+                        existingCourseTitles.get(request.getCourseId()), EnrollmentEvent.EnrollmentStatus.ENROLLED);
+            }
+            results[insertPositions.get(i)] = result(request,
+                    inserted[i] ? EnrollmentResult.Status.CREATED : EnrollmentResult.Status.ALREADY_ENROLLED);
+        }
+        createdPerCourse.forEach(courseStatsService::recordEnrollments);
+        
+        int created = 0;
+        int alreadyEnrolled = 0;
+        for (EnrollmentResult result : results) {
+            if (result.getStatus() == EnrollmentResult.Status.CREATED) {
+                created++;
+            } else if (result.getStatus() == EnrollmentResult.Status.ALREADY_ENROLLED) {
+                alreadyEnrolled++;
+            }
+        }
+        log.info("Batch enrollment of {} items: {} created, {} already enrolled", requests.size(), created, alreadyEnrolled);
+        
+        return BatchEnrollmentResponse.builder()
+                .created(created)
+                .alreadyEnrolled(alreadyEnrolled)
+                .failed(requests.size() - created - alreadyEnrolled)
+                .results(List.of(results))
+                .build();
+    }
+    
+    private void publishEnrollmentEvent(Long userId, Long courseId, String courseName, EnrollmentEvent.EnrollmentStatus status) {
+        courseEventProducer.publishEnrollment(EnrollmentEvent.builder()
+                .userId(userId.toString())
+                .courseId(courseId.toString())
+                .courseName(courseName)
+                .status(status)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+    
+    private static EnrollmentResult result(EnrollmentRequest request, EnrollmentResult.Status status) {
+        return EnrollmentResult.builder()
+                .userId(request != null ? request.getUserId() : null)
+                .courseId(request != null ? request.getCourseId() : null)
+                .status(status)
+                .build();
+    }
+    
+    public Optional<Enrollment> updateEnrollmentProgress(Long userId, Long courseId, Integer progress) {
+        // Written behind in batches together with the course stats change
+        return enrollmentProgressBuffer.record(userId, courseId, progress);
     }
     
     // Rating methods
@@ -213,6 +388,7 @@ public class CourseService {
         
         if (existingRating.isPresent()) {
             Rating updateRating = existingRating.get();
+            courseStatsService.recordRatingChange(courseId, updateRating.getRating(), rating);
             updateRating.setRating(rating);
             updateRating.setComment(comment);
             return ratingRepository.save(updateRating);
@@ -225,10 +401,15 @@ public class CourseService {
                 .comment(comment)
                 .build();
                 
-        return ratingRepository.save(newRating);
+        Rating savedRating = ratingRepository.save(newRating);
+        courseStatsService.recordRating(courseId, rating);
+        
+        return savedRating;
     }
     
     public Double getAverageRatingForCourse(Long courseId) {
-        return ratingRepository.getAverageRatingForCourse(courseId);
+        return courseStatsService.getStats(courseId)
+                .map(CourseStats::getAverageRating)
+                .orElse(null);
     }
 } 
\ No newline at end of file
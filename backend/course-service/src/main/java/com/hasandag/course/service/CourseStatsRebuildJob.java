@@ -0,0 +1,26 @@
+package com.hasandag.course.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes course_stats from scratch to repair drift. The job is scheduled on
+ * every replica; {@link CourseStatsService#rebuildAll()} lets only one of them rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "course.stats.rebuild.enabled", havingValue = "true", matchIfMissing = true)
+public class CourseStatsRebuildJob {
+
+    private final CourseStatsService courseStatsService;
+
+    @Scheduled(cron = "${course.stats.rebuild.cron:0 0 3 * * *}")
+    public void rebuild() {
+        log.info("Starting scheduled course stats rebuild");
+        courseStatsService.rebuildAll();
+    }
+}
@@ -0,0 +1,126 @@
+package com.hasandag.course.service;
+
+import com.hasandag.course.model.CourseStats;
+import com.hasandag.course.repository.CourseStatsRepository;
+import com.hasandag.course.repository.EnrollmentRepository;
+import com.hasandag.course.repository.RatingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Maintains the course_stats table. The record* methods join the caller's transaction,
+ * so the stats row is updated atomically with the enrollment or rating it reflects.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseStatsService {
+
+    static final long REBUILD_LOCK_ID = 0x7374617473L; // "stats"
+
+    private final CourseStatsRepository courseStatsRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final RatingRepository ratingRepository;
+
+    public Optional<CourseStats> getStats(Long courseId) {
+        return courseStatsRepository.findById(courseId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initialize(Long courseId) {
+        courseStatsRepository.save(CourseStats.empty(courseId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Long courseId) {
+        courseStatsRepository.deleteById(courseId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEnrollment(Long courseId) {
+        if (courseStatsRepository.incrementEnrollmentCount(courseId) == 0) {
+            rebuild(courseId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEnrollments(Long courseId, int count) {
+        if (count > 0 && courseStatsRepository.addEnrollments(courseId, (long) count) == 0) {
+            rebuild(courseId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRating(Long courseId, Integer rating) {
+        if (courseStatsRepository.addRating(courseId, rating.longValue()) == 0) {
+            rebuild(courseId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRatingChange(Long courseId, Integer oldRating, Integer newRating) {
+        long delta = (long) newRating - oldRating;
+        if (delta != 0 && courseStatsRepository.adjustRatingSum(courseId, delta) == 0) {
+            rebuild(courseId);
+        }
+    }
+
+    /**
+     * Applies the summed progress change of the enrollments of one course.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProgressDelta(Long courseId, double delta) {
+        if (delta != 0 && courseStatsRepository.adjustAverageProgress(courseId, delta) == 0) {
+            rebuild(courseId);
+        }
+    }
+
+    /**
+     * Recomputes the stats row of a single course from the enrollments and ratings tables.
+     * Used when a write finds no stats row to increment. The row is locked before the counts
+     * are read, so concurrent increments wait for the rebuild and are applied on top of it; a
+     * concurrent rebuild of a course that has no row yet fails on the duplicate key instead.
+     */
+    @Transactional
+    public CourseStats rebuild(Long courseId) {
+        CourseStats stats = courseStatsRepository.findByIdForUpdate(courseId)
+                .orElseGet(() -> CourseStats.empty(courseId));
+        Integer enrollmentCount = enrollmentRepository.countByCourseId(courseId);
+        Double avgProgress = enrollmentRepository.getAverageProgressForCourse(courseId);
+        Integer ratingCount = ratingRepository.countByCourseId(courseId);
+        Long ratingSum = ratingRepository.getRatingSumForCourse(courseId);
+
+        stats.setEnrollmentCount(enrollmentCount != null ? enrollmentCount.longValue() : 0L);
+        stats.setRatingSum(ratingSum != null ? ratingSum : 0L);
+        stats.setRatingCount(ratingCount != null ? ratingCount.longValue() : 0L);
+        stats.setAvgProgress(avgProgress != null ? avgProgress : 0.0);
+
+        return courseStatsRepository.save(stats);
+    }
+
+    /**
+     * Recomputes the whole table from scratch to repair any drift from the incremental updates.
+     * Runs on one replica at a time and does nothing if another replica is already rebuilding.
+     * <p>
+     * Every stats row is locked before the counts are read. A statement reads the data as of
+     * its start, so writers that incremented a row before the lock are waited for and counted,
+     * and writers that come later wait for the rebuild and increment its result; computing the
+     * counts first would let the rebuild overwrite increments committed while it waited.
+     */
+    @Transactional
+    public void rebuildAll() {
+        if (!courseStatsRepository.tryLockRebuild(REBUILD_LOCK_ID)) {
+            log.info("Skipping course stats rebuild, another replica is rebuilding");
+            return;
+        }
+        courseStatsRepository.lockAll();
+        int upserted = courseStatsRepository.rebuildAll();
+        int deleted = courseStatsRepository.deleteOrphaned();
+        log.info("Rebuilt course stats: {} rows upserted, {} orphaned rows deleted", upserted, deleted);
+    }
+}
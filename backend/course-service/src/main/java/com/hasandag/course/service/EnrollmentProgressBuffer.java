@@ -0,0 +1,358 @@
+package com.hasandag.course.service;
+
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.course.kafka.CourseEventProducer;
+import com.hasandag.course.model.Enrollment;
+import com.hasandag.course.repository.EnrollmentBatchRepository;
+import com.hasandag.course.repository.EnrollmentBatchRepository.StoredProgress;
+import com.hasandag.course.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for enrollment progress, which the video player reports every few seconds.
+ * <p>
+ * Updates are kept per (user, course) in lock-striped maps, so repeated reports coalesce into the
+ * latest value. Dirty entries are written with one batched UPDATE, together with the summed course
+ * stats change, every flush interval or as soon as flush-size entries are pending, and once more
+ * on shutdown. An enrollment is read from the database only when it is first buffered, and clean
+ * entries stay until they have been idle for the eviction timeout, so active learners cause no
+ * per-report reads. Callers read buffered progress through this class.
+ * <p>
+ * Each replica buffers the reports it receives, so the same enrollment may be buffered on several
+ * replicas. The course stats change is therefore taken from the progress stored just before each
+ * UPDATE rather than from what this replica last wrote, and the last flush wins for the row itself.
+ * <p>
+ * Reaching 100% progress marks the enrollment COMPLETED; the status is written and the
+ * COMPLETED enrollment event is published in the same flush transaction. The event is
+ * published only if the stored row was not COMPLETED yet, so an enrollment deleted before the
+ * flush, or completed by another replica, publishes nothing.
+ */
+@Component
+@Slf4j
+public class EnrollmentProgressBuffer {
+
+    private static final String COMPLETED = "COMPLETED";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final EnrollmentBatchRepository enrollmentBatchRepository;
+    private final CourseStatsService courseStatsService;
+    private final CourseEventProducer courseEventProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final Stripe[] stripes;
+    private final int flushSize;
+    private final long idleEvictionMillis;
+    private final AtomicInteger dirtyCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    public EnrollmentProgressBuffer(
+            EnrollmentRepository enrollmentRepository,
+            EnrollmentBatchRepository enrollmentBatchRepository,
+            CourseStatsService courseStatsService,
+            CourseEventProducer courseEventProducer,
+            PlatformTransactionManager transactionManager,
+            @Value("${course.progress.buffer.stripes:16}") int stripeCount,
+            @Value("${course.progress.buffer.flush-interval:5s}") Duration flushInterval,
+            @Value("${course.progress.buffer.flush-size:2000}") int flushSize,
+            @Value("${course.progress.buffer.idle-eviction:5m}") Duration idleEviction,
+            MeterRegistry meterRegistry) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.enrollmentBatchRepository = enrollmentBatchRepository;
+        this.courseStatsService = courseStatsService;
+        this.courseEventProducer = courseEventProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushSize = flushSize;
+        this.idleEvictionMillis = idleEviction.toMillis();
+
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "enrollment-progress-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("course.progress.buffer.pending", dirtyCount, AtomicInteger::get)
+                .description("Buffered enrollment progress updates not yet written to the database")
+                .register(meterRegistry);
+        log.info("Initialized enrollment progress buffer with {} stripes, flush interval {} and flush size {}",
+                stripeCount, flushInterval, flushSize);
+    }
+
+    /**
+     * Buffers the new progress of an enrollment.
+     *
+     * @return a copy of the enrollment with the buffered progress, or empty if the user is not enrolled
+     */
+    public Optional<Enrollment> record(Long userId, Long courseId, Integer progress) {
+        List<Long> key = List.of(userId, courseId);
+        Stripe stripe = stripeFor(key);
+
+        Enrollment updated = null;
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null) {
+                updated = update(entry, progress);
+            }
+        }
+
+        if (updated == null) {
+            Optional<Enrollment> stored = enrollmentRepository.findByUserIdAndCourseId(userId, courseId);
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            Enrollment snapshot = copyOf(stored.get());
+            synchronized (stripe) {
+                updated = update(stripe.entries.computeIfAbsent(key, k -> new Entry(snapshot)), progress);
+            }
+        }
+
+        if (dirtyCount.get() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            requestFlush();
+        }
+        return Optional.of(updated);
+    }
+
+    public Optional<Integer> getBufferedProgress(Long userId, Long courseId) {
+        List<Long> key = List.of(userId, courseId);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            return entry != null ? Optional.of(entry.snapshot.getProgress()) : Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces enrollments that have buffered progress with up-to-date copies.
+     */
+    public List<Enrollment> overlay(List<Enrollment> enrollments) {
+        List<Enrollment> result = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            List<Long> key = List.of(enrollment.getUserId(), enrollment.getCourseId());
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                Entry entry = stripe.entries.get(key);
+                result.add(entry != null ? copyOf(entry.snapshot) : enrollment);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the buffered state of an enrollment that is being deleted.
+     */
+    public void discard(Long userId, Long courseId) {
+        List<Long> key = List.of(userId, courseId);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.remove(key);
+            if (entry != null) {
+                entry.discarded = true;
+                if (entry.isDirty()) {
+                    dirtyCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all dirty entries in one transaction. Entries that change while the flush runs
+     * stay dirty, and a failed flush leaves every entry dirty for the next attempt.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Pending> pending = collectDirtyEntries();
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<Enrollment> enrollments = new ArrayList<>(pending.size());
+            Map<List<Long>, Enrollment> written = new HashMap<>();
+            for (Pending item : pending) {
+                enrollments.add(item.enrollment);
+                written.put(List.of(item.enrollment.getUserId(), item.enrollment.getCourseId()), item.enrollment);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                List<StoredProgress> previous = enrollmentBatchRepository.updateProgress(enrollments);
+                // Ordered by course id, the order in which the stats rebuild locks the stats rows
+                Map<Long, Double> progressDeltas = new TreeMap<>();
+                List<Enrollment> completed = new ArrayList<>();
+                for (StoredProgress stored : previous) {
+                    Enrollment enrollment = written.get(List.of(stored.getUserId(), stored.getCourseId()));
+                    progressDeltas.merge(stored.getCourseId(),
+                            (double) enrollment.getProgress() - stored.getProgress(), Double::sum);
+                    if (COMPLETED.equals(enrollment.getStatus()) && !COMPLETED.equals(stored.getStatus())) {
+                        completed.add(enrollment);
+                    }
+                }
+                progressDeltas.forEach(courseStatsService::recordProgressDelta);
+                completed.forEach(this::publishCompleted);
+            });
+
+            for (Pending item : pending) {
+                synchronized (item.stripe) {
+                    item.entry.flushedVersion = item.version;
+                    if (!item.entry.isDirty() && !item.entry.discarded) {
+                        dirtyCount.decrementAndGet();
+                    }
+                }
+            }
+            log.debug("Flushed {} buffered enrollment progress updates", pending.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        log.info("Flushing {} buffered enrollment progress updates on shutdown", dirtyCount.get());
+        flush();
+    }
+
+    private void requestFlush() {
+        try {
+            flusher.execute(this::flushQuietly);
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the final flush in shutdown() writes the entry
+            flushRequested.set(false);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush buffered enrollment progress, will retry", e);
+        } finally {
+            flushRequested.set(false);
+        }
+    }
+
+    private List<Pending> collectDirtyEntries() {
+        List<Pending> pending = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Entry> iterator = stripe.entries.values().iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (entry.isDirty()) {
+                        pending.add(new Pending(stripe, entry, entry.version, copyOf(entry.snapshot)));
+                    } else if (now - entry.lastTouchedMillis > idleEvictionMillis) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        return pending;
+    }
+
+    // Must hold the stripe lock
+    private Enrollment update(Entry entry, Integer progress) {
+        if (!entry.isDirty()) {
+            dirtyCount.incrementAndGet();
+        }
+        entry.snapshot.setProgress(progress);
+        if (progress != null && progress >= 100) {
+            entry.snapshot.setStatus(COMPLETED);
+        }
+        entry.snapshot.setLastAccessed(LocalDateTime.now());
+        entry.version++;
+        entry.lastTouchedMillis = System.currentTimeMillis();
+        return copyOf(entry.snapshot);
+    }
+
+    private void publishCompleted(Enrollment enrollment) {
+        courseEventProducer.publishEnrollment(EnrollmentEvent.builder()
+                .userId(enrollment.getUserId().toString())
+                .courseId(enrollment.getCourseId().toString())
+                .status(EnrollmentEvent.EnrollmentStatus.COMPLETED)
+                .timestamp(enrollment.getLastAccessed())
+                .build());
+    }
+
+    private Stripe stripeFor(List<Long> key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    private static Enrollment copyOf(Enrollment enrollment) {
+        return Enrollment.builder()
+                .id(enrollment.getId())
+                .userId(enrollment.getUserId())
+                .courseId(enrollment.getCourseId())
+                .progress(enrollment.getProgress())
+                .status(enrollment.getStatus())
+                .enrollmentDate(enrollment.getEnrollmentDate())
+                .lastAccessed(enrollment.getLastAccessed())
+                .build();
+    }
+
+    private static final class Stripe {
+        private final Map<List<Long>, Entry> entries = new HashMap<>();
+    }
+
+    private static final class Entry {
+        private final Enrollment snapshot; // Detached copy holding the latest progress
+        private boolean discarded;
+        private long version;
+        private long flushedVersion;
+        private long lastTouchedMillis;
+
+        Entry(Enrollment snapshot) {
+            this.snapshot = snapshot;
+            this.lastTouchedMillis = System.currentTimeMillis();
+        }
+
+        boolean isDirty() {
+            return version != flushedVersion;
+        }
+    }
+
+    private static final class Pending {
+        private final Stripe stripe;
+        private final Entry entry;
+        private final long version;
+        private final Enrollment enrollment;
+
+        Pending(Stripe stripe, Entry entry, long version, Enrollment enrollment) {
+            this.stripe = stripe;
+            this.entry = entry;
+            this.version = version;
+            this.enrollment = enrollment;
+        }
+    }
+}
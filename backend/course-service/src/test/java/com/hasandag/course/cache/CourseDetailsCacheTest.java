@@ -0,0 +1,191 @@
+package com.hasandag.course.cache;
+
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.course.dto.CourseDto;
+import com.hasandag.course.kafka.CourseCacheInvalidationConsumer;
+import com.hasandag.course.mapper.CourseMapper;
+import com.hasandag.course.model.Course;
+import com.hasandag.course.model.CourseStats;
+import com.hasandag.course.model.Enrollment;
+import com.hasandag.course.repository.CourseRepository;
+import com.hasandag.course.repository.EnrollmentRepository;
+import com.hasandag.course.service.CourseService;
+import com.hasandag.course.service.CourseStatsService;
+import com.hasandag.course.service.EnrollmentProgressBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseDetailsCacheTest {
+
+    private static final Long COURSE_ID = 10L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CourseDetailsCache courseDetailsCache = new CourseDetailsCache(100, Duration.ofMinutes(5), meterRegistry);
+
+    @Spy
+    private CourseMapper courseMapper = new CourseMapper();
+
+    @InjectMocks
+    private CourseService courseService;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private CourseStatsService courseStatsService;
+
+    @Mock
+    private EnrollmentProgressBuffer enrollmentProgressBuffer;
+
+    private CourseCacheInvalidationConsumer invalidationConsumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        invalidationConsumer = new CourseCacheInvalidationConsumer(courseDetailsCache);
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course("Java")));
+        when(courseStatsService.getStats(COURSE_ID)).thenReturn(Optional.of(stats(3L)));
+    }
+
+    @Test
+    void testGetCourseWithDetails_SecondReadIsHit() {
+        // Act
+        CourseDto first = courseService.getCourseWithDetails(COURSE_ID, null);
+        CourseDto second = courseService.getCourseWithDetails(COURSE_ID, null);
+
+        // Assert
+        assertEquals("Java", first.getTitle());
+        assertEquals("Java", second.getTitle());
+        verify(courseRepository, times(1)).findById(COURSE_ID);
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void testGetCourseWithDetails_HitAddsPerUserProgress() {
+        // Arrange
+        when(enrollmentRepository.findByUserIdAndCourseId(1L, COURSE_ID))
+                .thenReturn(Optional.of(Enrollment.builder().userId(1L).courseId(COURSE_ID).progress(40).build()));
+        courseService.getCourseWithDetails(COURSE_ID, 2L);
+
+        // Act
+        CourseDto dto = courseService.getCourseWithDetails(COURSE_ID, 1L);
+        CourseDto anonymous = courseService.getCourseWithDetails(COURSE_ID, null);
+
+        // Assert: the progress is added to a copy and never reaches the cached instance
+        assertEquals(40, dto.getProgress());
+        assertEquals(0, anonymous.getProgress());
+        verify(courseRepository, times(1)).findById(COURSE_ID);
+    }
+
+    @Test
+    void testGetCourseWithDetails_HitReadsCurrentStats() {
+        // Arrange
+        courseService.getCourseWithDetails(COURSE_ID, null);
+        when(courseStatsService.getStats(COURSE_ID)).thenReturn(Optional.of(stats(4L)));
+
+        // Act
+        CourseDto dto = courseService.getCourseWithDetails(COURSE_ID, null);
+
+        // Assert
+        assertEquals(4, dto.getEnrollmentCount());
+        verify(courseRepository, times(1)).findById(COURSE_ID);
+    }
+
+    @Test
+    void testUpdatedEvent_EvictsCourse() {
+        // Arrange
+        courseService.getCourseWithDetails(COURSE_ID, null);
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course("Java 21")));
+
+        // Act
+        invalidationConsumer.consumeCourseEvent(event(CourseEvent.EventType.UPDATED));
+        CourseDto dto = courseService.getCourseWithDetails(COURSE_ID, null);
+
+        // Assert
+        assertEquals("Java 21", dto.getTitle());
+        verify(courseRepository, times(2)).findById(COURSE_ID);
+    }
+
+    @Test
+    void testDeletedEvent_EvictsCourse() {
+        // Arrange
+        courseService.getCourseWithDetails(COURSE_ID, null);
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.empty());
+
+        // Act
+        invalidationConsumer.consumeCourseEvent(event(CourseEvent.EventType.DELETED));
+
+        // Assert
+        assertNull(courseService.getCourseWithDetails(COURSE_ID, null));
+    }
+
+    @Test
+    void testCreatedEvent_KeepsCachedCourse() {
+        // Arrange
+        courseService.getCourseWithDetails(COURSE_ID, null);
+
+        // Act
+        invalidationConsumer.consumeCourseEvent(event(CourseEvent.EventType.CREATED));
+        courseService.getCourseWithDetails(COURSE_ID, null);
+
+        // Assert
+        verify(courseRepository, times(1)).findById(COURSE_ID);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "courseDetails").tag("result", result).functionCounter().count();
+    }
+
+    private static Course course(String title) {
+        return Course.builder()
+                .id(COURSE_ID)
+                .title(title)
+                .description("Description")
+                .category("Programming")
+                .level("Beginner")
+                .price(BigDecimal.TEN)
+                .instructorId(1L)
+                .build();
+    }
+
+    private static CourseStats stats(long enrollments) {
+        return CourseStats.builder()
+                .courseId(COURSE_ID)
+                .enrollmentCount(enrollments)
+                .ratingSum(8L)
+                .ratingCount(2L)
+                .avgProgress(0.0)
+                .build();
+    }
+
+    private static CourseEvent event(CourseEvent.EventType type) {
+        return CourseEvent.builder()
+                .courseId(COURSE_ID.toString())
+                .title("Java")
+                .instructorId("1")
+                .eventType(type)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
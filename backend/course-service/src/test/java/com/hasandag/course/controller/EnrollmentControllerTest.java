@@ -0,0 +1,94 @@
+package com.hasandag.course.controller;
+
+import com.hasandag.course.config.SecurityConfig;
+import com.hasandag.course.dto.BatchEnrollmentResponse;
+import com.hasandag.course.exception.BatchTooLargeException;
+import com.hasandag.course.service.CourseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EnrollmentController.class)
+@Import(SecurityConfig.class)
+class EnrollmentControllerTest {
+
+    private static final String BATCH = "{\"enrollments\":[{\"userId\":1,\"courseId\":10},{\"userId\":2,\"courseId\":10}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CourseService courseService;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void testEnrollInBatch_ForbiddenForStudent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_STUDENT")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(courseService);
+    }
+
+    @Test
+    void testEnrollInBatch_UnauthorizedWithoutToken() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(courseService);
+    }
+
+    @Test
+    void testEnrollInBatch_AllowedForInstructor() throws Exception {
+        // Arrange
+        when(courseService.enrollUsersInBatch(anyList())).thenReturn(BatchEnrollmentResponse.builder()
+                .created(2)
+                .results(List.of())
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_INSTRUCTOR")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+    }
+
+    @Test
+    void testEnrollInBatch_BadRequestForOversizedBatch() throws Exception {
+        // Arrange
+        when(courseService.enrollUsersInBatch(anyList())).thenThrow(new BatchTooLargeException(2, 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Batch size 2 exceeds the maximum of 1"));
+    }
+}
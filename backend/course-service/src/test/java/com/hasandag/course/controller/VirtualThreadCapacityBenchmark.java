@@ -0,0 +1,167 @@
+package com.hasandag.course.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures how many concurrent blocking requests the servlet stack of course-service serves on
+ * platform threads and with VIRTUAL_THREADS_ENABLED=true (spring.threads.virtual.enabled). The
+ * endpoint blocks its request thread for a database-like latency, as the course-service
+ * endpoints do on JDBC, so on platform threads the Tomcat pool bounds how many requests wait at
+ * once. Only the web layer and the common-lib thread configuration are started; the database,
+ * Kafka and security are left out so the threading mode is the only difference between the runs.
+ * Prints throughput, latency percentiles and the peak number of platform threads for each mode.
+ * Run with the main method from the test classpath on Java 21; it is not part of the unit test
+ * suite.
+ */
+public class VirtualThreadCapacityBenchmark {
+
+    private static final int CONCURRENT_REQUESTS = 2000;
+    private static final Duration BLOCKING_LATENCY = Duration.ofMillis(200);
+    private static final String EXCLUDED_AUTO_CONFIGURATIONS = String.join(",",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration",
+            "org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+            "com.hasandag.common.config.KafkaConfig",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration");
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%n%d concurrent requests, blocking latency %d ms%n",
+                CONCURRENT_REQUESTS, BLOCKING_LATENCY.toMillis());
+        System.out.printf("%-16s %10s %10s %10s %10s %14s %8s%n",
+                "threads", "req/s", "p50 ms", "p99 ms", "total ms", "peak platform", "errors");
+        run(false).print("platform");
+        run(true).print("virtual");
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.autoconfigure.exclude=" + EXCLUDED_AUTO_CONFIGURATIONS,
+                        "course.benchmark.latency-ms=" + BLOCKING_LATENCY.toMillis(),
+                        "logging.level.root=WARN")
+                .run();
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .build();
+
+            // Warm up the connection handling and JIT with a handful of requests
+            for (int i = 0; i < 5; i++) {
+                client.send(request(port, i), HttpResponse.BodyHandlers.discarding());
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            List<CompletableFuture<Long>> latencies = new ArrayList<>(CONCURRENT_REQUESTS);
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                long sent = System.nanoTime();
+                latencies.add(client.sendAsync(request(port, i), HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> response.statusCode() == 200 ? System.nanoTime() - sent : -1L)
+                        .exceptionally(e -> -1L));
+            }
+            CompletableFuture.allOf(latencies.toArray(new CompletableFuture[0])).join();
+            long elapsed = System.nanoTime() - start;
+
+            long[] millis = latencies.stream()
+                    .mapToLong(CompletableFuture::join)
+                    .filter(nanos -> nanos >= 0)
+                    .map(nanos -> nanos / 1_000_000)
+                    .sorted()
+                    .toArray();
+            return new Result(millis, CONCURRENT_REQUESTS - millis.length, elapsed / 1_000_000, threads.getPeakThreadCount());
+        }
+    }
+
+    private static HttpRequest request(int port, int courseId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/courses/" + courseId))
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @Import(BlockingCourseController.class)
+    static class BenchmarkApplication {
+    }
+
+    /**
+     * Stands in for a course lookup that waits on the database while holding its request thread.
+     */
+    @RestController
+    static class BlockingCourseController {
+
+        private final long latencyMillis;
+
+        BlockingCourseController(@Value("${course.benchmark.latency-ms}") long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @GetMapping("/api/courses/{id}")
+        public Map<String, Object> getCourse(@PathVariable Long id) throws InterruptedException {
+            Thread.sleep(latencyMillis);
+            return Map.of("id", id, "title", "Course " + id);
+        }
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final int errors;
+        private final long totalMillis;
+        private final int peakPlatformThreads;
+
+        Result(long[] sortedLatencies, int errors, long totalMillis, int peakPlatformThreads) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.totalMillis = totalMillis;
+            this.peakPlatformThreads = peakPlatformThreads;
+        }
+
+        void print(String mode) {
+            System.out.printf("%-16s %10.1f %10d %10d %10d %14d %8d%n", mode,
+                    sortedLatencies.length * 1000.0 / totalMillis,
+                    percentile(0.50), percentile(0.99), totalMillis, peakPlatformThreads, errors);
+        }
+
+        private long percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, index))];
+        }
+    }
+}
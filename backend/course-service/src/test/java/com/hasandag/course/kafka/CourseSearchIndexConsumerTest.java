@@ -0,0 +1,69 @@
+package com.hasandag.course.kafka;
+
+import com.hasandag.course.search.InvertedIndexCourseSearch;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseSearchIndexConsumerTest {
+
+    private static final Instant SNAPSHOT_TIME = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Mock
+    private InvertedIndexCourseSearch invertedIndexCourseSearch;
+
+    @Mock
+    private ConsumerSeekCallback callback;
+
+    @InjectMocks
+    private CourseSearchIndexConsumer courseSearchIndexConsumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(invertedIndexCourseSearch.build()).thenReturn(SNAPSHOT_TIME);
+    }
+
+    @Test
+    void testOnPartitionsAssigned_BuildsThenSeeksBeforeSnapshot() {
+        // Arrange
+        Map<TopicPartition, Long> assignments = Map.of(
+                new TopicPartition("course-events", 0), 0L,
+                new TopicPartition("course-events", 1), 0L);
+
+        // Act
+        courseSearchIndexConsumer.onPartitionsAssigned(assignments, callback);
+
+        // Assert: the replay covers the clock difference with the publisher as well
+        InOrder inOrder = inOrder(invertedIndexCourseSearch, callback);
+        inOrder.verify(invertedIndexCourseSearch).build();
+        inOrder.verify(callback).seekToTimestamp(assignments.keySet(),
+                SNAPSHOT_TIME.minus(Duration.ofMinutes(1)).toEpochMilli());
+    }
+
+    @Test
+    void testOnPartitionsAssigned_NothingAssignedBuildsNothing() {
+        // Act
+        courseSearchIndexConsumer.onPartitionsAssigned(Map.of(), callback);
+
+        // Assert
+        verify(invertedIndexCourseSearch, never()).build();
+        verify(callback, never()).seekToTimestamp(anyCollection(), anyLong());
+    }
+}
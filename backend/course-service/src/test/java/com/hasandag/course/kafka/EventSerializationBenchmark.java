@@ -0,0 +1,104 @@
+package com.hasandag.course.kafka;
+
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.common.event.EventDeserializer;
+import com.hasandag.common.event.EventSerializer;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary event encoding with the previous JsonSerializer/JsonDeserializer path
+ * for a typical CourseEvent. Message sizes, including the JSON type header, are printed once
+ * per trial. Run with the main method from the test classpath; it is not part of the unit
+ * test suite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "course-events";
+
+    private CourseEvent event;
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<CourseEvent> jsonDeserializer;
+    private EventSerializer binarySerializer;
+    private EventDeserializer binaryDeserializer;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        event = CourseEvent.builder()
+                .courseId("128734")
+                .title("Spring Boot Microservices with Kafka and React")
+                .instructorId("4821")
+                .eventType(CourseEvent.EventType.UPDATED)
+                .timestamp(LocalDateTime.of(2024, 3, 14, 15, 9, 26))
+                .build();
+
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>(CourseEvent.class, false);
+        binarySerializer = new EventSerializer();
+        binaryDeserializer = new EventDeserializer();
+
+        RecordHeaders headers = new RecordHeaders();
+        json = jsonSerializer.serialize(TOPIC, headers, event);
+        binary = binarySerializer.serialize(TOPIC, event);
+
+        int headerBytes = 0;
+        for (Header header : headers) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        System.out.printf("%nbytes/event: json=%d (+%d type header), binary=%d%n", json.length, headerBytes, binary.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binary);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventSerializationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,151 @@
+package com.hasandag.course.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hasandag.common.event.CourseEvent;
+import com.hasandag.course.model.OutboxEvent;
+import com.hasandag.course.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private OutboxRelay relay;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private OutboxRelayLock relayLock;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        relay = new OutboxRelay(outboxEventRepository, relayLock, kafkaTemplate, objectMapper, 100, 500, Duration.ofSeconds(1));
+        when(relayLock.tryAcquire()).thenReturn(true);
+    }
+
+    @Test
+    void testRelayBatch_SkipsWhileAnotherReplicaRelays() {
+        // Arrange
+        when(relayLock.tryAcquire()).thenReturn(false);
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(0, relayed);
+        verify(outboxEventRepository, never()).findNextBatch(anyInt());
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testRelayBatch_PublishesAndDeletesEvents() throws Exception {
+        // Arrange
+        CourseEvent event = CourseEvent.builder()
+                .courseId("7")
+                .title("Spring Boot")
+                .eventType(CourseEvent.EventType.UPDATED)
+                .timestamp(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+        when(outboxEventRepository.findNextBatch(100)).thenReturn(List.of(outboxEvent(1L, event), outboxEvent(2L, event)));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(2, relayed);
+        verify(kafkaTemplate, times(2)).send("course-events", "7", event);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void testRelayBatch_KeepsEventsWhenSendFails() throws Exception {
+        // Arrange
+        CourseEvent event = CourseEvent.builder().courseId("7").eventType(CourseEvent.EventType.CREATED).build();
+        when(outboxEventRepository.findNextBatch(100)).thenReturn(List.of(outboxEvent(1L, event)));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> relay.relayBatch());
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    void testRelayBatch_PublishesTombstonesWithNullValue() throws Exception {
+        // Arrange
+        OutboxEvent tombstone = OutboxEvent.builder()
+                .id(4L)
+                .topic("course-state")
+                .messageKey("7")
+                .payloadType(OutboxEvent.TOMBSTONE_TYPE)
+                .payload("")
+                .build();
+        when(outboxEventRepository.findNextBatch(100)).thenReturn(List.of(tombstone));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(1, relayed);
+        verify(kafkaTemplate).send("course-state", "7", null);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(4L));
+    }
+
+    @Test
+    void testRelayBatch_DropsUnreadableEvents() {
+        // Arrange
+        OutboxEvent unreadable = OutboxEvent.builder()
+                .id(3L)
+                .topic("course-events")
+                .messageKey("7")
+                .payloadType("com.hasandag.course.kafka.MissingEvent")
+                .payload("{}")
+                .build();
+        when(outboxEventRepository.findNextBatch(100)).thenReturn(List.of(unreadable));
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(1, relayed);
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    private OutboxEvent outboxEvent(Long id, CourseEvent event) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("course-events")
+                .messageKey(event.getCourseId())
+                .payloadType(CourseEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hasandag.course.repository;
+
+import com.hasandag.course.model.Course;
+import com.hasandag.course.search.CourseTokenizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the H2 fallback path of the full-text search; the tsvector path needs PostgreSQL.
+ */
+@DataJpaTest
+@Import(CourseSearchRepository.class)
+@TestPropertySource(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class CourseSearchRepositoryTest {
+
+    @Autowired
+    private CourseSearchRepository courseSearchRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        persistCourse("Data Science Basics", "Statistics and data analysis with Python programs", "Data Science");
+        persistCourse("Introduction to Programming", "Learn the basics of coding", "Programming");
+        persistCourse("Web Development Fundamentals", "HTML, CSS and JavaScript", "Programming");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testSearch_MatchesTitleCategoryAndDescriptionByPrefix() {
+        // Act
+        List<Course> courses = courseSearchRepository.search("program", 10);
+
+        // Assert
+        assertEquals(3, courses.size());
+        assertEquals("Introduction to Programming", courses.get(0).getTitle());
+    }
+
+    @Test
+    void testSearch_RequiresAllTermsAndAppliesLimit() {
+        // Act
+        List<Course> allTerms = courseSearchRepository.search("web java", 10);
+        List<Course> limited = courseSearchRepository.search("program", 1);
+
+        // Assert
+        assertEquals(1, allTerms.size());
+        assertEquals("Web Development Fundamentals", allTerms.get(0).getTitle());
+        assertEquals(1, limited.size());
+    }
+
+    @Test
+    void testSearch_BlankKeywordReturnsNothing() {
+        assertTrue(courseSearchRepository.search("  !? ", 10).isEmpty());
+    }
+
+    @Test
+    void testToPrefixTsQuery_StripsOperators() {
+        // Act
+        String tsQuery = CourseSearchRepository.toPrefixTsQuery(CourseTokenizer.tokenize("Spring & Boot:* | !intro"));
+
+        // Assert
+        assertEquals("spring:* & boot:* & intro:*", tsQuery);
+    }
+
+    private void persistCourse(String title, String description, String category) {
+        entityManager.persist(Course.builder()
+                .title(title)
+                .description(description)
+                .category(category)
+                .level("Beginner")
+                .price(BigDecimal.TEN)
+                .instructorId(1L)
+                .build());
+    }
+}
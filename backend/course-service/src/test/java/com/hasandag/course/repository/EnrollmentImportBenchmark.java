@@ -0,0 +1,167 @@
+package com.hasandag.course.repository;
+
+import com.hasandag.course.model.Enrollment;
+import com.hasandag.course.model.Rating;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Write throughput of bulk enrollment and rating imports through Hibernate, comparing the
+ * sequence/pooled-lo ids of the real entities with IDENTITY-keyed copies of the same tables.
+ * Scores are rows per second. An in-memory H2 database has no network round trips, so the gap
+ * against a remote PostgreSQL (where every IDENTITY insert is one round trip) is larger than
+ * measured here. Run with the main method from the test classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EnrollmentImportBenchmark {
+
+    private static final int ROWS = 2000;
+    private static final int FLUSH_INTERVAL = 50;
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private long nextUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySettings(Map.of(
+                        "hibernate.connection.url", "jdbc:h2:mem:enrollment-import-benchmark;DB_CLOSE_DELAY=-1",
+                        "hibernate.hbm2ddl.auto", "create-drop",
+                        "hibernate.id.optimizer.pooled.preferred", "pooled-lo",
+                        "hibernate.jdbc.batch_size", String.valueOf(FLUSH_INTERVAL),
+                        "hibernate.order_inserts", "true",
+                        "hibernate.order_updates", "true"))
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Enrollment.class)
+                .addAnnotatedClass(Rating.class)
+                .addAnnotatedClass(IdentityEnrollment.class)
+                .addAnnotatedClass(IdentityRating.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void sequenceIds() {
+        importRows(
+                userId -> Enrollment.builder().userId(userId).courseId(userId % 100).progress(0).status("ENROLLED").build(),
+                userId -> Rating.builder().userId(userId).courseId(userId % 100).rating((int) (userId % 5) + 1).build());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identityIds() {
+        importRows(
+                userId -> new IdentityEnrollment(userId, userId % 100),
+                userId -> new IdentityRating(userId, userId % 100, (int) (userId % 5) + 1));
+    }
+
+    private void importRows(LongFunction<Object> enrollment, LongFunction<Object> rating) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < ROWS / 2; i++) {
+                long userId = nextUserId++;
+                session.persist(enrollment.apply(userId));
+                session.persist(rating.apply(userId));
+                if ((i + 1) % FLUSH_INTERVAL == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EnrollmentImportBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    /**
+     * The enrollments table as it was mapped before sequence ids.
+     */
+    @Entity
+    @Table(name = "identity_enrollments")
+    public static class IdentityEnrollment {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private Long userId;
+        private Long courseId;
+        private Integer progress = 0;
+        private String status = "ENROLLED";
+
+        protected IdentityEnrollment() {
+        }
+
+        IdentityEnrollment(Long userId, Long courseId) {
+            this.userId = userId;
+            this.courseId = courseId;
+        }
+    }
+
+    /**
+     * The ratings table as it was mapped before sequence ids.
+     */
+    @Entity
+    @Table(name = "identity_ratings")
+    public static class IdentityRating {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private Long userId;
+        private Long courseId;
+        private Integer rating;
+
+        protected IdentityRating() {
+        }
+
+        IdentityRating(Long userId, Long courseId, Integer rating) {
+            this.userId = userId;
+            this.courseId = courseId;
+            this.rating = rating;
+        }
+    }
+}
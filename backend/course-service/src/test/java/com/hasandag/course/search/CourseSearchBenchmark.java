@@ -0,0 +1,152 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.model.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory inverted index with the LIKE scan that the JPA search issues,
+ * executed against an in-memory H2 database holding the same catalog.
+ * Run with the main method from the test classpath; it is not part of the unit test suite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CourseSearchBenchmark {
+
+    private static final String[] VOCABULARY = {
+            "java", "spring", "boot", "kafka", "react", "python", "data", "science", "machine", "learning",
+            "web", "development", "cloud", "docker", "kubernetes", "security", "design", "patterns", "testing", "sql"
+    };
+    private static final String[] CATEGORIES = {"Programming", "Data Science", "Web Development", "DevOps", "Design"};
+    private static final int LIMIT = 20;
+
+    @Param({"10000", "100000"})
+    private int courseCount;
+
+    @Param({"java", "data scie"})
+    private String keyword;
+
+    private CourseSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likeQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (long id = 1; id <= courseCount; id++) {
+            courses.add(Course.builder()
+                    .id(id)
+                    .title(words(random, 4) + " " + id)
+                    .description(words(random, 30))
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .build());
+        }
+
+        index = new CourseSearchIndex();
+        index.rebuild(courses);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:course-search-benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS courses");
+            statement.execute("CREATE TABLE courses (id BIGINT PRIMARY KEY, title VARCHAR(255), description TEXT, category VARCHAR(100))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO courses VALUES (?, ?, ?, ?)")) {
+            for (Course course : courses) {
+                insert.setLong(1, course.getId());
+                insert.setString(2, course.getTitle());
+                insert.setString(3, course.getDescription());
+                insert.setString(4, course.getCategory());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        List<String> terms = CourseTokenizer.tokenize(keyword);
+        StringBuilder sql = new StringBuilder("SELECT id, title, description, category FROM courses WHERE ");
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) {
+                sql.append(" AND ");
+            }
+            sql.append("(LOWER(title) LIKE ? OR LOWER(category) LIKE ? OR LOWER(description) LIKE ?)");
+        }
+        sql.append(" ORDER BY id LIMIT ").append(LIMIT);
+
+        likeQuery = connection.prepareStatement(sql.toString());
+        int parameter = 1;
+        for (String term : terms) {
+            for (int column = 0; column < 3; column++) {
+                likeQuery.setString(parameter++, "%" + term + "%");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeQuery.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Course> invertedIndex() {
+        return index.search(keyword, LIMIT);
+    }
+
+    @Benchmark
+    public int databaseLikeScan() throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CourseSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
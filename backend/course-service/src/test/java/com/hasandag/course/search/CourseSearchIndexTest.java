@@ -0,0 +1,100 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.model.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchIndexTest {
+
+    private CourseSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseSearchIndex();
+        index.rebuild(List.of(
+                course(1L, "Data Science Basics", "Statistics with Python programs", "Data Science"),
+                course(2L, "Introduction to Programming", "Learn the basics of coding", "Programming"),
+                course(3L, "Web Development Fundamentals", "HTML, CSS and JavaScript", "Programming")));
+    }
+
+    @Test
+    void testSearch_RanksWeightedTitleMatchesFirst() {
+        // Act
+        List<Long> ids = ids(index.search("programming", 10));
+
+        // Assert
+        assertEquals(List.of(2L, 3L), ids);
+    }
+
+    @Test
+    void testSearch_MatchesTermsByPrefix() {
+        // Act
+        List<Long> ids = ids(index.search("progr", 10));
+
+        // Assert
+        assertEquals(3, ids.size());
+        assertTrue(ids.containsAll(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void testSearch_RequiresAllTermsAndAppliesLimit() {
+        // Act & Assert
+        assertEquals(List.of(3L), ids(index.search("web java", 10)));
+        assertEquals(1, index.search("progr", 1).size());
+        assertTrue(index.search("kotlin", 10).isEmpty());
+        assertTrue(index.search(" ?! ", 10).isEmpty());
+    }
+
+    @Test
+    void testUpsertAndRemove_UpdateSearchResults() {
+        // Act
+        index.upsert(course(3L, "Kotlin for Web", "Server-side Kotlin", "Programming"));
+        index.upsert(course(4L, "Advanced Kotlin", "Coroutines", "Programming"));
+        index.remove(1L);
+
+        // Assert
+        assertEquals(3, index.size());
+        assertEquals(List.of(4L, 3L), ids(index.search("kotlin", 10)));
+        assertTrue(index.search("javascript", 10).isEmpty());
+        assertTrue(index.search("statistics", 10).isEmpty());
+    }
+
+    @Test
+    void testCompaction_KeepsResultsConsistent() {
+        // Arrange
+        List<Course> courses = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            courses.add(course(id, "Course " + id, "Generic description", id % 2 == 0 ? "Even" : "Odd"));
+        }
+        index.rebuild(courses);
+
+        // Act: enough deletes to trigger compaction
+        for (long id = 1; id <= 150; id++) {
+            index.remove(id);
+        }
+
+        // Assert
+        assertEquals(50, index.size());
+        assertEquals(25, index.search("even", 100).size());
+        assertEquals(List.of(151L), ids(index.search("course 151", 10)));
+    }
+
+    private static List<Long> ids(List<Course> courses) {
+        return courses.stream().map(Course::getId).collect(Collectors.toList());
+    }
+
+    private static Course course(Long id, String title, String description, String category) {
+        return Course.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .category(category)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.dto.CourseSummary;
+import com.hasandag.course.model.CourseStats;
+import com.hasandag.course.repository.CourseRepository;
+import com.hasandag.course.repository.CourseStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseSuggestionIndexTest {
+
+    private static final LocalDateTime BUILT_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private CourseStatsRepository courseStatsRepository;
+
+    private CourseSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Built before stubbing the repository, stubbing them inside thenReturn would nest stubbings
+        List<CourseSummary> courses = List.of(summary(1L, "Spring Boot Basics", 10L), summary(2L, "Spring Security", 5L));
+        when(courseRepository.findSummariesAfter(anyLong(), any())).thenReturn(courses);
+        when(courseStatsRepository.findLatestUpdate()).thenReturn(Optional.of(BUILT_AT));
+        index = new CourseSuggestionIndex(courseRepository, courseStatsRepository, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testRefreshEnrollmentCounts_ReadsOnlyChangedRows() {
+        // Arrange
+        index.build();
+        when(courseStatsRepository.findUpdatedAfter(BUILT_AT.minusMinutes(1)))
+                .thenReturn(List.of(stats(2L, 50L, BUILT_AT.plusSeconds(20))));
+
+        // Act
+        index.refreshEnrollmentCounts();
+
+        // Assert
+        verify(courseStatsRepository, never()).findAll();
+        assertEquals("Spring Security", index.suggest("spring", 10).get(0).getText());
+        assertEquals(50L, index.suggest("spring", 10).get(0).getEnrollmentCount());
+    }
+
+    @Test
+    void testRefreshEnrollmentCounts_ContinuesFromNewestChange() {
+        // Arrange
+        index.build();
+        when(courseStatsRepository.findUpdatedAfter(any())).thenReturn(List.of(stats(2L, 50L, BUILT_AT.plusSeconds(20))));
+        index.refreshEnrollmentCounts();
+
+        // Act
+        index.refreshEnrollmentCounts();
+
+        // Assert
+        verify(courseStatsRepository).findUpdatedAfter(BUILT_AT.plusSeconds(20).minusMinutes(1));
+    }
+
+    @Test
+    void testRefreshEnrollmentCounts_SkippedBeforeBuild() {
+        // Act
+        index.refreshEnrollmentCounts();
+
+        // Assert
+        verify(courseStatsRepository, never()).findUpdatedAfter(any());
+    }
+
+    private static CourseSummary summary(Long id, String title, Long enrollmentCount) {
+        CourseSummary summary = mock(CourseSummary.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getTitle()).thenReturn(title);
+        when(summary.getCategory()).thenReturn("Programming");
+        when(summary.getEnrollmentCount()).thenReturn(enrollmentCount);
+        return summary;
+    }
+
+    private static CourseStats stats(Long courseId, Long enrollmentCount, LocalDateTime updatedAt) {
+        return CourseStats.builder()
+                .courseId(courseId)
+                .enrollmentCount(enrollmentCount)
+                .ratingSum(0L)
+                .ratingCount(0L)
+                .avgProgress(0.0)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
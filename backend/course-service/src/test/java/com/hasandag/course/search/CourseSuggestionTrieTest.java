@@ -0,0 +1,87 @@
+package com.hasandag.course.search;
+
+import com.hasandag.course.dto.CourseSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSuggestionTrieTest {
+
+    private CourseSuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new CourseSuggestionTrie(100);
+        trie.upsertCourse(1L, "Spring Boot Basics", "Programming", 10);
+        trie.upsertCourse(2L, "Spring Security", "Security", 50);
+        trie.upsertCourse(3L, "Python for Data Science", "Data Science", 30);
+        trie.upsertCourse(4L, "Sprint Planning", "Management", 5);
+    }
+
+    @Test
+    void testSuggest_OrdersByEnrollmentCount() {
+        // Act
+        List<String> texts = texts(trie.suggest("spr", 10));
+
+        // Assert
+        assertEquals(List.of("Spring Security", "Spring Boot Basics", "Sprint Planning"), texts);
+        assertEquals(List.of("Spring Security", "Spring Boot Basics"), texts(trie.suggest("SPRING ", 10)));
+    }
+
+    @Test
+    void testSuggest_MatchesLaterTitleWordsAndCategories() {
+        // Act
+        List<CourseSuggestion> suggestions = trie.suggest("data", 10);
+
+        // Assert
+        assertEquals(List.of("Data Science", "Python for Data Science"), texts(suggestions));
+        assertEquals(CourseSuggestion.Type.CATEGORY, suggestions.get(0).getType());
+        assertNull(suggestions.get(0).getCourseId());
+        assertEquals(3L, suggestions.get(1).getCourseId());
+        assertEquals(List.of("Security", "Spring Security"), texts(trie.suggest("secu", 10)));
+    }
+
+    @Test
+    void testSuggest_HandlesUnknownAndBlankPrefixes() {
+        // Act & Assert
+        assertTrue(trie.suggest("kotlin", 10).isEmpty());
+        assertTrue(trie.suggest("springs", 10).isEmpty());
+        assertTrue(trie.suggest(" ", 10).isEmpty());
+        assertEquals(1, trie.suggest("spr", 1).size());
+    }
+
+    @Test
+    void testUpdates_ReorderAndRemoveSuggestions() {
+        // Act
+        trie.updateEnrollmentCounts(Map.of(4L, 100L, 99L, 7L));
+        trie.upsertCourse(1L, "Spring Boot Advanced", "Programming", 10);
+        trie.removeCourse(2L);
+
+        // Assert
+        assertEquals(List.of("Sprint Planning", "Spring Boot Advanced"), texts(trie.suggest("spr", 10)));
+        assertTrue(trie.suggest("basics", 10).isEmpty());
+        assertTrue(trie.suggest("security", 10).isEmpty());
+        assertEquals(6, trie.entryCount());
+    }
+
+    @Test
+    void testUpsert_RejectsCoursesWhenFull() {
+        // Arrange
+        CourseSuggestionTrie small = new CourseSuggestionTrie(2);
+
+        // Act & Assert
+        assertTrue(small.upsertCourse(1L, "Java", "Programming", 1));
+        assertFalse(small.upsertCourse(2L, "Kotlin", "Programming", 1));
+        assertTrue(small.suggest("kot", 10).isEmpty());
+        assertTrue(small.estimatedSizeBytes() > 0);
+    }
+
+    private static List<String> texts(List<CourseSuggestion> suggestions) {
+        return suggestions.stream().map(CourseSuggestion::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,142 @@
+package com.hasandag.course.service;
+
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.course.dto.BatchEnrollmentResponse;
+import com.hasandag.course.dto.CourseTitle;
+import com.hasandag.course.dto.EnrollmentRequest;
+import com.hasandag.course.dto.EnrollmentResult;
+import com.hasandag.course.exception.BatchTooLargeException;
+import com.hasandag.course.kafka.CourseEventProducer;
+import com.hasandag.course.repository.CourseRepository;
+import com.hasandag.course.repository.EnrollmentBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CourseServiceBatchEnrollmentTest {
+
+    @InjectMocks
+    private CourseService courseService;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentBatchRepository enrollmentBatchRepository;
+
+    @Mock
+    private CourseStatsService courseStatsService;
+
+    @Mock
+    private CourseEventProducer courseEventProducer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(courseService, "maxBatchEnrollments", 5);
+    }
+
+    @Test
+    void testEnrollUsersInBatch_ReportsPerItemResults() {
+        // Arrange
+        when(courseRepository.findTitlesByIds(any())).thenReturn(List.of(title(10L, "Java"), title(20L, "Kafka")));
+        when(enrollmentBatchRepository.insertIgnoringExisting(anyList())).thenReturn(new boolean[]{true, false, true});
+        List<EnrollmentRequest> requests = List.of(
+                request(1L, 10L),
+                request(2L, 10L),
+                request(1L, 99L),
+                request(1L, 10L),
+                request(3L, 20L));
+
+        // Act
+        BatchEnrollmentResponse response = courseService.enrollUsersInBatch(requests);
+
+        // Assert
+        assertEquals(List.of(
+                EnrollmentResult.Status.CREATED,
+                EnrollmentResult.Status.ALREADY_ENROLLED,
+                EnrollmentResult.Status.COURSE_NOT_FOUND,
+                EnrollmentResult.Status.ALREADY_ENROLLED,
+                EnrollmentResult.Status.CREATED), statuses(response));
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getAlreadyEnrolled());
+        assertEquals(1, response.getFailed());
+        verify(enrollmentBatchRepository).insertIgnoringExisting(List.of(request(1L, 10L), request(2L, 10L), request(3L, 20L)));
+        verify(courseStatsService).recordEnrollments(10L, 1);
+        verify(courseStatsService).recordEnrollments(20L, 1);
+
+        ArgumentCaptor<EnrollmentEvent> events = ArgumentCaptor.forClass(EnrollmentEvent.class);
+        verify(courseEventProducer, times(2)).publishEnrollment(events.capture());
+        assertEquals(List.of("1:10:Java", "3:20:Kafka"), events.getAllValues().stream()
+                .map(e -> e.getUserId() + ":" + e.getCourseId() + ":" + e.getCourseName())
+                .collect(Collectors.toList()));
+        assertTrue(events.getAllValues().stream().allMatch(e -> e.getStatus() == EnrollmentEvent.EnrollmentStatus.ENROLLED));
+    }
+
+    @Test
+    void testEnrollUsersInBatch_SkipsInsertWhenNothingIsValid() {
+        // Arrange
+        when(courseRepository.findTitlesByIds(any())).thenReturn(Collections.emptyList());
+
+        // Act
+        BatchEnrollmentResponse response = courseService.enrollUsersInBatch(List.of(request(1L, 99L), request(null, 10L)));
+
+        // Assert
+        assertEquals(List.of(EnrollmentResult.Status.COURSE_NOT_FOUND, EnrollmentResult.Status.INVALID), statuses(response));
+        assertEquals(2, response.getFailed());
+        verifyNoInteractions(enrollmentBatchRepository);
+        verify(courseStatsService, never()).recordEnrollments(anyLong(), anyInt());
+        verifyNoInteractions(courseEventProducer);
+    }
+
+    @Test
+    void testEnrollUsersInBatch_RejectsOversizedBatch() {
+        // Arrange
+        List<EnrollmentRequest> requests = Collections.nCopies(6, request(1L, 10L));
+
+        // Act & Assert
+        assertThrows(BatchTooLargeException.class, () -> courseService.enrollUsersInBatch(requests));
+        verifyNoInteractions(courseRepository, enrollmentBatchRepository);
+    }
+
+    private static EnrollmentRequest request(Long userId, Long courseId) {
+        return EnrollmentRequest.builder().userId(userId).courseId(courseId).build();
+    }
+
+    private static CourseTitle title(Long id, String title) {
+        return new CourseTitle() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+
+    private static List<EnrollmentResult.Status> statuses(BatchEnrollmentResponse response) {
+        return response.getResults().stream().map(EnrollmentResult::getStatus).collect(Collectors.toList());
+    }
+}
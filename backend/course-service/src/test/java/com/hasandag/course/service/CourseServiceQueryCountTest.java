@@ -0,0 +1,161 @@
+package com.hasandag.course.service;
+
+import com.hasandag.course.cache.CourseDetailsCache;
+import com.hasandag.course.dto.CourseCursor;
+import com.hasandag.course.dto.CourseDto;
+import com.hasandag.course.dto.CursorPage;
+import com.hasandag.course.kafka.CourseEventProducer;
+import com.hasandag.course.mapper.CourseMapper;
+import com.hasandag.course.model.Course;
+import com.hasandag.course.model.CourseStats;
+import com.hasandag.course.model.Enrollment;
+import com.hasandag.course.model.Rating;
+import com.hasandag.course.repository.CourseSearchRepository;
+import com.hasandag.course.repository.EnrollmentBatchRepository;
+import com.hasandag.course.search.CourseSuggestionIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({CourseService.class, CourseStatsService.class, CourseSearchRepository.class, EnrollmentBatchRepository.class, CourseMapper.class})
+@TestPropertySource(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CourseServiceQueryCountTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CourseEventProducer courseEventProducer;
+
+    @MockBean
+    private CourseDetailsCache courseDetailsCache;
+
+    @MockBean
+    private CourseSuggestionIndex courseSuggestionIndex;
+
+    @MockBean
+    private EnrollmentProgressBuffer enrollmentProgressBuffer;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testGetAllCoursesWithDetails_StatementCountIndependentOfCatalogSize() {
+        // Arrange
+        seedCourses(3);
+        long smallCatalogStatements = countStatements();
+
+        seedCourses(50);
+
+        // Act
+        long largeCatalogStatements = countStatements();
+
+        // Assert
+        assertEquals(smallCatalogStatements, largeCatalogStatements);
+        assertEquals(1, largeCatalogStatements);
+    }
+
+    @Test
+    void testGetAllCoursesWithDetails_ReflectsIncrementalStatsUpdates() {
+        // Arrange
+        Course course = seedCourses(1).get(0);
+        courseService.enrollUserInCourse(1L, course.getId());
+        courseService.enrollUserInCourse(2L, course.getId());
+        courseService.enrollUserInCourse(2L, course.getId()); // Already enrolled, must not be counted twice
+        courseService.rateCourse(1L, course.getId(), 2, null);
+        courseService.rateCourse(2L, course.getId(), 5, null);
+        courseService.rateCourse(1L, course.getId(), 4, null); // Updates the existing rating
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<CourseDto> courses = courseService.getAllCoursesWithDetails(0L, 100).getContent();
+
+        // Assert
+        assertEquals(1, courses.size());
+        assertEquals(3, courses.get(0).getEnrollmentCount());
+        assertEquals(4.0, courses.get(0).getAverageRating(), 0.0001);
+    }
+
+    @Test
+    void testGetAllCoursesWithDetails_KeysetPagesCoverCatalogOnce() {
+        // Arrange
+        seedCourses(5);
+
+        // Act
+        CursorPage<CourseDto> firstPage = courseService.getAllCoursesWithDetails(0L, 2);
+        CursorPage<CourseDto> secondPage = courseService.getAllCoursesWithDetails(CourseCursor.decode(firstPage.getNextCursor()), 2);
+        CursorPage<CourseDto> lastPage = courseService.getAllCoursesWithDetails(CourseCursor.decode(secondPage.getNextCursor()), 2);
+
+        // Assert
+        assertEquals(2, firstPage.getContent().size());
+        assertEquals(2, secondPage.getContent().size());
+        assertEquals(1, lastPage.getContent().size());
+        assertNull(lastPage.getNextCursor());
+        assertTrue(firstPage.getContent().get(1).getId() < secondPage.getContent().get(0).getId());
+        assertTrue(secondPage.getContent().get(1).getId() < lastPage.getContent().get(0).getId());
+    }
+
+    private long countStatements() {
+        statistics.clear();
+        List<CourseDto> courses = courseService.getAllCoursesWithDetails(0L, 100).getContent();
+        assertFalse(courses.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Course> seedCourses(int count) {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Course course = entityManager.persist(Course.builder()
+                    .title("Course " + i)
+                    .description("Description " + i)
+                    .category("Programming")
+                    .level("Beginner")
+                    .price(BigDecimal.TEN)
+                    .instructorId(1L)
+                    .build());
+            entityManager.persist(Enrollment.builder().userId((long) i).courseId(course.getId()).progress(0).status("ENROLLED").build());
+            entityManager.persist(Rating.builder().userId((long) i).courseId(course.getId()).rating(3).build());
+            entityManager.persist(CourseStats.builder()
+                    .courseId(course.getId())
+                    .enrollmentCount(1L)
+                    .ratingSum(3L)
+                    .ratingCount(1L)
+                    .avgProgress(0.0)
+                    .build());
+            courses.add(course);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return courses;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hasandag.course.service;
+
+import com.hasandag.course.model.CourseStats;
+import com.hasandag.course.repository.CourseStatsRepository;
+import com.hasandag.course.repository.EnrollmentRepository;
+import com.hasandag.course.repository.RatingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseStatsServiceTest {
+
+    @Mock
+    private CourseStatsRepository courseStatsRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @InjectMocks
+    private CourseStatsService courseStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(courseStatsRepository.tryLockRebuild(CourseStatsService.REBUILD_LOCK_ID)).thenReturn(true);
+        when(courseStatsRepository.save(any(CourseStats.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testRebuildAll_SkipsWhileAnotherReplicaRebuilds() {
+        // Arrange
+        when(courseStatsRepository.tryLockRebuild(CourseStatsService.REBUILD_LOCK_ID)).thenReturn(false);
+
+        // Act
+        courseStatsService.rebuildAll();
+
+        // Assert
+        verify(courseStatsRepository, never()).lockAll();
+        verify(courseStatsRepository, never()).rebuildAll();
+        verify(courseStatsRepository, never()).deleteOrphaned();
+    }
+
+    @Test
+    void testRebuildAll_LocksStatsRowsBeforeCounting() {
+        // Act
+        courseStatsService.rebuildAll();
+
+        // Assert
+        InOrder order = inOrder(courseStatsRepository);
+        order.verify(courseStatsRepository).tryLockRebuild(CourseStatsService.REBUILD_LOCK_ID);
+        order.verify(courseStatsRepository).lockAll();
+        order.verify(courseStatsRepository).rebuildAll();
+        order.verify(courseStatsRepository).deleteOrphaned();
+    }
+
+    @Test
+    void testRebuild_LocksRowBeforeCounting() {
+        // Arrange
+        CourseStats stored = CourseStats.empty(7L);
+        when(courseStatsRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(stored));
+        when(enrollmentRepository.countByCourseId(7L)).thenReturn(3);
+        when(enrollmentRepository.getAverageProgressForCourse(7L)).thenReturn(40.0);
+        when(ratingRepository.countByCourseId(7L)).thenReturn(2);
+        when(ratingRepository.getRatingSumForCourse(7L)).thenReturn(9L);
+
+        // Act
+        CourseStats stats = courseStatsService.rebuild(7L);
+
+        // Assert
+        InOrder order = inOrder(courseStatsRepository, enrollmentRepository);
+        order.verify(courseStatsRepository).findByIdForUpdate(7L);
+        order.verify(enrollmentRepository).countByCourseId(7L);
+        order.verify(courseStatsRepository).save(stored);
+        assertSame(stored, stats);
+        assertEquals(3L, stats.getEnrollmentCount());
+        assertEquals(9L, stats.getRatingSum());
+        assertEquals(2L, stats.getRatingCount());
+        assertEquals(40.0, stats.getAvgProgress());
+    }
+
+    @Test
+    void testRebuild_CreatesMissingRow() {
+        // Arrange
+        when(courseStatsRepository.findByIdForUpdate(7L)).thenReturn(Optional.empty());
+        when(enrollmentRepository.countByCourseId(7L)).thenReturn(1);
+
+        // Act
+        CourseStats stats = courseStatsService.rebuild(7L);
+
+        // Assert
+        assertEquals(7L, stats.getCourseId());
+        assertEquals(1L, stats.getEnrollmentCount());
+        assertEquals(0L, stats.getRatingSum());
+        assertEquals(0.0, stats.getAvgProgress());
+    }
+}
@@ -0,0 +1,222 @@
+package com.hasandag.course.service;
+
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.course.kafka.CourseEventProducer;
+import com.hasandag.course.model.Enrollment;
+import com.hasandag.course.repository.EnrollmentBatchRepository;
+import com.hasandag.course.repository.EnrollmentBatchRepository.StoredProgress;
+import com.hasandag.course.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EnrollmentProgressBufferTest {
+
+    private EnrollmentProgressBuffer buffer;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private EnrollmentBatchRepository enrollmentBatchRepository;
+
+    @Mock
+    private CourseStatsService courseStatsService;
+
+    @Mock
+    private CourseEventProducer courseEventProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(enrollmentRepository.findByUserIdAndCourseId(1L, 10L)).thenReturn(Optional.of(
+                Enrollment.builder().id(100L).userId(1L).courseId(10L).progress(20).status("ENROLLED").build()));
+
+        // Long interval so that only explicit flushes run during a test
+        buffer = new EnrollmentProgressBuffer(enrollmentRepository, enrollmentBatchRepository, courseStatsService,
+                courseEventProducer, transactionManager, 4, Duration.ofHours(1), 1000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.shutdown();
+    }
+
+    @Test
+    void testRecord_CoalescesUpdatesIntoOneWrite() {
+        // Arrange
+        when(enrollmentBatchRepository.updateProgress(anyList())).thenReturn(List.of(stored(20)));
+
+        // Act
+        buffer.record(1L, 10L, 30);
+        buffer.record(1L, 10L, 40);
+        Optional<Enrollment> latest = buffer.record(1L, 10L, 50);
+        buffer.flush();
+
+        // Assert
+        assertTrue(latest.isPresent());
+        assertEquals(50, latest.get().getProgress());
+        verify(enrollmentRepository, times(1)).findByUserIdAndCourseId(1L, 10L);
+
+        ArgumentCaptor<List<Enrollment>> written = ArgumentCaptor.forClass(List.class);
+        verify(enrollmentBatchRepository).updateProgress(written.capture());
+        assertEquals(1, written.getValue().size());
+        assertEquals(50, written.getValue().get(0).getProgress());
+        verify(courseStatsService).recordProgressDelta(10L, 30.0);
+    }
+
+    @Test
+    void testReads_SeeBufferedProgress() {
+        // Arrange
+        Enrollment stored = Enrollment.builder().id(100L).userId(1L).courseId(10L).progress(20).build();
+        Enrollment other = Enrollment.builder().id(101L).userId(1L).courseId(11L).progress(5).build();
+
+        // Act
+        buffer.record(1L, 10L, 70);
+        List<Enrollment> overlaid = buffer.overlay(List.of(stored, other));
+
+        // Assert
+        assertEquals(Optional.of(70), buffer.getBufferedProgress(1L, 10L));
+        assertEquals(Optional.empty(), buffer.getBufferedProgress(1L, 11L));
+        assertEquals(70, overlaid.get(0).getProgress());
+        assertSame(other, overlaid.get(1));
+        assertEquals(20, stored.getProgress());
+    }
+
+    @Test
+    void testRecord_ReturnsEmptyWhenNotEnrolled() {
+        // Act
+        Optional<Enrollment> result = buffer.record(2L, 10L, 30);
+        buffer.flush();
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(enrollmentBatchRepository);
+    }
+
+    @Test
+    void testFlush_KeepsEntriesDirtyAfterFailure() {
+        // Arrange
+        buffer.record(1L, 10L, 60);
+        doThrow(new IllegalStateException("database unavailable"))
+                .doReturn(List.of(stored(20)))
+                .when(enrollmentBatchRepository).updateProgress(anyList());
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+        buffer.flush();
+        buffer.flush();
+
+        // Assert: retried once, then clean
+        verify(enrollmentBatchRepository, times(2)).updateProgress(anyList());
+        verify(courseStatsService).recordProgressDelta(10L, 40.0);
+    }
+
+    @Test
+    void testFlush_TakesStatsDeltaFromStoredProgress() {
+        // Arrange: another replica has written 45 since this one read the enrollment
+        when(enrollmentBatchRepository.updateProgress(anyList())).thenReturn(List.of(stored(45)));
+
+        // Act
+        buffer.record(1L, 10L, 50);
+        buffer.flush();
+
+        // Assert
+        verify(courseStatsService).recordProgressDelta(10L, 5.0);
+    }
+
+    @Test
+    void testRecord_AfterShutdownDoesNotThrow() throws InterruptedException {
+        // Arrange: a flush size of one requests a flush on every report
+        EnrollmentProgressBuffer eager = new EnrollmentProgressBuffer(enrollmentRepository, enrollmentBatchRepository,
+                courseStatsService, courseEventProducer, transactionManager, 4, Duration.ofHours(1), 1,
+                Duration.ofMinutes(5), new SimpleMeterRegistry());
+        eager.shutdown();
+
+        // Act
+        Optional<Enrollment> result = eager.record(1L, 10L, 30);
+
+        // Assert
+        assertEquals(30, result.get().getProgress());
+    }
+
+    @Test
+    void testFlush_PublishesCompletionOnce() {
+        // Arrange
+        when(enrollmentBatchRepository.updateProgress(anyList()))
+                .thenReturn(List.of(stored(20)))
+                .thenReturn(List.of(new StoredProgress(1L, 10L, 100, "COMPLETED")));
+
+        // Act
+        buffer.record(1L, 10L, 100);
+        buffer.flush();
+        buffer.record(1L, 10L, 100);
+        buffer.flush();
+
+        // Assert
+        ArgumentCaptor<List<Enrollment>> written = ArgumentCaptor.forClass(List.class);
+        verify(enrollmentBatchRepository, times(2)).updateProgress(written.capture());
+        assertEquals("COMPLETED", written.getAllValues().get(0).get(0).getStatus());
+
+        ArgumentCaptor<EnrollmentEvent> event = ArgumentCaptor.forClass(EnrollmentEvent.class);
+        verify(courseEventProducer, times(1)).publishEnrollment(event.capture());
+        assertEquals(EnrollmentEvent.EnrollmentStatus.COMPLETED, event.getValue().getStatus());
+        assertEquals("1", event.getValue().getUserId());
+        assertEquals("10", event.getValue().getCourseId());
+    }
+
+    @Test
+    void testFlush_NoCompletionForEnrollmentDeletedBeforeFlush() {
+        // Arrange: the UPDATE finds no row, as the enrollment was deleted after it was collected
+        when(enrollmentBatchRepository.updateProgress(anyList())).thenReturn(List.of());
+
+        // Act
+        buffer.record(1L, 10L, 100);
+        buffer.flush();
+
+        // Assert
+        verify(courseEventProducer, never()).publishEnrollment(any());
+        verify(courseStatsService, never()).recordProgressDelta(any(), anyDouble());
+    }
+
+    @Test
+    void testDiscard_DropsPendingUpdate() {
+        // Act
+        buffer.record(1L, 10L, 100);
+        buffer.discard(1L, 10L);
+        buffer.flush();
+
+        // Assert
+        assertEquals(Optional.empty(), buffer.getBufferedProgress(1L, 10L));
+        verifyNoInteractions(enrollmentBatchRepository);
+        verify(courseEventProducer, never()).publishEnrollment(any());
+    }
+
+    private static StoredProgress stored(int progress) {
+        return new StoredProgress(1L, 10L, progress, "ENROLLED");
+    }
+}
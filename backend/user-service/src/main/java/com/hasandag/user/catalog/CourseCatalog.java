@@ -0,0 +1,87 @@
+package com.hasandag.user.catalog;
+
+import com.hasandag.user.model.CatalogCourse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of the course catalog projection, keyed by primitive course id. Lookups take a
+ * shared read lock; writes are applied by this replica's course-state feed. Stored courses are
+ * detached copies and must not be modified.
+ */
+@Component
+public class CourseCatalog {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectHashMap<CatalogCourse> courses = new LongObjectHashMap<>(1024);
+
+    public CourseCatalog(MeterRegistry meterRegistry) {
+        Gauge.builder("user.course.catalog.size", this, CourseCatalog::size)
+                .description("Courses held in the local course catalog projection")
+                .register(meterRegistry);
+    }
+
+    public Optional<CatalogCourse> get(long courseId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(courses.get(courseId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return courses.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void apply(Collection<CatalogCourse> upserts, Collection<Long> removals) {
+        lock.writeLock().lock();
+        try {
+            for (CatalogCourse course : upserts) {
+                courses.put(course.getCourseId(), course.toBuilder().build());
+            }
+            for (Long courseId : removals) {
+                courses.remove(courseId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds courses loaded from the database without replacing entries the consumer has
+     * written in the meantime.
+     */
+    public void load(Collection<CatalogCourse> loaded) {
+        lock.writeLock().lock();
+        try {
+            for (CatalogCourse course : loaded) {
+                if (courses.get(course.getCourseId()) == null) {
+                    courses.put(course.getCourseId(), course.toBuilder().build());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            courses.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
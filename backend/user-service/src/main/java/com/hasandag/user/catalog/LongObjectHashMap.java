@@ -0,0 +1,142 @@
+package com.hasandag.user.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to values, with linear probing and
+ * backward-shift deletion. Keys are stored unboxed in a long[], so each entry costs one long
+ * and one reference instead of a HashMap node and a boxed Long. Null values are not allowed.
+ * Not thread-safe.
+ */
+public final class LongObjectHashMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int size;
+
+    public LongObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (mask + 1) * 3 / 4) {
+            rehash((mask + 1) * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Approximate heap footprint of the key and value arrays, excluding the values themselves.
+     */
+    public long arrayBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * 4;
+    }
+
+    // Closes the gap at i by moving back later entries of the same probe run
+    private void shiftBack(int gap) {
+        int i = (gap + 1) & mask;
+        while (values[i] != null) {
+            int home = slot(keys[i]);
+            // Move the entry unless its home slot lies cyclically in (gap, i]
+            boolean movable = gap <= i ? (home <= gap || home > i) : (home <= gap && home > i);
+            if (movable) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * PHI) >>> shift);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
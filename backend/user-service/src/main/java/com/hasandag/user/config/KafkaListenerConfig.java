@@ -0,0 +1,92 @@
+package com.hasandag.user.config;
+
+import com.hasandag.user.kafka.CourseCatalogFeed;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.RetryListener;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+
+/**
+ * Listener containers for the course-service event topics. Each poll is delivered as a single
+ * batch (up to spring.kafka.consumer.max-poll-records) and offsets are committed only after the
+ * listener acknowledges the whole batch. A batch that throws is redelivered by the
+ * {@link DefaultErrorHandler} until it succeeds. The retry topics of parked records use the
+ * default record listener factory.
+ */
+@Configuration
+@Slf4j
+public class KafkaListenerConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "batchKafkaListenerContainerFactory";
+
+    /**
+     * Keep equal to the partition count of the consumed topics; extra consumers stay idle.
+     */
+    @Value("${user.kafka.listener.concurrency:6}")
+    private int concurrency;
+
+    @Value("${user.kafka.listener.poll-timeout:1s}")
+    private Duration pollTimeout;
+
+    /**
+     * Backoff before a batch that failed as a whole (e.g. the database is down) is redelivered;
+     * records that fail on their own are parked for retry by the listener instead.
+     */
+    @Value("${user.kafka.listener.redelivery-interval:5s}")
+    private Duration redeliveryInterval;
+
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setPollTimeout(pollTimeout.toMillis());
+        factory.setCommonErrorHandler(batchErrorHandler());
+        return factory;
+    }
+
+    /**
+     * Carries catalog rebuild requests to every replica; a single partition keeps them in order.
+     */
+    @Bean
+    public NewTopic catalogRebuildTopic() {
+        return TopicBuilder.name(CourseCatalogFeed.REBUILD_TOPIC)
+                .partitions(1)
+                .build();
+    }
+
+    // Without it the container default retries a batch ten times without pause and then skips it
+    private DefaultErrorHandler batchErrorHandler() {
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+                new FixedBackOff(redeliveryInterval.toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS));
+        errorHandler.setRetryListeners(new RetryListener() {
+            @Override
+            public void failedDelivery(ConsumerRecord<?, ?> record, Exception ex, int deliveryAttempt) {
+                log.warn("Delivery {} of record {}-{}@{} failed: {}", deliveryAttempt,
+                        record.topic(), record.partition(), record.offset(), ex.getMessage());
+            }
+
+            @Override
+            public void failedDelivery(ConsumerRecords<?, ?> records, Exception ex, int deliveryAttempt) {
+                log.warn("Delivery {} of a batch of {} records failed, redelivering in {}: {}",
+                        deliveryAttempt, records.count(), redeliveryInterval, ex.getMessage());
+            }
+        });
+        return errorHandler;
+    }
+}
@@ -0,0 +1,41 @@
+package com.hasandag.user.controller;
+
+import com.hasandag.user.kafka.CourseCatalogFeed;
+import com.hasandag.user.model.CatalogCourse;
+import com.hasandag.user.service.CourseCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/users/course-catalog")
+@RequiredArgsConstructor
+public class CourseCatalogController {
+
+    private final CourseCatalogService courseCatalogService;
+    private final CourseCatalogFeed courseCatalogFeed;
+
+    @GetMapping("/{courseId}")
+    public ResponseEntity<CatalogCourse> getCourse(@PathVariable Long courseId) {
+        return courseCatalogService.getCourse(courseId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Clears the projection on every replica and replays course-state from the beginning; the
+     * catalog fills up again as the consumers catch up.
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuild() {
+        courseCatalogService.clear();
+        courseCatalogFeed.requestRebuild();
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.hasandag.user.controller;
+
+import com.hasandag.user.kafka.DeadLetterReplayer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterController {
+
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    /**
+     * Sends the dead letters of a course-service topic (course-state or enrollment-events)
+     * back through its retry chain.
+     */
+    @PostMapping("/{topic}/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> replay(@PathVariable String topic) {
+        if (!DeadLetterReplayer.isSourceTopic(topic)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("replayed", deadLetterReplayer.replay(topic)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.hasandag.user.controller;
+
+import com.hasandag.common.dto.UserDto;
+import com.hasandag.user.model.UserCourseEnrollment;
+import com.hasandag.user.model.UserLearningSummary;
+import com.hasandag.user.service.EnrollmentReadModelService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final EnrollmentReadModelService enrollmentReadModelService;
+
+    /**
+     * Profile of the current user. Identity comes from the token and the learning counts from
+     * the local enrollment read model, so no other service is called.
+     */
+    @GetMapping("/me")
+    public ResponseEntity<UserDto> getCurrentUser(@AuthenticationPrincipal Jwt jwt) {
+        UserLearningSummary summary = enrollmentReadModelService.getSummary(jwt.getSubject())
+                .orElseGet(() -> UserLearningSummary.empty(jwt.getSubject()));
+
+        UserDto user = UserDto.builder()
+                .username(jwt.getClaimAsString("preferred_username"))
+                .email(jwt.getClaimAsString("email"))
+                .firstName(jwt.getClaimAsString("given_name"))
+                .lastName(jwt.getClaimAsString("family_name"))
+                .name(jwt.getClaimAsString("name"))
+                .enabled(true)
+                .enrolledCourses(summary.getEnrolledCourses())
+                .completedCourses(summary.getCompletedCourses())
+                .build();
+        return ResponseEntity.ok(user);
+    }
+
+    @GetMapping("/me/courses")
+    public ResponseEntity<List<UserCourseEnrollment>> getCurrentUserCourses(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(enrollmentReadModelService.getCourses(jwt.getSubject()));
+    }
+}
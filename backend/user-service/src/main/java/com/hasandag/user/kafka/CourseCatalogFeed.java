@@ -0,0 +1,114 @@
+package com.hasandag.user.kafka;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.user.catalog.CourseCatalog;
+import com.hasandag.user.model.CatalogCourse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this replica's in-memory {@link CourseCatalog} in step with course-state. The shared
+ * consumer group that writes the course_catalog table gives each replica only some of the
+ * partitions, so every replica also reads all of them under a consumer group of its own,
+ * starting from the beginning of the log-compacted topic.
+ * <p>
+ * Catalog rebuilds are broadcast on {@link #REBUILD_TOPIC}, which every replica reads under its
+ * own group as well. On a rebuild request a replica clears its in-memory catalog and replays
+ * course-state from the beginning, both for its own copy and for the partitions of the shared
+ * group it currently owns, which refills the course_catalog table.
+ */
+@Service
+@Slf4j
+public class CourseCatalogFeed extends AbstractConsumerSeekAware {
+
+    public static final String REBUILD_TOPIC = "user-service.catalog-rebuild";
+
+    private static final String COURSE_STATE_TOPIC = "course-state";
+
+    private final CourseCatalog courseCatalog;
+    private final CourseEventConsumer courseEventConsumer;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Duration sendTimeout;
+
+    public CourseCatalogFeed(
+            CourseCatalog courseCatalog,
+            CourseEventConsumer courseEventConsumer,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${user.kafka.retry.send-timeout:30s}") Duration sendTimeout) {
+        this.courseCatalog = courseCatalog;
+        this.courseEventConsumer = courseEventConsumer;
+        this.kafkaTemplate = kafkaTemplate;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @KafkaListener(
+            topics = COURSE_STATE_TOPIC,
+            groupId = "${user.catalog.feed.group-id}",
+            properties = "auto.offset.reset=earliest")
+    public void consumeCourseState(ConsumerRecord<String, Object> record) {
+        Long courseId = parseCourseId(record.key());
+        if (courseId == null || EventParker.isUnreadable(record)) {
+            log.warn("Skipping course state {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
+        if (record.value() == null) {
+            courseCatalog.apply(List.of(), List.of(courseId));
+            return;
+        }
+        CourseState state = (CourseState) record.value();
+        courseCatalog.apply(List.of(CatalogCourse.builder()
+                .courseId(courseId)
+                .title(state.getTitle())
+                .instructorId(state.getInstructorId())
+                .updatedAt(state.getUpdatedAt())
+                .build()), List.of());
+    }
+
+    /**
+     * Asks every replica, this one included, to rebuild its part of the course catalog. Returns
+     * once the broker has accepted the request.
+     */
+    public void requestRebuild() {
+        try {
+            kafkaTemplate.send(REBUILD_TOPIC, "rebuild", null).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while requesting a catalog rebuild", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not request a catalog rebuild", e);
+        }
+        log.info("Requested a course catalog rebuild on all replicas");
+    }
+
+    @KafkaListener(
+            topics = REBUILD_TOPIC,
+            groupId = "${user.catalog.feed.group-id}-rebuild",
+            properties = "auto.offset.reset=latest")
+    public void onRebuildRequested(ConsumerRecord<String, Object> record) {
+        courseCatalog.clear();
+        getSeekCallbacks().forEach((partition, callback) -> {
+            if (COURSE_STATE_TOPIC.equals(partition.topic())) {
+                callback.seekToBeginning(List.of(partition));
+            }
+        });
+        courseEventConsumer.replayCourseStates();
+        log.info("Rebuilding the course catalog from {}", COURSE_STATE_TOPIC);
+    }
+
+    private static Long parseCourseId(String key) {
+        try {
+            return key != null ? Long.parseLong(key) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
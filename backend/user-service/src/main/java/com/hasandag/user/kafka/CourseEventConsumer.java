@@ -1,50 +1,182 @@
 package com.hasandag.user.kafka;
 
+import com.hasandag.common.event.CourseState;
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.user.config.KafkaListenerConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consumes course-service events in batches. A batch is acknowledged only after
+ * {@link CourseEventHandler} has committed it and any records that could not be applied have
+ * been handed to {@link EventParker}, so a poison record never blocks its partition. If the
+ * batch cannot be handled at all nothing is acknowledged and the batch is redelivered.
+ * <p>
+ * The course catalog projection follows the log-compacted course-state topic rather than the
+ * course-events history, so a new consumer group bootstraps by reading roughly one record per
+ * live course. The topic can be replayed from the beginning to rebuild the projection; the
+ * seeks are performed by the consumer threads before their next poll.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CourseEventConsumer {
-
-    @KafkaListener(topics = "course-events", groupId = "user-service-group")
-    public void consumeCourseEvent(CourseEvent event) {
-        log.info("Received course event: {}", event);
-        // Process course event - update user's course catalog, etc.
-        switch (event.getEventType()) {
-            case CREATED:
-                log.info("Processing course creation: {}", event.getTitle());
-                break;
-            case UPDATED:
-                log.info("Processing course update: {}", event.getTitle());
-                break;
-            case DELETED:
-                log.info("Processing course deletion: {}", event.getCourseId());
-                break;
-            default:
-                log.warn("Unknown event type: {}", event.getEventType());
+public class CourseEventConsumer extends AbstractConsumerSeekAware {
+
+    private static final String COURSE_STATE_TOPIC = "course-state";
+    private static final String ENROLLMENT_EVENTS_TOPIC = "enrollment-events";
+
+    private final CourseEventHandler courseEventHandler;
+    private final ListenerBatchMetrics batchMetrics;
+    private final EventParker eventParker;
+
+    @KafkaListener(
+            topics = COURSE_STATE_TOPIC,
+            groupId = "user-service-group",
+            containerFactory = KafkaListenerConfig.BATCH_LISTENER_FACTORY)
+    public void consumeCourseStates(List<ConsumerRecord<String, CourseState>> records,
+                                    Acknowledgment acknowledgment,
+                                    Consumer<?, ?> consumer) {
+        long start = System.nanoTime();
+        log.debug("Received {} course states", records.size());
+        apply(records, batch -> courseEventHandler.handleCourseStates(latestStates(batch)));
+        acknowledgment.acknowledge();
+        batchMetrics.recordBatch(COURSE_STATE_TOPIC, records.size(), System.nanoTime() - start);
+        batchMetrics.recordLag(consumer, records);
+    }
+
+    @KafkaListener(
+            topics = ENROLLMENT_EVENTS_TOPIC,
+            groupId = "user-service-group",
+            containerFactory = KafkaListenerConfig.BATCH_LISTENER_FACTORY)
+    public void consumeEnrollmentEvents(List<ConsumerRecord<String, EnrollmentEvent>> records,
+                                        Acknowledgment acknowledgment,
+                                        Consumer<?, ?> consumer) {
+        long start = System.nanoTime();
+        log.debug("Received {} enrollment events", records.size());
+        apply(records, batch -> courseEventHandler.handleEnrollmentEvents(values(batch)));
+        acknowledgment.acknowledge();
+        batchMetrics.recordBatch(ENROLLMENT_EVENTS_TOPIC, records.size(), System.nanoTime() - start);
+        batchMetrics.recordLag(consumer, records);
+    }
+
+    public void replayCourseStates() {
+        getSeekCallbacks().forEach((partition, callback) -> {
+            if (COURSE_STATE_TOPIC.equals(partition.topic())) {
+                callback.seekToBeginning(List.of(partition));
+            }
+        });
+        log.info("Requested replay of {} from the beginning", COURSE_STATE_TOPIC);
+    }
+
+    /**
+     * Applies the readable records of a batch in one go. If that fails for any reason other than
+     * an outage, the records are applied one at a time and those that still fail are parked for
+     * retry, along with any later record of the same key so that the records of a key are not
+     * reordered within the batch. On an outage the exception propagates and the container
+     * redelivers the whole batch after a backoff; the handlers are idempotent, so records applied
+     * before the outage may safely be applied again.
+     */
+    private <T> void apply(List<ConsumerRecord<String, T>> records, BatchHandler<T> handler) {
+        List<ConsumerRecord<String, T>> readable = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, T>> unreadable = new ArrayList<>();
+        for (ConsumerRecord<String, T> record : records) {
+            (EventParker.isUnreadable(record) ? unreadable : readable).add(record);
+        }
+
+        List<ConsumerRecord<String, T>> failed = new ArrayList<>();
+        try {
+            handler.handle(readable);
+        } catch (RuntimeException e) {
+            if (isOutage(e)) {
+                throw e;
+            }
+            log.warn("Batch of {} records failed, applying them one at a time: {}", readable.size(), e.getMessage());
+            Set<String> failedKeys = new HashSet<>();
+            for (ConsumerRecord<String, T> record : readable) {
+                if (failedKeys.contains(record.key())) {
+                    failed.add(record);
+                    continue;
+                }
+                try {
+                    handler.handle(List.of(record));
+                } catch (RuntimeException recordFailure) {
+                    if (isOutage(recordFailure)) {
+                        throw recordFailure;
+                    }
+                    failed.add(record);
+                    failedKeys.add(record.key());
+                }
+            }
+        }
+        eventParker.park(failed, unreadable);
+    }
+
+    /**
+     * Failures that say nothing about the records themselves; parking records because the
+     * database is unreachable would only move them to the dead letter topic.
+     */
+    private static boolean isOutage(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * Keeps the last state per course id in the batch; a tombstone maps to null.
+     */
+    private static Map<Long, CourseState> latestStates(List<ConsumerRecord<String, CourseState>> records) {
+        Map<Long, CourseState> states = new LinkedHashMap<>();
+        for (ConsumerRecord<String, CourseState> record : records) {
+            Long courseId = parseCourseId(record.key());
+            if (courseId == null) {
+                log.warn("Skipping record {}-{}@{} without a course id key", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            states.put(courseId, record.value());
         }
+        return states;
     }
 
-    @KafkaListener(topics = "enrollment-events", groupId = "user-service-group")
-    public void consumeEnrollmentEvent(EnrollmentEvent event) {
-        log.info("Received enrollment event: {}", event);
-        // Process enrollment event - update user's enrollments, etc.
-        switch (event.getStatus()) {
-            case ENROLLED:
-                log.info("User {} enrolled in course {}", event.getUserId(), event.getCourseName());
-                break;
-            case UNENROLLED:
-                log.info("User {} unenrolled from course {}", event.getUserId(), event.getCourseName());
-                break;
-            case COMPLETED:
-                log.info("User {} completed course {}", event.getUserId(), event.getCourseName());
-                break;
-            default:
-                log.warn("Unknown enrollment status: {}", event.getStatus());
+    private static Long parseCourseId(String key) {
+        try {
+            return key != null ? Long.parseLong(key) : null;
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
-} 
\ No newline at end of file
+
+    private static <T> List<T> values(List<ConsumerRecord<String, T>> records) {
+        List<T> values = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, T> record : records) {
+            if (record.value() == null) {
+                log.warn("Skipping empty record {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            values.add(record.value());
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface BatchHandler<T> {
+        void handle(List<ConsumerRecord<String, T>> records);
+    }
+}
@@ -0,0 +1,34 @@
+package com.hasandag.user.kafka;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.user.service.CourseCatalogService;
+import com.hasandag.user.service.EnrollmentReadModelService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies batches of course-service events. Each batch runs in a single transaction, so a
+ * batch is either fully applied or redelivered as a whole.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseEventHandler {
+
+    private final CourseCatalogService courseCatalogService;
+    private final EnrollmentReadModelService enrollmentReadModelService;
+
+    @Transactional
+    public void handleCourseStates(Map<Long, CourseState> states) {
+        courseCatalogService.apply(states);
+    }
+
+    @Transactional
+    public void handleEnrollmentEvents(List<EnrollmentEvent> events) {
+        enrollmentReadModelService.apply(events);
+    }
+}
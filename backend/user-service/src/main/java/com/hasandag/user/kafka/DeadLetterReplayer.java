@@ -0,0 +1,132 @@
+package com.hasandag.user.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends dead letters back to the start of their retry chain, e.g. once the bug that made them
+ * fail has been fixed. Records are copied as raw bytes, so even records that could not be
+ * deserialized are replayed unchanged, and without the retry headers of their previous attempts.
+ * <p>
+ * Progress is committed under a dedicated consumer group, so each dead letter is replayed once;
+ * a replay covers the records that were in the dead letter topic when it started.
+ */
+@Component
+@Slf4j
+public class DeadLetterReplayer {
+
+    static final String REPLAY_GROUP = "user-service-dlt-replay";
+
+    private static final Set<String> SOURCE_TOPICS = Set.of("course-state", "enrollment-events");
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Duration timeout;
+
+    public DeadLetterReplayer(
+            ConsumerFactory<String, Object> consumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${user.kafka.dlt.replay-timeout:60s}") Duration timeout) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.timeout = timeout;
+    }
+
+    public static boolean isSourceTopic(String topic) {
+        return SOURCE_TOPICS.contains(topic);
+    }
+
+    /**
+     * Replays the dead letters of a course-service topic and returns how many were replayed.
+     */
+    public synchronized int replay(String topic) {
+        if (!isSourceTopic(topic)) {
+            throw new IllegalArgumentException("No dead letter topic for " + topic);
+        }
+        String deadLetterTopic = EventParker.deadLetterTopic(topic);
+        String parkedTopic = EventParker.parkedTopic(topic);
+
+        try (Consumer<String, byte[]> consumer = createConsumer()) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(deadLetterTopic)) {
+                partitions.add(new TopicPartition(deadLetterTopic, info.partition()));
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> replayed = new HashMap<>();
+            while (!caughtUp(consumer, endOffsets)) {
+                if (System.nanoTime() > deadline) {
+                    log.warn("Dead letter replay of {} timed out, the rest is left for the next replay", topic);
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofSeconds(1))) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    sends.add(kafkaTemplate.send(parkedTopic, record.key(), record.value()));
+                    replayed.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (!replayed.isEmpty()) {
+                consumer.commitSync(replayed);
+            }
+            log.info("Replayed {} dead letters of {} to {}", sends.size(), topic, parkedTopic);
+            return sends.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying dead letters", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not replay dead letters of " + topic, e);
+        }
+    }
+
+    // Reads raw bytes under the replay group; overridden in tests
+    Consumer<String, byte[]> createConsumer() {
+        return new KafkaConsumer<>(replayConsumerProperties(), new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Object> replayConsumerProperties() {
+        Map<String, Object> props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, REPLAY_GROUP);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return props;
+    }
+}
@@ -0,0 +1,105 @@
+package com.hasandag.user.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves records that the batch listeners cannot apply out of the way, so the rest of their
+ * partition keeps flowing. Records that failed to apply are parked on the user-service retry
+ * chain of their topic, handled by {@link ParkedEventConsumer}; records that could not even be
+ * deserialized cannot succeed on a retry and go straight to the dead letter topic with their
+ * original bytes.
+ * <p>
+ * The retry chain is owned by this consumer group, hence the user-service prefix: other
+ * consumers of the same topics keep their own.
+ */
+@Component
+@Slf4j
+public class EventParker {
+
+    public static final String PARKED_TOPIC_PREFIX = "user-service.";
+    public static final String DEAD_LETTER_SUFFIX = "-dlt";
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(EventParker.class);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ListenerBatchMetrics metrics;
+    private final Duration sendTimeout;
+
+    public EventParker(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ListenerBatchMetrics metrics,
+            @Value("${user.kafka.retry.send-timeout:30s}") Duration sendTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.metrics = metrics;
+        this.sendTimeout = sendTimeout;
+    }
+
+    public static String parkedTopic(String topic) {
+        return PARKED_TOPIC_PREFIX + topic;
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return parkedTopic(topic) + DEAD_LETTER_SUFFIX;
+    }
+
+    /**
+     * Returns true if the record carries no value because deserialization failed, as opposed
+     * to a tombstone.
+     */
+    public static boolean isUnreadable(ConsumerRecord<?, ?> record) {
+        return record.value() == null
+                && record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null;
+    }
+
+    /**
+     * Parks the records on the retry chain and dead-letters the unreadable ones, returning once
+     * the broker has acknowledged all of them. Throws if any send fails, in which case the batch
+     * must not be acknowledged.
+     */
+    public void park(List<? extends ConsumerRecord<String, ?>> failed, List<? extends ConsumerRecord<String, ?>> unreadable) {
+        if (failed.isEmpty() && unreadable.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(failed.size() + unreadable.size());
+        for (ConsumerRecord<String, ?> record : failed) {
+            log.warn("Parking {}-{}@{} for retry", record.topic(), record.partition(), record.offset());
+            sends.add(kafkaTemplate.send(parkedTopic(record.topic()), record.key(), record.value()));
+            metrics.recordParked(record.topic());
+        }
+        for (ConsumerRecord<String, ?> record : unreadable) {
+            log.error("Dead-lettering unreadable record {}-{}@{}", record.topic(), record.partition(), record.offset());
+            sends.add(kafkaTemplate.send(deadLetterTopic(record.topic()), record.key(), originalBytes(record)));
+            metrics.recordDeadLetter(record.topic(), "deserialization");
+        }
+
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parking records", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not park records", e);
+        }
+    }
+
+    private static byte[] originalBytes(ConsumerRecord<String, ?> record) {
+        DeserializationException exception = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        return exception != null ? exception.getData() : null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.hasandag.user.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-topic metrics of the listeners: batch size, processing time and the consumer lag of every
+ * partition seen in a batch, as of the last poll, and the rates at which records are parked for
+ * retry, retried and dead-lettered.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListenerBatchMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicPartition, AtomicLong> lagByPartition = new ConcurrentHashMap<>();
+
+    public void recordBatch(String topic, int size, long elapsedNanos) {
+        DistributionSummary.builder("user.kafka.batch.size")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .record(size);
+        Timer.builder("user.kafka.batch.processing")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordParked(String topic) {
+        counter("user.kafka.parked", topic).increment();
+    }
+
+    public void recordRetry(String topic) {
+        counter("user.kafka.retry", topic).increment();
+    }
+
+    public void recordDeadLetter(String topic, String reason) {
+        Counter.builder("user.kafka.dlt")
+                .tag("topic", topic)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Must be called on the consumer thread, i.e. from within the listener method.
+     */
+    public void recordLag(Consumer<?, ?> consumer, List<? extends ConsumerRecord<?, ?>> records) {
+        records.stream()
+                .map(record -> new TopicPartition(record.topic(), record.partition()))
+                .distinct()
+                .forEach(partition -> {
+                    OptionalLong lag = consumer.currentLag(partition);
+                    if (lag.isPresent()) {
+                        lagGauge(partition).set(lag.getAsLong());
+                    }
+                });
+    }
+
+    private Counter counter(String name, String topic) {
+        return Counter.builder(name)
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    private AtomicLong lagGauge(TopicPartition partition) {
+        return lagByPartition.computeIfAbsent(partition, p -> {
+            AtomicLong lag = new AtomicLong();
+            Gauge.builder("user.kafka.consumer.lag", lag, AtomicLong::get)
+                    .tag("topic", p.topic())
+                    .tag("partition", String.valueOf(p.partition()))
+                    .register(meterRegistry);
+            return lag;
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.hasandag.user.kafka;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.common.event.EnrollmentEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retries records parked by {@link EventParker} one at a time on a chain of retry topics with
+ * exponentially growing delays, then moves them to the dead letter topic. Each retry topic
+ * waits out its delay by pausing its own partitions, so neither the source topics nor records
+ * on other retry topics are held up.
+ * <p>
+ * A retried record may arrive after newer records of the same key were applied in the meantime;
+ * the handlers compare timestamps and skip it. Dead letters can be sent back through the chain with {@link DeadLetterReplayer}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ParkedEventConsumer {
+
+    static final String PARKED_COURSE_STATE = EventParker.PARKED_TOPIC_PREFIX + "course-state";
+    static final String PARKED_ENROLLMENT_EVENTS = EventParker.PARKED_TOPIC_PREFIX + "enrollment-events";
+
+    private final CourseEventHandler courseEventHandler;
+    private final ListenerBatchMetrics metrics;
+
+    @RetryableTopic(
+            attempts = "${user.kafka.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${user.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${user.kafka.retry.multiplier:5}",
+                    maxDelayExpression = "${user.kafka.retry.max-delay-ms:60000}"),
+            numPartitions = "${user.kafka.retry.partitions:6}",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltTopicSuffix = EventParker.DEAD_LETTER_SUFFIX,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            kafkaTemplate = "kafkaTemplate")
+    @KafkaListener(topics = {PARKED_COURSE_STATE, PARKED_ENROLLMENT_EVENTS}, groupId = "user-service-group")
+    public void consume(ConsumerRecord<String, Object> record) {
+        if (!record.topic().equals(PARKED_COURSE_STATE) && !record.topic().equals(PARKED_ENROLLMENT_EVENTS)) {
+            metrics.recordRetry(sourceTopic(record.topic()));
+        }
+
+        if (record.topic().startsWith(PARKED_COURSE_STATE)) {
+            // Not Map.of, a tombstone maps to null
+            Map<Long, CourseState> states = new HashMap<>();
+            states.put(Long.parseLong(record.key()), (CourseState) record.value());
+            courseEventHandler.handleCourseStates(states);
+        } else {
+            courseEventHandler.handleEnrollmentEvents(List.of((EnrollmentEvent) record.value()));
+        }
+    }
+
+    @DltHandler
+    public void deadLetter(ConsumerRecord<String, Object> record,
+                           @Header(name = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String exceptionMessage) {
+        log.error("Dead-lettered {}-{}@{} with key {}: {}",
+                record.topic(), record.partition(), record.offset(), record.key(), exceptionMessage);
+        metrics.recordDeadLetter(sourceTopic(record.topic()), "retries-exhausted");
+    }
+
+    /**
+     * Maps a topic of the retry chain back to the course-service topic it was parked from.
+     */
+    private static String sourceTopic(String topic) {
+        return topic.startsWith(PARKED_COURSE_STATE) ? "course-state" : "enrollment-events";
+    }
+}
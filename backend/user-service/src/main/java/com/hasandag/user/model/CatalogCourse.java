@@ -0,0 +1,39 @@
+package com.hasandag.user.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of a course as last published on course-state; the local projection of the
+ * course-service catalog. A deleted course stays as a row marked deleted, so that older states
+ * of it can be recognized.
+ */
+@Entity
+@Table(name = "course_catalog")
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogCourse {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "instructor_id")
+    private String instructorId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+}
@@ -0,0 +1,55 @@
+package com.hasandag.user.model;
+
+import com.hasandag.common.event.EnrollmentEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of one enrollment of a user, as last reported by course-service. A cancelled
+ * enrollment stays as an UNENROLLED row, so that older events can be recognized.
+ */
+@Entity
+@Table(name = "user_course_enrollments")
+@IdClass(UserCourseEnrollment.Key.class)
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCourseEnrollment {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "course_name")
+    private String courseName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EnrollmentEvent.EnrollmentStatus status;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public Key key() {
+        return new Key(userId, courseId);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String userId;
+        private Long courseId;
+    }
+}
@@ -0,0 +1,43 @@
+package com.hasandag.user.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user enrollment counts, maintained from enrollment events so that profile reads are a
+ * single primary key lookup.
+ */
+@Entity
+@Table(name = "user_learning_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLearningSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "enrolled_courses", nullable = false)
+    private Integer enrolledCourses;
+
+    @Column(name = "completed_courses", nullable = false)
+    private Integer completedCourses;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static UserLearningSummary empty(String userId) {
+        return UserLearningSummary.builder()
+                .userId(userId)
+                .enrolledCourses(0)
+                .completedCourses(0)
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.hasandag.user.repository;
+
+import com.hasandag.user.model.CatalogCourse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CatalogCourseRepository extends JpaRepository<CatalogCourse, Long> {
+
+    List<CatalogCourse> findByCourseIdGreaterThanAndDeletedFalseOrderByCourseIdAsc(Long afterId, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.hasandag.user.repository;
+
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.user.model.UserCourseEnrollment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserCourseEnrollmentRepository extends JpaRepository<UserCourseEnrollment, UserCourseEnrollment.Key> {
+
+    List<UserCourseEnrollment> findByUserIdAndStatusNotOrderByUpdatedAtDesc(String userId, EnrollmentEvent.EnrollmentStatus status);
+}
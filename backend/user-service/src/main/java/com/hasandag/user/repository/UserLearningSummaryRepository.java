@@ -0,0 +1,9 @@
+package com.hasandag.user.repository;
+
+import com.hasandag.user.model.UserLearningSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserLearningSummaryRepository extends JpaRepository<UserLearningSummary, String> {
+}
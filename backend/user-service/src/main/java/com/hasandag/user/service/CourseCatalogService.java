@@ -0,0 +1,130 @@
+package com.hasandag.user.service;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.user.catalog.CourseCatalog;
+import com.hasandag.user.kafka.CourseCatalogFeed;
+import com.hasandag.user.model.CatalogCourse;
+import com.hasandag.user.repository.CatalogCourseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains the local course catalog projection from the log-compacted course-state topic: the
+ * course_catalog table, written by the shared consumer group, and the in-memory
+ * {@link CourseCatalog} copy of each replica, which serves all lookups. The copy is loaded from
+ * the table before the listeners start, so lookups work while {@link CourseCatalogFeed}
+ * replays course-state in log order on top of it and then keeps it current.
+ * <p>
+ * The projection can be rebuilt by clearing it and replaying course-state from the beginning,
+ * which reads about one record per live course regardless of how long the course history is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseCatalogService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final CatalogCourseRepository catalogCourseRepository;
+    private final CourseCatalog courseCatalog;
+
+    @PostConstruct
+    public void load() {
+        long start = System.nanoTime();
+        long afterId = 0L;
+        List<CatalogCourse> batch;
+        do {
+            batch = catalogCourseRepository.findByCourseIdGreaterThanAndDeletedFalseOrderByCourseIdAsc(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            courseCatalog.load(batch);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getCourseId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Loaded {} courses into the course catalog in {} ms",
+                courseCatalog.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Optional<CatalogCourse> getCourse(Long courseId) {
+        return courseCatalog.get(courseId);
+    }
+
+    /**
+     * Applies the latest course states of a batch, keyed by course id; a null state is a
+     * tombstone of a deleted course. Uses one read of the affected rows and one write per
+     * changed row, and applying the same states again leaves the projection unchanged. A state
+     * older than the stored row, such as a parked record that succeeded on retry after a newer
+     * state was applied, is skipped.
+     * <p>
+     * A tombstone marks the course deleted rather than removing its row, stamped with the time
+     * it was applied, since the tombstone carries no timestamp of its own. A parked state of the
+     * course that succeeds on retry afterwards is then older than the marker and skipped, and
+     * does not bring the course back once compaction has dropped the tombstone.
+     */
+    @Transactional
+    public void apply(Map<Long, CourseState> states) {
+        if (states.isEmpty()) {
+            return;
+        }
+
+        Map<Long, CatalogCourse> stored = new HashMap<>();
+        catalogCourseRepository.findAllById(states.keySet()).forEach(course -> stored.put(course.getCourseId(), course));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CatalogCourse> upserts = new ArrayList<>();
+        states.forEach((courseId, state) -> {
+            CatalogCourse course = stored.get(courseId);
+            if (course == null) {
+                course = CatalogCourse.builder().courseId(courseId).build();
+            } else if (isOlder(state, course)) {
+                log.debug("Skipping course state {} older than the stored one", courseId);
+                return;
+            }
+            if (state == null) {
+                if (!course.isDeleted()) {
+                    course.setDeleted(true);
+                    course.setUpdatedAt(now);
+                    upserts.add(course);
+                }
+                return;
+            }
+            course.setTitle(state.getTitle());
+            course.setInstructorId(state.getInstructorId());
+            course.setUpdatedAt(state.getUpdatedAt());
+            course.setDeleted(false);
+            upserts.add(course);
+        });
+
+        catalogCourseRepository.saveAll(upserts);
+    }
+
+    /**
+     * Empties the course_catalog table ahead of a replay of course-state; the in-memory copies
+     * are cleared by {@link CourseCatalogFeed} on each replica.
+     */
+    @Transactional
+    public void clear() {
+        catalogCourseRepository.deleteAllInBatch();
+        log.info("Cleared the course catalog table");
+    }
+
+    private static boolean isOlder(CourseState state, CatalogCourse course) {
+        if (state == null || course.getUpdatedAt() == null) {
+            return false;
+        }
+        if (course.isDeleted()) {
+            return state.getUpdatedAt() == null || !state.getUpdatedAt().isAfter(course.getUpdatedAt());
+        }
+        return state.getUpdatedAt() != null && state.getUpdatedAt().isBefore(course.getUpdatedAt());
+    }
+}
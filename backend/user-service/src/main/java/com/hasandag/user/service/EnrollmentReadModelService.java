@@ -0,0 +1,167 @@
+package com.hasandag.user.service;
+
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.user.catalog.CourseCatalog;
+import com.hasandag.user.model.UserCourseEnrollment;
+import com.hasandag.user.model.UserLearningSummary;
+import com.hasandag.user.repository.UserCourseEnrollmentRepository;
+import com.hasandag.user.repository.UserLearningSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Denormalized per-user view of the enrollments in course-service, built from enrollment events.
+ * <p>
+ * Events are keyed by user id, so all events of a user are applied in order by one consumer.
+ * Applying an event is idempotent: a redelivered ENROLLED or COMPLETED event changes nothing and
+ * an UNENROLLED event for an unknown enrollment changes no counts. Completion is never reverted by a
+ * later ENROLLED event, and the summary counts never drop below zero.
+ * <p>
+ * A parked event that succeeds on retry may arrive after newer events of the same enrollment,
+ * so an event older than the stored row's updatedAt is skipped. Unenrolled enrollments are kept
+ * as UNENROLLED rows for that comparison, also when the UNENROLLED event is the first one seen for
+ * the enrollment, which stops a retried ENROLLED event from bringing back an enrollment that has
+ * since been cancelled.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentReadModelService {
+
+    private final UserLearningSummaryRepository summaryRepository;
+    private final UserCourseEnrollmentRepository enrollmentRepository;
+    private final CourseCatalog courseCatalog;
+
+    public Optional<UserLearningSummary> getSummary(String userId) {
+        return summaryRepository.findById(userId);
+    }
+
+    /**
+     * The user's courses, with titles taken from the course catalog projection where known
+     * since it reflects later course renames.
+     */
+    public List<UserCourseEnrollment> getCourses(String userId) {
+        List<UserCourseEnrollment> courses = new ArrayList<>();
+        for (UserCourseEnrollment enrollment : enrollmentRepository.findByUserIdAndStatusNotOrderByUpdatedAtDesc(
+                userId, EnrollmentEvent.EnrollmentStatus.UNENROLLED)) {
+            courses.add(courseCatalog.get(enrollment.getCourseId())
+                    .map(course -> enrollment.toBuilder().courseName(course.getTitle()).build())
+                    .orElse(enrollment));
+        }
+        return courses;
+    }
+
+    /**
+     * Applies a batch of events with one read of the affected rows and one write per changed row.
+     */
+    @Transactional
+    public void apply(List<EnrollmentEvent> events) {
+        List<EnrollmentEvent> valid = new ArrayList<>(events.size());
+        Set<UserCourseEnrollment.Key> keys = new HashSet<>();
+        Set<String> userIds = new HashSet<>();
+        for (EnrollmentEvent event : events) {
+            UserCourseEnrollment.Key key = keyOf(event);
+            if (key == null || event.getStatus() == null) {
+                log.warn("Ignoring incomplete enrollment event: {}", event);
+                continue;
+            }
+            valid.add(event);
+            keys.add(key);
+            userIds.add(key.getUserId());
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Map<UserCourseEnrollment.Key, UserCourseEnrollment> enrollments = new HashMap<>();
+        enrollmentRepository.findAllById(keys).forEach(enrollment -> enrollments.put(enrollment.key(), enrollment));
+
+        Map<String, UserLearningSummary> summaries = new LinkedHashMap<>();
+        summaryRepository.findAllById(userIds).forEach(summary -> summaries.put(summary.getUserId(), summary));
+
+        Map<UserCourseEnrollment.Key, UserCourseEnrollment> changed = new LinkedHashMap<>();
+        for (EnrollmentEvent event : valid) {
+            UserCourseEnrollment.Key key = keyOf(event);
+            UserLearningSummary summary = summaries.computeIfAbsent(key.getUserId(), UserLearningSummary::empty);
+            LocalDateTime timestamp = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+            UserCourseEnrollment current = enrollments.get(key);
+            if (current != null && current.getUpdatedAt() != null && timestamp.isBefore(current.getUpdatedAt())) {
+                log.debug("Skipping {} event for {} older than the stored enrollment", event.getStatus(), key);
+                continue;
+            }
+            boolean active = current != null && current.getStatus() != EnrollmentEvent.EnrollmentStatus.UNENROLLED;
+
+            if (event.getStatus() == EnrollmentEvent.EnrollmentStatus.UNENROLLED) {
+                if (active) {
+                    summary.setEnrolledCourses(Math.max(0, summary.getEnrolledCourses() - 1));
+                    if (current.getStatus() == EnrollmentEvent.EnrollmentStatus.COMPLETED) {
+                        summary.setCompletedCourses(Math.max(0, summary.getCompletedCourses() - 1));
+                    }
+                    summary.setUpdatedAt(timestamp);
+                } else if (current == null) {
+                    // Kept as a marker, so that an older ENROLLED event parked before it cannot enroll
+                    current = UserCourseEnrollment.builder()
+                            .userId(key.getUserId())
+                            .courseId(key.getCourseId())
+                            .build();
+                    enrollments.put(key, current);
+                }
+                current.setStatus(EnrollmentEvent.EnrollmentStatus.UNENROLLED);
+                current.setUpdatedAt(timestamp);
+                changed.put(key, current);
+                continue;
+            }
+
+            if (current == null) {
+                current = UserCourseEnrollment.builder()
+                        .userId(key.getUserId())
+                        .courseId(key.getCourseId())
+                        .build();
+                enrollments.put(key, current);
+            }
+            if (!active) {
+                current.setStatus(EnrollmentEvent.EnrollmentStatus.ENROLLED);
+                summary.setEnrolledCourses(summary.getEnrolledCourses() + 1);
+                summary.setUpdatedAt(timestamp);
+            }
+            if (event.getStatus() == EnrollmentEvent.EnrollmentStatus.COMPLETED
+                    && current.getStatus() != EnrollmentEvent.EnrollmentStatus.COMPLETED) {
+                current.setStatus(EnrollmentEvent.EnrollmentStatus.COMPLETED);
+                summary.setCompletedCourses(summary.getCompletedCourses() + 1);
+                summary.setUpdatedAt(timestamp);
+            }
+            if (event.getCourseName() != null) {
+                current.setCourseName(event.getCourseName());
+            }
+            current.setUpdatedAt(timestamp);
+            changed.put(key, current);
+        }
+
+        enrollmentRepository.saveAll(changed.values());
+        summaryRepository.saveAll(summaries.values());
+        log.debug("Applied {} enrollment events for {} users", valid.size(), userIds.size());
+    }
+
+    private static UserCourseEnrollment.Key keyOf(EnrollmentEvent event) {
+        if (event.getUserId() == null || event.getCourseId() == null) {
+            return null;
+        }
+        try {
+            return new UserCourseEnrollment.Key(event.getUserId(), Long.parseLong(event.getCourseId()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hasandag.user.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        // Arrange
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        // Act
+        assertNull(map.put(1L, "one"));
+        assertEquals("one", map.put(1L, "uno"));
+        map.put(-5L, "minus five");
+        map.put(Long.MAX_VALUE, "max");
+
+        // Assert
+        assertEquals(3, map.size());
+        assertEquals("uno", map.get(1L));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertNull(map.get(2L));
+        assertEquals("minus five", map.remove(-5L));
+        assertNull(map.remove(-5L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testRejectsNullValues() {
+        assertThrows(IllegalArgumentException.class, () -> new LongObjectHashMap<String>().put(1L, null));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        // Arrange: a small key range forces long probe runs, growth and backward shifts
+        Random random = new Random(7);
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+
+        // Act & Assert
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(300) - 150;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void testClear() {
+        // Arrange
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+        for (long key = 0; key < 100; key++) {
+            map.put(key, "course " + key);
+        }
+
+        // Act
+        map.clear();
+
+        // Assert
+        assertEquals(0, map.size());
+        assertNull(map.get(42L));
+        map.put(42L, "again");
+        assertEquals("again", map.get(42L));
+    }
+}
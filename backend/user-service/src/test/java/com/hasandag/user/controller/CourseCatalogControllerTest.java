@@ -0,0 +1,55 @@
+package com.hasandag.user.controller;
+
+import com.hasandag.user.config.SecurityConfig;
+import com.hasandag.user.kafka.CourseCatalogFeed;
+import com.hasandag.user.service.CourseCatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CourseCatalogController.class)
+@Import(SecurityConfig.class)
+class CourseCatalogControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CourseCatalogService courseCatalogService;
+
+    @MockBean
+    private CourseCatalogFeed courseCatalogFeed;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void testRebuild_ForbiddenForInstructor() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/course-catalog/rebuild")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_INSTRUCTOR"))))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(courseCatalogService, courseCatalogFeed);
+    }
+
+    @Test
+    void testRebuild_BroadcastForAdmin() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/course-catalog/rebuild")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isAccepted());
+        verify(courseCatalogService).clear();
+        verify(courseCatalogFeed).requestRebuild();
+    }
+}
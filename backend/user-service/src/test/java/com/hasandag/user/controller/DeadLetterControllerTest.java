@@ -0,0 +1,54 @@
+package com.hasandag.user.controller;
+
+import com.hasandag.user.config.SecurityConfig;
+import com.hasandag.user.kafka.DeadLetterReplayer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DeadLetterController.class)
+@Import(SecurityConfig.class)
+class DeadLetterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeadLetterReplayer deadLetterReplayer;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void testReplay_ForbiddenForStudent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/users/dead-letters/enrollment-events/replay")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_STUDENT"))))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(deadLetterReplayer);
+    }
+
+    @Test
+    void testReplay_AllowedForAdmin() throws Exception {
+        // Arrange
+        when(deadLetterReplayer.replay("enrollment-events")).thenReturn(3);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/dead-letters/enrollment-events/replay")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(3));
+    }
+}
@@ -0,0 +1,197 @@
+package com.hasandag.user.kafka;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.common.event.EnrollmentEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CourseEventConsumerTest {
+
+    private static final String ENROLLMENTS = "enrollment-events";
+    private static final String COURSE_STATE = "course-state";
+
+    @Mock
+    private CourseEventHandler courseEventHandler;
+
+    @Mock
+    private ListenerBatchMetrics batchMetrics;
+
+    @Mock
+    private EventParker eventParker;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @Mock
+    private Consumer<?, ?> consumer;
+
+    @InjectMocks
+    private CourseEventConsumer courseEventConsumer;
+
+    private final EnrollmentEvent poison = event("2", "20");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Any batch containing the poison event fails, as a constraint violation would
+        doAnswer(invocation -> {
+            List<EnrollmentEvent> events = invocation.getArgument(0);
+            if (events.contains(poison)) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return null;
+        }).when(courseEventHandler).handleEnrollmentEvents(anyList());
+    }
+
+    @Test
+    void testConsumeEnrollmentEvents_AppliesWholeBatchAtOnce() {
+        // Arrange
+        EnrollmentEvent first = event("1", "10");
+        EnrollmentEvent second = event("3", "30");
+
+        // Act
+        courseEventConsumer.consumeEnrollmentEvents(List.of(record(0, "1", first), record(1, "3", second)), acknowledgment, consumer);
+
+        // Assert
+        verify(courseEventHandler).handleEnrollmentEvents(List.of(first, second));
+        verify(eventParker).park(List.of(), List.of());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testConsumeEnrollmentEvents_ParksFailingRecordAndAppliesTheRest() {
+        // Arrange
+        EnrollmentEvent first = event("1", "10");
+        EnrollmentEvent last = event("3", "30");
+        ConsumerRecord<String, EnrollmentEvent> failing = record(1, "2", poison);
+
+        // Act
+        courseEventConsumer.consumeEnrollmentEvents(
+                List.of(record(0, "1", first), failing, record(2, "3", last)), acknowledgment, consumer);
+
+        // Assert
+        verify(courseEventHandler).handleEnrollmentEvents(List.of(first));
+        verify(courseEventHandler).handleEnrollmentEvents(List.of(last));
+        verify(eventParker).park(List.of(failing), List.of());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testConsumeEnrollmentEvents_ParksLaterRecordsOfAFailedKey() {
+        // Arrange: the second event of user 2 would succeed on its own
+        EnrollmentEvent later = event("2", "21");
+        ConsumerRecord<String, EnrollmentEvent> failing = record(0, "2", poison);
+        ConsumerRecord<String, EnrollmentEvent> sameKey = record(1, "2", later);
+
+        // Act
+        courseEventConsumer.consumeEnrollmentEvents(List.of(failing, sameKey), acknowledgment, consumer);
+
+        // Assert
+        verify(courseEventHandler, never()).handleEnrollmentEvents(List.of(later));
+        verify(eventParker).park(List.of(failing, sameKey), List.of());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testConsumeEnrollmentEvents_OutagePropagatesWithoutAcknowledging() {
+        // Arrange
+        doThrow(new DataAccessResourceFailureException("database unreachable"))
+                .when(courseEventHandler).handleEnrollmentEvents(anyList());
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> courseEventConsumer.consumeEnrollmentEvents(
+                List.of(record(0, "1", event("1", "10"))), acknowledgment, consumer));
+        verify(eventParker, never()).park(anyList(), anyList());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void testConsumeEnrollmentEvents_OutageDuringRecordFallbackPropagates() {
+        // Arrange: the batch fails on its data, then the database goes away
+        doAnswer(invocation -> {
+            List<EnrollmentEvent> events = invocation.getArgument(0);
+            if (events.size() > 1) {
+                throw new IllegalStateException("constraint violation");
+            }
+            throw new DataAccessResourceFailureException("database unreachable");
+        }).when(courseEventHandler).handleEnrollmentEvents(anyList());
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> courseEventConsumer.consumeEnrollmentEvents(
+                List.of(record(0, "1", event("1", "10")), record(1, "3", event("3", "30"))), acknowledgment, consumer));
+        verify(eventParker, never()).park(anyList(), anyList());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void testConsumeEnrollmentEvents_DeadLettersUnreadableRecords() {
+        // Arrange
+        EnrollmentEvent readable = event("1", "10");
+        ConsumerRecord<String, EnrollmentEvent> unreadable = record(1, "3", null);
+        unreadable.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[0]);
+
+        // Act
+        courseEventConsumer.consumeEnrollmentEvents(List.of(record(0, "1", readable), unreadable), acknowledgment, consumer);
+
+        // Assert
+        verify(courseEventHandler).handleEnrollmentEvents(List.of(readable));
+        verify(eventParker).park(List.of(), List.of(unreadable));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testConsumeCourseStates_KeepsLatestStatePerCourseAndTombstones() {
+        // Arrange
+        CourseState older = CourseState.builder().courseId("7").title("Spring Boot").build();
+        CourseState newer = CourseState.builder().courseId("7").title("Spring Boot 3").build();
+        List<ConsumerRecord<String, CourseState>> records = List.of(
+                new ConsumerRecord<>(COURSE_STATE, 0, 0, "7", older),
+                new ConsumerRecord<>(COURSE_STATE, 0, 1, "8", null),
+                new ConsumerRecord<>(COURSE_STATE, 0, 2, "not-a-course", older),
+                new ConsumerRecord<>(COURSE_STATE, 0, 3, "7", newer));
+
+        // Act
+        courseEventConsumer.consumeCourseStates(records, acknowledgment, consumer);
+
+        // Assert
+        ArgumentCaptor<Map<Long, CourseState>> states = ArgumentCaptor.forClass(Map.class);
+        verify(courseEventHandler).handleCourseStates(states.capture());
+        Map<Long, CourseState> expected = new HashMap<>();
+        expected.put(7L, newer);
+        expected.put(8L, null);
+        assertEquals(expected, states.getValue());
+        verify(acknowledgment).acknowledge();
+    }
+
+    private static ConsumerRecord<String, EnrollmentEvent> record(long offset, String key, EnrollmentEvent event) {
+        return new ConsumerRecord<>(ENROLLMENTS, 0, offset, key, event);
+    }
+
+    private static EnrollmentEvent event(String userId, String courseId) {
+        return EnrollmentEvent.builder()
+                .userId(userId)
+                .courseId(courseId)
+                .status(EnrollmentEvent.EnrollmentStatus.ENROLLED)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.hasandag.user.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeadLetterReplayerTest {
+
+    private static final String DLT = "user-service.enrollment-events-dlt";
+    private static final TopicPartition PARTITION = new TopicPartition(DLT, 0);
+
+    @Mock
+    private ConsumerFactory<String, Object> consumerFactory;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private RecordingConsumer consumer;
+    private DeadLetterReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        consumer = new RecordingConsumer();
+        consumer.updatePartitions(DLT, List.of(new PartitionInfo(DLT, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        replayer = new DeadLetterReplayer(consumerFactory, kafkaTemplate, Duration.ofSeconds(5)) {
+            @Override
+            Consumer<String, byte[]> createConsumer() {
+                return consumer;
+            }
+        };
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void testReplay_StopsAtEndOffsetsTakenAtStart() {
+        // Arrange: the record at offset 2 is dead-lettered after the replay started
+        consumer.updateEndOffsets(Map.of(PARTITION, 2L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(deadLetter(0, "1", "first"));
+            consumer.addRecord(deadLetter(1, "2", "second"));
+            consumer.addRecord(deadLetter(2, "3", "later"));
+        });
+
+        // Act
+        int replayed = replayer.replay("enrollment-events");
+
+        // Assert
+        assertEquals(2, replayed);
+        verify(kafkaTemplate).send("user-service.enrollment-events", "1", bytes("first"));
+        verify(kafkaTemplate).send("user-service.enrollment-events", "2", bytes("second"));
+        verify(kafkaTemplate, never()).send("user-service.enrollment-events", "3", bytes("later"));
+        assertEquals(Map.of(PARTITION, new OffsetAndMetadata(2L)), consumer.lastCommit);
+    }
+
+    @Test
+    void testReplay_CommitsNothingWhenSendFails() {
+        // Arrange
+        consumer.updateEndOffsets(Map.of(PARTITION, 1L));
+        consumer.schedulePollTask(() -> consumer.addRecord(deadLetter(0, "1", "first")));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> replayer.replay("enrollment-events"));
+        assertNull(consumer.lastCommit);
+    }
+
+    @Test
+    void testReplay_EmptyDeadLetterTopicReplaysNothing() {
+        // Arrange
+        consumer.updateEndOffsets(Map.of(PARTITION, 0L));
+
+        // Act
+        int replayed = replayer.replay("enrollment-events");
+
+        // Assert
+        assertEquals(0, replayed);
+        assertNull(consumer.lastCommit);
+    }
+
+    @Test
+    void testReplay_RejectsUnknownTopics() {
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay("user-events"));
+    }
+
+    private static ConsumerRecord<String, byte[]> deadLetter(long offset, String key, String value) {
+        return new ConsumerRecord<>(DLT, 0, offset, key, bytes(value));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // MockConsumer refuses every call once closed, so commits are recorded as they happen
+    private static class RecordingConsumer extends MockConsumer<String, byte[]> {
+
+        private Map<TopicPartition, OffsetAndMetadata> lastCommit;
+
+        RecordingConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+        }
+
+        @Override
+        public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+            lastCommit = new HashMap<>(offsets);
+            super.commitSync(offsets);
+        }
+    }
+}
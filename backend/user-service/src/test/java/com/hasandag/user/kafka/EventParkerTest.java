@@ -0,0 +1,116 @@
+package com.hasandag.user.kafka;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.common.event.EventDeserializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class EventParkerTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventParker eventParker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        eventParker = new EventParker(kafkaTemplate, new ListenerBatchMetrics(meterRegistry), Duration.ofSeconds(1));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void testPark_SendsFailedRecordsToTheRetryChain() {
+        // Arrange
+        EnrollmentEvent event = EnrollmentEvent.builder().userId("1").courseId("10").build();
+
+        // Act
+        eventParker.park(List.of(new ConsumerRecord<>("enrollment-events", 0, 5L, "1", event)), List.of());
+
+        // Assert
+        verify(kafkaTemplate).send("user-service.enrollment-events", "1", event);
+        assertEquals(1.0, meterRegistry.get("user.kafka.parked").tag("topic", "enrollment-events").counter().count());
+    }
+
+    @Test
+    void testPark_ParkedTombstoneStaysTombstone() {
+        // Arrange: a tombstone is readable, it carries no deserialization error
+        ConsumerRecord<String, CourseState> tombstone = new ConsumerRecord<>("course-state", 0, 5L, "7", null);
+
+        // Act
+        eventParker.park(List.of(tombstone), List.of());
+
+        // Assert
+        assertFalse(EventParker.isUnreadable(tombstone));
+        verify(kafkaTemplate).send("user-service.course-state", "7", null);
+    }
+
+    @Test
+    void testPark_DeadLettersUnreadableRecordsWithOriginalBytes() {
+        // Arrange
+        byte[] original = "{\"courseId\":\"7\"}".getBytes(StandardCharsets.UTF_8);
+        ConsumerRecord<String, Object> unreadable = unreadable("course-state", "7", original);
+
+        // Act
+        eventParker.park(List.of(), List.of(unreadable));
+
+        // Assert
+        assertTrue(EventParker.isUnreadable(unreadable));
+        verify(kafkaTemplate).send("user-service.course-state-dlt", "7", original);
+        assertEquals(1.0, meterRegistry.get("user.kafka.dlt")
+                .tag("topic", "course-state")
+                .tag("reason", "deserialization")
+                .counter().count());
+    }
+
+    @Test
+    void testPark_ThrowsWhenSendFails() {
+        // Arrange
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        EnrollmentEvent event = EnrollmentEvent.builder().userId("1").courseId("10").build();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> eventParker.park(
+                List.of(new ConsumerRecord<>("enrollment-events", 0, 5L, "1", event)), List.of()));
+    }
+
+    @Test
+    void testPark_NothingToParkSendsNothing() {
+        // Act
+        eventParker.park(List.of(), List.of());
+
+        // Assert
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    // Lets the error handling deserializer record the failure on the record, as the container does
+    private static ConsumerRecord<String, Object> unreadable(String topic, String key, byte[] value) {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>(topic, 0, 5L, key, null);
+        try (ErrorHandlingDeserializer<Object> deserializer = new ErrorHandlingDeserializer<>(new EventDeserializer())) {
+            assertNull(deserializer.deserialize(topic, record.headers(), value));
+        }
+        return record;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hasandag.user.kafka;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.common.event.EnrollmentEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+class ParkedEventConsumerTest {
+
+    @Mock
+    private CourseEventHandler courseEventHandler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ParkedEventConsumer parkedEventConsumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        parkedEventConsumer = new ParkedEventConsumer(courseEventHandler, new ListenerBatchMetrics(meterRegistry));
+    }
+
+    @Test
+    void testConsume_AppliesParkedTombstoneAsTombstone() {
+        // Act
+        parkedEventConsumer.consume(new ConsumerRecord<>("user-service.course-state", 0, 0L, "7", null));
+
+        // Assert: not Map.of, a tombstone maps to null
+        Map<Long, CourseState> expected = new HashMap<>();
+        expected.put(7L, null);
+        verify(courseEventHandler).handleCourseStates(expected);
+        assertTrue(meterRegistry.find("user.kafka.retry").counters().isEmpty());
+    }
+
+    @Test
+    void testConsume_CountsRetriesOnRetryTopics() {
+        // Arrange
+        EnrollmentEvent event = EnrollmentEvent.builder().userId("1").courseId("10").build();
+
+        // Act
+        parkedEventConsumer.consume(new ConsumerRecord<>("user-service.enrollment-events-retry-1", 0, 0L, "1", event));
+
+        // Assert
+        verify(courseEventHandler).handleEnrollmentEvents(List.of(event));
+        assertEquals(1.0, meterRegistry.get("user.kafka.retry").tag("topic", "enrollment-events").counter().count());
+    }
+
+    @Test
+    void testConsume_FirstAttemptIsNotCountedAsRetry() {
+        // Arrange
+        EnrollmentEvent event = EnrollmentEvent.builder().userId("1").courseId("10").build();
+
+        // Act
+        parkedEventConsumer.consume(new ConsumerRecord<>("user-service.enrollment-events", 0, 0L, "1", event));
+
+        // Assert
+        verify(courseEventHandler).handleEnrollmentEvents(List.of(event));
+        assertTrue(meterRegistry.find("user.kafka.retry").counters().isEmpty());
+    }
+
+    @Test
+    void testDeadLetter_CountsExhaustedRetries() {
+        // Act
+        parkedEventConsumer.deadLetter(new ConsumerRecord<>("user-service.course-state-dlt", 0, 0L, "7", null), "boom");
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("user.kafka.dlt")
+                .tag("topic", "course-state")
+                .tag("reason", "retries-exhausted")
+                .counter().count());
+    }
+}
@@ -0,0 +1,136 @@
+package com.hasandag.user.service;
+
+import com.hasandag.common.event.CourseState;
+import com.hasandag.user.catalog.CourseCatalog;
+import com.hasandag.user.model.CatalogCourse;
+import com.hasandag.user.repository.CatalogCourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseCatalogServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private CatalogCourseRepository catalogCourseRepository;
+
+    @Mock
+    private CourseCatalog courseCatalog;
+
+    @InjectMocks
+    private CourseCatalogService service;
+
+    private CatalogCourse stored;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        stored = CatalogCourse.builder().courseId(7L).title("Spring Boot 3").instructorId("1").updatedAt(START).build();
+        when(catalogCourseRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+    }
+
+    @Test
+    void testApply_SkipsStateOlderThanStored() {
+        // Act: a parked state from before the stored one succeeds on retry
+        service.apply(Map.of(7L, state("Spring Boot", START.minusMinutes(5))));
+
+        // Assert
+        assertTrue(savedCourses().isEmpty());
+        assertEquals("Spring Boot 3", stored.getTitle());
+    }
+
+    @Test
+    void testApply_AppliesNewerState() {
+        // Act
+        service.apply(Map.of(7L, state("Spring Boot 3.2", START.plusMinutes(5))));
+
+        // Assert
+        List<CatalogCourse> saved = savedCourses();
+        assertEquals(1, saved.size());
+        assertEquals("Spring Boot 3.2", saved.get(0).getTitle());
+        assertEquals(START.plusMinutes(5), saved.get(0).getUpdatedAt());
+    }
+
+    @Test
+    void testApply_TombstoneMarksStoredCourseDeleted() {
+        // Act
+        service.apply(tombstone(7L));
+
+        // Assert
+        assertEquals(List.of(stored), savedCourses());
+        assertTrue(stored.isDeleted());
+        assertTrue(stored.getUpdatedAt().isAfter(START));
+    }
+
+    @Test
+    void testApply_TombstoneOfUnknownCourseStoresMarker() {
+        // Arrange
+        when(catalogCourseRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        // Act
+        service.apply(tombstone(7L));
+
+        // Assert
+        List<CatalogCourse> saved = savedCourses();
+        assertEquals(1, saved.size());
+        assertTrue(saved.get(0).isDeleted());
+        assertNotNull(saved.get(0).getUpdatedAt());
+    }
+
+    @Test
+    void testApply_OlderStateAfterTombstoneIsSkipped() {
+        // Arrange: the course was deleted after a parked state of it was produced
+        stored.setDeleted(true);
+        stored.setUpdatedAt(START.plusMinutes(10));
+
+        // Act: the parked state succeeds on retry
+        service.apply(Map.of(7L, state("Spring Boot 3.2", START.plusMinutes(5))));
+
+        // Assert
+        assertTrue(savedCourses().isEmpty());
+        assertTrue(stored.isDeleted());
+    }
+
+    private List<CatalogCourse> savedCourses() {
+        ArgumentCaptor<Iterable<CatalogCourse>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(catalogCourseRepository).saveAll(captor.capture());
+        return toList(captor.getValue());
+    }
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    private static Map<Long, CourseState> tombstone(Long courseId) {
+        // Not Map.of, a tombstone maps to null
+        Map<Long, CourseState> states = new HashMap<>();
+        states.put(courseId, null);
+        return states;
+    }
+
+    private static CourseState state(String title, LocalDateTime updatedAt) {
+        return CourseState.builder()
+                .courseId("7")
+                .title(title)
+                .instructorId("1")
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
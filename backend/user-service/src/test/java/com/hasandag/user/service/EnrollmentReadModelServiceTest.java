@@ -0,0 +1,227 @@
+package com.hasandag.user.service;
+
+import com.hasandag.common.event.EnrollmentEvent;
+import com.hasandag.common.event.EnrollmentEvent.EnrollmentStatus;
+import com.hasandag.user.catalog.CourseCatalog;
+import com.hasandag.user.model.UserCourseEnrollment;
+import com.hasandag.user.model.UserLearningSummary;
+import com.hasandag.user.repository.UserCourseEnrollmentRepository;
+import com.hasandag.user.repository.UserLearningSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnrollmentReadModelServiceTest {
+
+    private static final String USER_ID = "1";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private UserLearningSummaryRepository summaryRepository;
+
+    @Mock
+    private UserCourseEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private CourseCatalog courseCatalog;
+
+    @InjectMocks
+    private EnrollmentReadModelService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(enrollmentRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(summaryRepository.findAllById(anyIterable())).thenReturn(List.of());
+    }
+
+    @Test
+    void testApply_RedeliveredEnrolledAndCompletedChangeNothing() {
+        // Arrange
+        UserCourseEnrollment stored = enrollment(10L, EnrollmentStatus.COMPLETED, START);
+        when(enrollmentRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+        when(summaryRepository.findAllById(anyIterable())).thenReturn(List.of(summary(1, 1)));
+
+        // Act
+        service.apply(List.of(
+                event(10L, EnrollmentStatus.ENROLLED, START.plusSeconds(1)),
+                event(10L, EnrollmentStatus.COMPLETED, START.plusSeconds(2))));
+
+        // Assert
+        UserLearningSummary summary = savedSummary();
+        assertEquals(1, summary.getEnrolledCourses());
+        assertEquals(1, summary.getCompletedCourses());
+        assertEquals(EnrollmentStatus.COMPLETED, savedEnrollments().get(0).getStatus());
+    }
+
+    @Test
+    void testApply_UnenrolledOfUnknownEnrollmentStoresMarker() {
+        // Act
+        service.apply(List.of(event(10L, EnrollmentStatus.UNENROLLED, START)));
+
+        // Assert
+        UserLearningSummary summary = savedSummary();
+        assertEquals(0, summary.getEnrolledCourses());
+        assertEquals(0, summary.getCompletedCourses());
+        List<UserCourseEnrollment> saved = savedEnrollments();
+        assertEquals(1, saved.size());
+        assertEquals(EnrollmentStatus.UNENROLLED, saved.get(0).getStatus());
+        assertEquals(START, saved.get(0).getUpdatedAt());
+    }
+
+    @Test
+    void testApply_OlderEnrolledAfterUnenrolledOfUnknownEnrollmentIsSkipped() {
+        // Arrange: the ENROLLED event was parked, the later UNENROLLED event found no row
+        service.apply(List.of(event(10L, EnrollmentStatus.UNENROLLED, START.plusMinutes(5))));
+        UserCourseEnrollment marker = savedEnrollments().get(0);
+        when(enrollmentRepository.findAllById(anyIterable())).thenReturn(List.of(marker));
+        when(summaryRepository.findAllById(anyIterable())).thenReturn(List.of(summary(0, 0)));
+
+        // Act: the parked ENROLLED event succeeds on retry
+        service.apply(List.of(event(10L, EnrollmentStatus.ENROLLED, START)));
+
+        // Assert
+        ArgumentCaptor<Iterable<UserLearningSummary>> summaries = ArgumentCaptor.forClass(Iterable.class);
+        verify(summaryRepository, times(2)).saveAll(summaries.capture());
+        assertEquals(0, toList(summaries.getValue()).get(0).getEnrolledCourses());
+        assertEquals(EnrollmentStatus.UNENROLLED, marker.getStatus());
+        assertEquals(START.plusMinutes(5), marker.getUpdatedAt());
+    }
+
+    @Test
+    void testApply_EnrolledUnenrolledEnrolledInOneBatch() {
+        // Act
+        service.apply(List.of(
+                event(10L, EnrollmentStatus.ENROLLED, START),
+                event(10L, EnrollmentStatus.UNENROLLED, START.plusSeconds(1)),
+                event(10L, EnrollmentStatus.ENROLLED, START.plusSeconds(2))));
+
+        // Assert
+        List<UserCourseEnrollment> saved = savedEnrollments();
+        assertEquals(1, saved.size());
+        assertEquals(EnrollmentStatus.ENROLLED, saved.get(0).getStatus());
+        assertEquals(START.plusSeconds(2), saved.get(0).getUpdatedAt());
+        assertEquals(1, savedSummary().getEnrolledCourses());
+    }
+
+    @Test
+    void testApply_CountsNeverGoNegative() {
+        // Arrange: the enrollment is known but its user has no summary row
+        UserCourseEnrollment stored = enrollment(10L, EnrollmentStatus.COMPLETED, START);
+        when(enrollmentRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+
+        // Act
+        service.apply(List.of(event(10L, EnrollmentStatus.UNENROLLED, START.plusSeconds(1))));
+
+        // Assert
+        UserLearningSummary summary = savedSummary();
+        assertEquals(0, summary.getEnrolledCourses());
+        assertEquals(0, summary.getCompletedCourses());
+        assertEquals(EnrollmentStatus.UNENROLLED, savedEnrollments().get(0).getStatus());
+    }
+
+    @Test
+    void testApply_RetriedEnrolledAfterUnenrolledIsSkipped() {
+        // Arrange
+        UserCourseEnrollment stored = enrollment(10L, EnrollmentStatus.UNENROLLED, START.plusMinutes(5));
+        when(enrollmentRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+        when(summaryRepository.findAllById(anyIterable())).thenReturn(List.of(summary(0, 0)));
+
+        // Act
+        service.apply(List.of(event(10L, EnrollmentStatus.ENROLLED, START)));
+
+        // Assert
+        assertEquals(0, savedSummary().getEnrolledCourses());
+        assertTrue(savedEnrollments().isEmpty());
+        assertEquals(EnrollmentStatus.UNENROLLED, stored.getStatus());
+    }
+
+    @Test
+    void testApply_RetriedUnenrolledAfterNewerEnrolledIsSkipped() {
+        // Arrange
+        UserCourseEnrollment stored = enrollment(10L, EnrollmentStatus.ENROLLED, START.plusMinutes(5));
+        when(enrollmentRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+        when(summaryRepository.findAllById(anyIterable())).thenReturn(List.of(summary(1, 0)));
+
+        // Act
+        service.apply(List.of(event(10L, EnrollmentStatus.UNENROLLED, START)));
+
+        // Assert
+        assertEquals(1, savedSummary().getEnrolledCourses());
+        assertEquals(EnrollmentStatus.ENROLLED, stored.getStatus());
+    }
+
+    @Test
+    void testApply_NewerEnrolledReactivatesEnrollment() {
+        // Arrange
+        UserCourseEnrollment stored = enrollment(10L, EnrollmentStatus.UNENROLLED, START);
+        when(enrollmentRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+        when(summaryRepository.findAllById(anyIterable())).thenReturn(List.of(summary(0, 0)));
+
+        // Act
+        service.apply(List.of(event(10L, EnrollmentStatus.ENROLLED, START.plusMinutes(5))));
+
+        // Assert
+        assertEquals(1, savedSummary().getEnrolledCourses());
+        assertEquals(EnrollmentStatus.ENROLLED, savedEnrollments().get(0).getStatus());
+    }
+
+    private UserLearningSummary savedSummary() {
+        ArgumentCaptor<Iterable<UserLearningSummary>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(summaryRepository).saveAll(captor.capture());
+        List<UserLearningSummary> summaries = toList(captor.getValue());
+        assertEquals(1, summaries.size());
+        return summaries.get(0);
+    }
+
+    private List<UserCourseEnrollment> savedEnrollments() {
+        ArgumentCaptor<Iterable<UserCourseEnrollment>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(enrollmentRepository).saveAll(captor.capture());
+        return toList(captor.getValue());
+    }
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    private static UserCourseEnrollment enrollment(Long courseId, EnrollmentStatus status, LocalDateTime updatedAt) {
+        return UserCourseEnrollment.builder()
+                .userId(USER_ID)
+                .courseId(courseId)
+                .status(status)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private static UserLearningSummary summary(int enrolled, int completed) {
+        return UserLearningSummary.builder()
+                .userId(USER_ID)
+                .enrolledCourses(enrolled)
+                .completedCourses(completed)
+                .build();
+    }
+
+    private static EnrollmentEvent event(Long courseId, EnrollmentStatus status, LocalDateTime timestamp) {
+        return EnrollmentEvent.builder()
+                .userId(USER_ID)
+                .courseId(courseId.toString())
+                .status(status)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -25,6 +25,12 @@ const AiAssistant = ({ courseId = null, context = null, onClose }) => {
   const [error, setError] = useState(null);
   const { isAuthenticated } = useSelector(state => state.auth);
   const chatEndRef = useRef(null);
+  const streamRef = useRef(null);
+  
+  // Stop a streaming answer when the assistant is closed
+  useEffect(() => {
+    return () => streamRef.current?.abort();
+  }, []);
   
   // Scroll to the bottom of the chat on new messages
   useEffect(() => {
@@ -55,21 +61,39 @@ const AiAssistant = ({ courseId = null, context = null, onClose }) => {
     setLoading(true);
     setError(null);
     
+    const stream = new AbortController();
+    streamRef.current = stream;
+    let started = false;
+    
     try {
-      // Call the AI service
-      const response = await aiService.askQuestion(question, courseId, context);
-      
-      // Add AI response to conversation
-      const aiMessage = {
-        type: 'ai',
-        content: response.answer,
-        timestamp: response.timestamp,
-        questionId: response.questionId,
-      };
+      // Stream the answer from the AI service, showing it as it is generated
+      const response = await aiService.streamQuestion(question, courseId, context, (text) => {
+        if (!started) {
+          started = true;
+          setConversation(prev => [...prev, {
+            type: 'ai',
+            content: text,
+            timestamp: new Date().toISOString(),
+          }]);
+        } else {
+          setConversation(prev => {
+            const last = prev[prev.length - 1];
+            return [...prev.slice(0, -1), { ...last, content: last.content + text }];
+          });
+        }
+      }, stream.signal);
       
-      setConversation(prev => [...prev, aiMessage]);
+      // Add the AI response metadata to the streamed answer
+      setConversation(prev => {
+        if (!started) {
+          return [...prev, { type: 'ai', content: '', timestamp: response.timestamp, questionId: response.questionId }];
+        }
+        const last = prev[prev.length - 1];
+        return [...prev.slice(0, -1), { ...last, timestamp: response.timestamp, questionId: response.questionId }];
+      });
       setQuestion('');
     } catch (err) {
+      if (err.name === 'AbortError') return;
       console.error('Error getting AI response:', err);
       setError('Sorry, I encountered an error. Please try again.');
       
@@ -200,7 +224,7 @@ const AiAssistant = ({ courseId = null, context = null, onClose }) => {
         ) : (
           conversation.map(renderMessage)
         )}
-        {loading && (
+        {loading && conversation[conversation.length - 1]?.type !== 'ai' && (
           <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
             <CircularProgress size={24} />
           </Box>
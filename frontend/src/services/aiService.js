@@ -34,6 +34,29 @@ apiClient.interceptors.response.use(
   }
 );
 
+// Parse one server-sent event into its name and data
+const parseServerSentEvent = (raw) => {
+  let name = 'message';
+  const data = [];
+  
+  for (const line of raw.split('\n')) {
+    const separator = line.indexOf(':');
+    const field = separator >= 0 ? line.slice(0, separator) : line;
+    let value = separator >= 0 ? line.slice(separator + 1) : '';
+    if (value.startsWith(' ')) {
+      value = value.slice(1);
+    }
+    
+    if (field === 'event') {
+      name = value;
+    } else if (field === 'data') {
+      data.push(value);
+    }
+  }
+  
+  return { name, data: data.join('\n') };
+};
+
 // AI service functions
 export const aiService = {
   // Ask a question to the AI assistant
@@ -61,6 +84,62 @@ export const aiService = {
     }
   },
   
+  // Stream the answer to a question as it is generated. onToken is called with each chunk of
+  // the answer; resolves with the question metadata once the answer is complete. Aborting the
+  // signal closes the stream, which also stops the generation on the server.
+  streamQuestion: async (question, courseId = null, context = null, onToken, signal) => {
+    const user = localStorage.getItem('user') 
+      ? JSON.parse(localStorage.getItem('user')) 
+      : null;
+    const token = localStorage.getItem('token');
+    
+    // fetch rather than axios or EventSource: the body has to be read while it arrives, and
+    // EventSource cannot send a POST body or an Authorization header
+    const response = await fetch(`${API_URL}/ask/stream`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+        Accept: 'text/event-stream',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      body: JSON.stringify({ question, courseId, userId: user?.id, context }),
+      signal,
+    });
+    
+    if (!response.ok) {
+      throw new Error(`AI service responded with ${response.status}`);
+    }
+    
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    
+    while (true) {
+      const { value, done } = await reader.read();
+      if (done) {
+        throw new Error('AI answer stream ended unexpectedly');
+      }
+      buffer += decoder.decode(value, { stream: true });
+      
+      // Events are separated by a blank line
+      let boundary;
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        const event = parseServerSentEvent(buffer.slice(0, boundary));
+        buffer = buffer.slice(boundary + 2);
+        
+        if (event.name === 'token') {
+          onToken(JSON.parse(event.data).text);
+        } else if (event.name === 'done') {
+          reader.cancel();
+          return JSON.parse(event.data);
+        } else if (event.name === 'error') {
+          reader.cancel();
+          throw new Error(JSON.parse(event.data).errorMessage);
+        }
+      }
+    }
+  },
+  
   // Check if the AI service is available
   checkHealth: async () => {
     try {
@@ -37,11 +37,28 @@ apiClient.interceptors.response.use(
   }
 );
 
+// Course lists are paginated; the cursor of the next page comes in this response header
+const NEXT_CURSOR_HEADER = 'x-next-cursor';
+const PAGE_SIZE = 100;
+
 class CourseService {
+  // Fetches every page of a course list endpoint by following the next-page cursor
+  async getAllPages(path, params = {}) {
+    const courses = [];
+    let cursor;
+    do {
+      const response = await apiClient.get(path, {
+        params: { ...params, size: PAGE_SIZE, ...(cursor ? { cursor } : {}) }
+      });
+      courses.push(...response.data);
+      cursor = response.headers[NEXT_CURSOR_HEADER];
+    } while (cursor);
+    return courses;
+  }
+
   async getAllCourses() {
     try {
-      const response = await apiClient.get('/courses');
-      return response.data;
+      return await this.getAllPages('/courses');
     } catch (error) {
       console.error('Error fetching courses:', error);
       return this.getFallbackCourses();
@@ -60,8 +77,7 @@ class CourseService {
 
   async getCoursesByCategory(category) {
     try {
-      const response = await apiClient.get(`/courses/category/${category}`);
-      return response.data;
+      return await this.getAllPages(`/courses/category/${encodeURIComponent(category)}`);
     } catch (error) {
       console.error(`Error fetching courses by category ${category}:`, error);
       return this.getFallbackCourses();
@@ -70,8 +86,7 @@ class CourseService {
 
   async searchCourses(keyword) {
     try {
-      const response = await apiClient.get(`/courses/search?keyword=${keyword}`);
-      return response.data;
+      return await this.getAllPages('/courses/search', { keyword });
     } catch (error) {
       console.error(`Error searching courses with keyword ${keyword}:`, error);
       return this.getFallbackCourses();
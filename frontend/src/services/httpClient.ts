@@ -94,7 +94,9 @@ axiosInstance.interceptors.response.use(
 export const httpClient = {
   // Course service endpoints
   courseService: {
-    getCourses: () => axiosInstance.get(`${COURSE_SERVICE_URL}/api/courses`),
+    // One page of courses; the cursor of the next page is in the X-Next-Cursor response header
+    getCourses: (cursor?: string, size?: number) =>
+      axiosInstance.get(`${COURSE_SERVICE_URL}/api/courses`, { params: { cursor, size } }),
     getCourse: (id: string) => axiosInstance.get(`${COURSE_SERVICE_URL}/api/courses/${id}`),
     createCourse: (data: any) => axiosInstance.post(`${COURSE_SERVICE_URL}/api/courses`, data),
     updateCourse: (id: string, data: any) => axiosInstance.put(`${COURSE_SERVICE_URL}/api/courses/${id}`, data),